@@ -0,0 +1,62 @@
+package co.eci.snake.bench;
+
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.Board;
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.engine.SessionConfig;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de un movimiento (steering + Board.step) en un solo hilo, segun el numero de serpientes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardStepBenchmark {
+
+  @Param({"1", "8", "64", "1024"})
+  public int snakes;
+
+  private GameSession session;
+  private List<SnakeRunner> runners;
+  private int next;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    // Tablero amplio para que la acumulacion de obstaculos no domine la medicion
+    session = new GameSession(SessionConfig.defaults(snakes).withSize(512, 512), () -> {});
+    runners = session.runners();
+    next = 0;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    session.close();
+  }
+
+  @Benchmark
+  public Board.MoveResult step() {
+    var runner = runners.get(next);
+    if (++next == runners.size()) next = 0;
+    return runner.stepOnce();
+  }
+}
@@ -0,0 +1,85 @@
+package co.eci.snake.bench;
+
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.Board;
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.engine.SessionConfig;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board.step con THREADS hilos compartiendo el tablero. Cada hilo mueve solo sus propias
+ * serpientes (indice % THREADS), igual que un SnakeRunner por serpiente.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(ContendedStepBenchmark.THREADS)
+public class ContendedStepBenchmark {
+  static final int THREADS = 8;
+
+  @State(Scope.Benchmark)
+  public static class Arena {
+    // Con menos serpientes que hilos dos hilos moverian la misma serpiente: se omite el caso de 1
+    @Param({"8", "64", "1024"})
+    public int snakes;
+
+    @Param({"0", "32"})
+    public int tileSize;
+
+    GameSession session;
+    List<SnakeRunner> runners;
+    final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      session = new GameSession(SessionConfig.defaults(snakes).withSize(512, 512).withTileSize(tileSize), () -> {});
+      runners = session.runners();
+      threadIds.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      session.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Slice {
+    int offset;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void setUp(Arena arena) {
+      offset = arena.threadIds.getAndIncrement() % THREADS;
+      next = offset;
+    }
+  }
+
+  @Benchmark
+  public Board.MoveResult step(Arena arena, Slice slice) {
+    var runner = arena.runners.get(slice.next);
+    slice.next += THREADS;
+    if (slice.next >= arena.runners.size()) slice.next = slice.offset;
+    return runner.stepOnce();
+  }
+}
@@ -0,0 +1,72 @@
+package co.eci.snake.bench;
+
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.engine.SessionConfig;
+import co.eci.snake.ui.legacy.SnakeApp;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pintado de un frame completo de GamePanel en una imagen fuera de pantalla (AWT headless),
+ * en modo full y con la capa estatica cacheada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+  @Param({"2", "64"})
+  public int snakes;
+
+  // full: repinta todo en cada frame; cached: fondo precalculado + capa dinamica
+  @Param({"full", "cached"})
+  public String mode;
+
+  private GameSession session;
+  private SnakeApp.GamePanel panel;
+  private BufferedImage image;
+  private Graphics2D graphics;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    session = new GameSession(SessionConfig.defaults(snakes), () -> {});
+    session.runHeadless(200, 0);
+    panel = new SnakeApp.GamePanel(session.frames(), session.board().width(), session.board().height(),
+        "cached".equals(mode), () -> false, () -> "", () -> "Tiempo: 00:00");
+    var size = panel.getPreferredSize();
+    panel.setSize(size);
+    image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    graphics = image.createGraphics();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphics.dispose();
+    session.close();
+  }
+
+  @Benchmark
+  public BufferedImage paintFrame() {
+    panel.paint(graphics);
+    return image;
+  }
+}
@@ -0,0 +1,52 @@
+package co.eci.snake.bench;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Position;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de hacer aparecer un raton segun el porcentaje de celdas ocupadas del tablero.
+ * Cada operacion coloca un raton y lo retira para mantener constante el llenado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RespawnBenchmark {
+
+  @Param({"0.0", "0.5", "0.9", "0.99"})
+  public double fill;
+
+  private Board board;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    board = new Board(256, 256);
+    int cells = board.width() * board.height();
+    int target = (int) (cells * (1 - fill));
+    while (board.freeCellCount() > Math.max(1, target)) board.spawnObstacle();
+  }
+
+  @Benchmark
+  public Position respawnMouse() {
+    Position p = board.spawnMouse();
+    if (p != null) board.removeMouse(p);
+    return p;
+  }
+}
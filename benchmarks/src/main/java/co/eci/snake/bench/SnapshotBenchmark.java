@@ -0,0 +1,65 @@
+package co.eci.snake.bench;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lectura del cuerpo de una serpiente segun su longitud: copia legacy (snapshot),
+ * copia consistente a un buffer reutilizado y recorrido sin copia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+
+  @Param({"5", "64", "1024", "16384"})
+  public int length;
+
+  private Snake snake;
+  private int[] buffer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    snake = Snake.of(0, 0, Direction.RIGHT);
+    for (int i = 1; snake.length() < length; i++) {
+      snake.advance(new Position(i % 4096, i / 4096), snake.length() >= 5);
+    }
+    buffer = new int[length];
+  }
+
+  @Benchmark
+  public Deque<Position> snapshot() {
+    return snake.snapshot();
+  }
+
+  @Benchmark
+  public int copySegments() {
+    return snake.copySegments(buffer);
+  }
+
+  @Benchmark
+  public void forEachSegment(Blackhole bh) {
+    snake.forEachSegment((i, x, y) -> bh.consume(x + y));
+  }
+}
@@ -1,10 +1,309 @@
 package co.eci.snake.app;
 
+import co.eci.snake.core.ChunkedBoard;
+import co.eci.snake.core.RespawnPolicy;
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.engine.InputJournal;
+import co.eci.snake.core.engine.Level;
+import co.eci.snake.core.engine.OpenWorld;
+import co.eci.snake.core.engine.Replay;
+import co.eci.snake.core.engine.SessionConfig;
+import co.eci.snake.core.engine.SessionSnapshot;
+import co.eci.snake.core.engine.Tournament;
+import co.eci.snake.core.events.EventProcessor;
+import co.eci.snake.core.events.ScoreBoard;
+import co.eci.snake.core.events.WaitStrategy;
+import co.eci.snake.net.ArenaServer;
+import co.eci.snake.net.LoadClient;
 import co.eci.snake.ui.legacy.SnakeApp;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
 public final class Main {
   private Main() {}
   public static void main(String[] args) {
+    if (option(args, "--replay", null) != null) {
+      runReplay(args);
+      return;
+    }
+    if (option(args, "--serve", null) != null) {
+      runServer(args);
+      return;
+    }
+    if (option(args, "--load", null) != null) {
+      runLoad(args);
+      return;
+    }
+    if (option(args, "--tournament", null) != null) {
+      runTournament(args);
+      return;
+    }
+    if (hasFlag(args, "--headless") && "chunked".equals(option(args, "--world", null))) {
+      runOpenWorld(args);
+      return;
+    }
+    if (hasFlag(args, "--headless")) {
+      runHeadless(args);
+      return;
+    }
     SnakeApp.launch();
   }
+
+  /**
+   * Headless mode: --headless [--ticks=N | --seconds=T] [--snakes=N] [--width=W] [--height=H] [--tile=S]
+   * [--seed=S [--record=FILE]] [--restore=FILE] [--checkpoint=FILE] [--metrics] [--scheduler=batch|wheel]
+   * [--steering=seek] [--events=spin|yield|sleep|block] [--level=FILE] [--zones=X:Y:W:H,...] [--save-level=FILE]
+   * [--speeds=MIN:MAX] [--respawn=DELAY[:MAX[:OBSTACLES[:TURBO]]]]
+   */
+  private static void runHeadless(String[] args) {
+    long ticks = longOption(args, "--ticks", 0);
+    double seconds = Double.parseDouble(option(args, "--seconds", "0"));
+    if (ticks <= 0 && seconds <= 0) ticks = 10_000;
+    int snakes = (int) longOption(args, "--snakes", Integer.getInteger("snakes", 2));
+    int width = (int) longOption(args, "--width", GameSession.DEFAULT_WIDTH);
+    int height = (int) longOption(args, "--height", GameSession.DEFAULT_HEIGHT);
+    int tile = (int) longOption(args, "--tile", Integer.getInteger("tile", 0));
+    String seed = option(args, "--seed", System.getProperty("seed"));
+    var config = SessionConfig.defaults(snakes).withSize(width, height).withTileSize(tile)
+        .withSeed(seed == null ? null : Long.parseLong(seed))
+        .withScheduler(SessionConfig.Scheduler.parse(option(args, "--scheduler", System.getProperty("scheduler"))))
+        .withSteering(SessionConfig.Steering.parse(option(args, "--steering", System.getProperty("steering"))));
+    String record = option(args, "--record", null);
+    if (record != null && seed == null) throw new IllegalArgumentException("--record requires --seed");
+    String restore = option(args, "--restore", null);
+    String checkpoint = option(args, "--checkpoint", null);
+    if (record != null && restore != null) throw new IllegalArgumentException("--record cannot resume from --restore");
+    String level = option(args, "--level", null);
+    String saveLevel = option(args, "--save-level", null);
+    if (level != null && restore != null) throw new IllegalArgumentException("--level and --restore are exclusive");
+    if (record != null && level != null) throw new IllegalArgumentException("--record requires a random world, not --level");
+    String zones = option(args, "--zones", null);
+    if (record != null && zones != null) throw new IllegalArgumentException("--record replays worlds without spawn zones only");
+
+    String events = option(args, "--events", null);
+    String speeds = option(args, "--speeds", null);
+    String respawn = option(args, "--respawn", null);
+    if (record != null && respawn != null) throw new IllegalArgumentException("--record replays the default respawn policy only");
+
+    try (var session = openSession(config, restore, level)) {
+      if (zones != null) session.board().spawnZones(parseZones(zones));
+      if (speeds != null) spreadSpeeds(session, speeds);
+      // Sin --respawn queda la politica del checkpoint restaurado (o la de siempre)
+      if (respawn != null) session.board().respawnPolicy(RespawnPolicy.parse(respawn));
+      if (saveLevel != null) {
+        long bytes = Level.write(session, Path.of(saveLevel));
+        System.out.printf("level written to %s (%d bytes)%n", saveLevel, bytes);
+      }
+      EventProcessor processor = null;
+      ScoreBoard scores = null;
+      Thread consumer = null;
+      if (events != null) {
+        scores = new ScoreBoard(session.snakes().size());
+        processor = new EventProcessor(session.enableEvents(1 << 16, WaitStrategy.parse(events)), scores);
+        consumer = new Thread(processor, "events");
+        consumer.setDaemon(true);
+        consumer.start();
+      }
+      var report = session.runHeadless(ticks, (long) (seconds * 1e9));
+      System.out.println(report.format());
+      if (processor != null) {
+        processor.halt();
+        consumer.join();
+        int leader = scores.leader();
+        System.out.printf("events published=%d handled=%d lost=%d leader=#%d (%d mice)%n",
+            session.events().claimed(), processor.sequence() - processor.lost(), processor.lost(),
+            leader, leader < 0 ? 0 : scores.mice(leader));
+      }
+      if (hasFlag(args, "--metrics")) System.out.println(session.metrics().format());
+      var respawner = session.board().respawnPipeline();
+      if (respawner != null) System.out.println(respawner.format());
+      if (session.config().deterministic()) {
+        System.out.printf("state hash=%016x%n", session.stateHash());
+      }
+      if (record != null) {
+        session.journal().finish(session.tickCount());
+        session.journal().writeTo(Path.of(record));
+        System.out.println("journal written to " + record + " (" + session.journal().sizeBytes() + " bytes)");
+      }
+      if (checkpoint != null) {
+        long t0 = System.nanoTime();
+        long bytes = SessionSnapshot.write(session, Path.of(checkpoint));
+        System.out.printf("checkpoint written to %s (%d bytes, %.3f ms)%n", checkpoint, bytes, (System.nanoTime() - t0) / 1e6);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Open world mode: --headless --world=chunked [--ticks=N | --seconds=T] [--snakes=N] [--width=W]
+   * [--height=H] [--chunk=S] [--seed=S]. Runs a sparse ChunkedBoard; 100000 x 100000 cells and beyond.
+   */
+  private static void runOpenWorld(String[] args) {
+    long ticks = longOption(args, "--ticks", 0);
+    double seconds = Double.parseDouble(option(args, "--seconds", "0"));
+    if (ticks <= 0 && seconds <= 0) ticks = 1_000;
+    int snakes = (int) longOption(args, "--snakes", Integer.getInteger("snakes", 10_000));
+    int width = (int) longOption(args, "--width", 65_536);
+    int height = (int) longOption(args, "--height", 65_536);
+    int chunk = (int) longOption(args, "--chunk", ChunkedBoard.DEFAULT_CHUNK_SIZE);
+    try (var world = new OpenWorld(width, height, chunk, snakes, longOption(args, "--seed", 0))) {
+      System.out.println(world.run(ticks, (long) (seconds * 1e9)).format());
+      System.out.println(world.describe());
+    }
+  }
+
+  /**
+   * Tournament mode: --tournament=MATCHES [--ticks=N] [--parallel=P] [--snakes=N] [--width=W] [--height=H]
+   * [--tile=S] [--seed=S] [--steering=seek]. Runs independent seeded matches on a bounded pool and prints the aggregate.
+   */
+  private static void runTournament(String[] args) {
+    int matches = (int) longOption(args, "--tournament", 1000);
+    long ticks = longOption(args, "--ticks", 1000);
+    int parallel = (int) longOption(args, "--parallel", Runtime.getRuntime().availableProcessors());
+    int snakes = (int) longOption(args, "--snakes", Integer.getInteger("snakes", 2));
+    int width = (int) longOption(args, "--width", GameSession.DEFAULT_WIDTH);
+    int height = (int) longOption(args, "--height", GameSession.DEFAULT_HEIGHT);
+    int tile = (int) longOption(args, "--tile", Integer.getInteger("tile", 0));
+    var config = SessionConfig.defaults(snakes).withSize(width, height).withTileSize(tile)
+        .withSeed(longOption(args, "--seed", 0))
+        .withSteering(SessionConfig.Steering.parse(option(args, "--steering", System.getProperty("steering"))));
+    try {
+      System.out.println(new Tournament(config, matches, ticks, parallel).run().format());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Server mode: --serve=PORT [--seconds=T] [--snakes=N] [--width=W] [--height=H] [--tile=S]
+   * [--steering=seek] [--scheduler=...]. Runs the game and broadcasts it until stopped (or T seconds).
+   */
+  private static void runServer(String[] args) {
+    int port = (int) longOption(args, "--serve", 7777);
+    double seconds = Double.parseDouble(option(args, "--seconds", "0"));
+    int snakes = (int) longOption(args, "--snakes", Integer.getInteger("snakes", 2));
+    int width = (int) longOption(args, "--width", GameSession.DEFAULT_WIDTH);
+    int height = (int) longOption(args, "--height", GameSession.DEFAULT_HEIGHT);
+    int tile = (int) longOption(args, "--tile", Integer.getInteger("tile", 0));
+    var config = SessionConfig.defaults(snakes).withSize(width, height).withTileSize(tile)
+        .withScheduler(SessionConfig.Scheduler.parse(option(args, "--scheduler", System.getProperty("scheduler"))))
+        .withSteering(SessionConfig.Steering.parse(option(args, "--steering", System.getProperty("steering"))));
+    try (var session = new GameSession(config, () -> {});
+         var server = new ArenaServer(session, port)) {
+      session.start();
+      System.out.println("arena listening on port " + server.port() + " (" + snakes + " snakes)");
+      long end = seconds > 0 ? System.nanoTime() + (long) (seconds * 1e9) : Long.MAX_VALUE;
+      while (System.nanoTime() < end) {
+        Thread.sleep(Math.min(5_000, Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+        System.out.printf("clients=%d sent=%.1f KiB resyncs=%d%n", server.clientCount(),
+            server.bytesSent() / 1024.0, server.resyncs());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Load mode: --load=HOST:PORT [--clients=N] [--players=P] [--turn-millis=M] [--seconds=T].
+   */
+  private static void runLoad(String[] args) {
+    String target = option(args, "--load", null);
+    int colon = target.lastIndexOf(':');
+    var address = new InetSocketAddress(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));
+    int clients = (int) longOption(args, "--clients", 100);
+    int players = (int) longOption(args, "--players", 2);
+    long turnMillis = longOption(args, "--turn-millis", 200);
+    double seconds = Double.parseDouble(option(args, "--seconds", "10"));
+    try {
+      System.out.println(new LoadClient(address, clients, players, turnMillis).run((long) (seconds * 1000)).format());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static GameSession openSession(SessionConfig config, String restore, String level) throws IOException {
+    if (level != null) {
+      long t0 = System.nanoTime();
+      var session = Level.load(Path.of(level), config, () -> {});
+      System.out.printf("loaded level %s (%dx%d, %d snakes) in %.3f ms%n", level, session.board().width(),
+          session.board().height(), session.snakes().size(), (System.nanoTime() - t0) / 1e6);
+      return session;
+    }
+    if (restore == null) return new GameSession(config, () -> {});
+    long t0 = System.nanoTime();
+    var session = SessionSnapshot.restore(Path.of(restore), () -> {});
+    System.out.printf("restored %s at tick %d in %.3f ms (state hash=%016x)%n", restore, session.tickCount(),
+        (System.nanoTime() - t0) / 1e6, session.stateHash());
+    return session;
+  }
+
+  /**
+   * Replay mode: --replay=FILE [--seek=T]. Re-runs the journal headless and prints the final state hash.
+   */
+  private static void runReplay(String[] args) {
+    try (var replay = new Replay(InputJournal.read(Path.of(option(args, "--replay", null))))) {
+      long seek = longOption(args, "--seek", -1);
+      if (seek >= 0) {
+        long t0 = System.nanoTime();
+        replay.seek(seek);
+        System.out.printf("seek to tick %d in %.3f ms%n", seek, (System.nanoTime() - t0) / 1e6);
+      } else {
+        System.out.println(replay.runToEnd().format());
+      }
+      System.out.printf("tick=%d state hash=%016x%n", replay.tick(), replay.session().stateHash());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parses X:Y:W:H rectangles separated by commas into consecutive quadruples.
+   */
+  private static int[] parseZones(String spec) {
+    String[] rects = spec.split(",");
+    int[] zones = new int[rects.length * 4];
+    for (int i = 0; i < rects.length; i++) {
+      String[] v = rects[i].split(":");
+      if (v.length != 4) throw new IllegalArgumentException("zone must be X:Y:W:H: " + rects[i]);
+      for (int k = 0; k < 4; k++) zones[i * 4 + k] = Integer.parseInt(v[k].trim());
+    }
+    return zones;
+  }
+
+  /**
+   * Gives the snakes base intervals spread evenly from MIN to MAX milliseconds (--speeds=MIN:MAX).
+   */
+  private static void spreadSpeeds(GameSession session, String spec) {
+    String[] v = spec.split(":");
+    if (v.length != 2) throw new IllegalArgumentException("speeds must be MIN:MAX: " + spec);
+    long min = Long.parseLong(v[0].trim()), max = Long.parseLong(v[1].trim());
+    var runners = session.runners();
+    int n = runners.size();
+    for (int i = 0; i < n; i++) {
+      runners.get(i).baseIntervalMillis(n == 1 ? min : min + (max - min) * i / (n - 1));
+    }
+  }
+
+  private static boolean hasFlag(String[] args, String flag) {
+    for (String a : args) if (a.equals(flag)) return true;
+    return false;
+  }
+
+  private static String option(String[] args, String name, String def) {
+    String prefix = name + "=";
+    for (String a : args) if (a.startsWith(prefix)) return a.substring(prefix.length());
+    return def;
+  }
+
+  private static long longOption(String[] args, String name, long def) {
+    return Long.parseLong(option(args, name, Long.toString(def)));
+  }
 }
@@ -0,0 +1,114 @@
+package co.eci.snake.concurrency;
+
+import co.eci.snake.core.Arena;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BatchTickScheduler - Mueve todas las serpientes por lotes en un ForkJoinPool, sin hilo por serpiente
+ *
+ * - Las serpientes se reparten en BATCHES_PER_CORE lotes por nucleo; cada tick cada lote se recorre
+ *   en un bucle cerrado (stepOnce, dos veces con turbo) y el work-stealing equilibra los lotes lentos
+ * - Cada REBALANCE_TICKS los lotes se rearman ordenando las serpientes por el tile de su cabeza:
+ *   las que compiten por las mismas celdas quedan en el mismo lote y se mueven en secuencia
+ * - Las celdas disputadas entre lotes distintos las resuelven los locks por tile (o chunk) de step():
+ *   el primer lote que toma el tile se come el raton/turbo, el otro solo avanza
+ * - runTick() bloquea al llamador hasta que todos los lotes terminan el tick
+ */
+public final class BatchTickScheduler implements AutoCloseable {
+  public static final int BATCHES_PER_CORE = 4;
+  public static final int REBALANCE_TICKS = 64;
+
+  private final SnakeRunner[] runners;
+  private final Arena board;
+  private final ForkJoinPool pool;
+  private final int batches;
+  // Orden de las serpientes agrupado por tile; el lote b es order[bounds[b] .. bounds[b + 1])
+  private final int[] order;
+  private final int[] bounds;
+  private final long[] sortKeys;
+  private long ticks;
+
+  public BatchTickScheduler(List<SnakeRunner> runners, Arena board) {
+    this(runners, board, Runtime.getRuntime().availableProcessors());
+  }
+
+  public BatchTickScheduler(List<SnakeRunner> runners, Arena board, int parallelism) {
+    if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be > 0");
+    this.runners = runners.toArray(new SnakeRunner[0]);
+    this.board = board;
+    this.pool = new ForkJoinPool(parallelism);
+    this.batches = Math.max(1, Math.min(this.runners.length, parallelism * BATCHES_PER_CORE));
+    this.order = new int[this.runners.length];
+    this.bounds = new int[batches + 1];
+    this.sortKeys = new long[this.runners.length];
+    for (int b = 0; b <= batches; b++) bounds[b] = (int) ((long) this.runners.length * b / batches);
+    rebalance();
+  }
+
+  /**
+   * Steps every snake once (twice while turbo is active) and returns the number of steps that
+   * did not hit an obstacle. Must be called from one thread at a time.
+   */
+  public int runTick() {
+    if (ticks % REBALANCE_TICKS == 0) rebalance();
+    int moves = pool.invoke(new Batches(0, batches));
+    ticks++;
+    return moves;
+  }
+
+  public long ticks() { return ticks; }
+
+  public int batchCount() { return batches; }
+
+  public int parallelism() { return pool.getParallelism(); }
+
+  // Clave = tile de la cabeza en los 32 bits altos, indice en los bajos: ordena por tile y es estable
+  private void rebalance() {
+    for (int i = 0; i < runners.length; i++) {
+      long tile = board.tileOf(runners[i].snake().headPacked());
+      sortKeys[i] = tile << 32 | i;
+    }
+    Arrays.sort(sortKeys);
+    for (int i = 0; i < runners.length; i++) order[i] = (int) sortKeys[i];
+  }
+
+  private int stepBatch(int b) {
+    int moves = 0;
+    for (int i = bounds[b], end = bounds[b + 1]; i < end; i++) {
+      SnakeRunner runner = runners[order[i]];
+      boolean turbo = runner.turboTicks() > 0;
+      if (runner.stepOnce().moved()) moves++;
+      if (turbo && runner.stepOnce().moved()) moves++;
+    }
+    return moves;
+  }
+
+  private final class Batches extends RecursiveTask<Integer> {
+    private final int from;
+    private final int to;
+
+    Batches(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (to - from == 1) return stepBatch(from);
+      int mid = (from + to) >>> 1;
+      var left = new Batches(from, mid);
+      left.fork();
+      int right = new Batches(mid, to).compute();
+      return left.join() + right;
+    }
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,84 @@
+package co.eci.snake.concurrency;
+
+import java.util.List;
+import java.util.concurrent.Phaser;
+
+/**
+ * PhasedTickScheduler - Avanza todos los SnakeRunner en lote, una fase por tick del reloj
+ *
+ * - Una parte por runner mas el hilo del reloj; cada tick son dos fases: inicio (el reloj libera
+ *   a los runners) y fin (el reloj espera a que todos hayan movido)
+ * - Phasers en dos niveles: un Phaser admite a lo sumo 65535 partes, asi que los runners se
+ *   reparten en Phasers hijos de hasta GROUP_SIZE partes bajo el Phaser raiz del reloj (cada hijo
+ *   es una parte de la raiz). Ademas los runners compiten por el estado de su hijo y no por uno solo
+ * - Cada runner mueve exactamente una vez por tick, dos mientras tiene turbo: sin deriva,
+ *   sin movimientos dobles ni ticks perdidos
+ * - Pausa/reanudar no toca a los runners: si el reloj no avanza nadie sale de la fase de inicio
+ * - stop() termina el Phaser raiz (y con el todos los hijos) y los hilos de los runners salen de su bucle
+ */
+public final class PhasedTickScheduler {
+  public static final int GROUP_SIZE = 1024;
+
+  private final List<SnakeRunner> runners;
+  // Solo el hilo del reloj; los runners llegan a su Phaser hijo
+  private final Phaser phaser;
+  private final Phaser[] groups;
+  // Solo lo escribe el hilo del reloj
+  private volatile long ticks;
+
+  public PhasedTickScheduler(List<SnakeRunner> runners) {
+    this.runners = List.copyOf(runners);
+    // Se registra tambien el hilo del reloj (runTick)
+    this.phaser = new Phaser(1);
+    int n = this.runners.size();
+    this.groups = new Phaser[(n + GROUP_SIZE - 1) / GROUP_SIZE];
+    for (int g = 0; g < groups.length; g++) {
+      groups[g] = new Phaser(phaser, Math.min(GROUP_SIZE, n - g * GROUP_SIZE));
+    }
+  }
+
+  /**
+   * Loop for the thread that drives runner i; returns when the scheduler is stopped.
+   */
+  public Runnable worker(int i) {
+    SnakeRunner runner = runners.get(i);
+    Phaser phaser = groups[i / GROUP_SIZE];
+    return () -> {
+      try {
+        while (phaser.arriveAndAwaitAdvance() >= 0) {
+          boolean turbo = runner.turboTicks() > 0;
+          runner.stepOnce();
+          if (turbo) runner.stepOnce();
+          // Esperar el fin de fase: llegar sin esperar permitiria llegar dos veces a la misma fase
+          if (phaser.arriveAndAwaitAdvance() < 0) break;
+        }
+      } finally {
+        phaser.arriveAndDeregister();
+      }
+    };
+  }
+
+  /**
+   * Releases every runner for one tick and waits until all of them have moved.
+   * Called from the clock thread; returns false once the scheduler is stopped.
+   */
+  public boolean runTick() {
+    if (phaser.arriveAndAwaitAdvance() < 0) return false;
+    if (phaser.arriveAndAwaitAdvance() < 0) return false;
+    ticks++;
+    return true;
+  }
+
+  /**
+   * Ticks completed so far.
+   */
+  public long ticks() { return ticks; }
+
+  public int runnerCount() { return runners.size(); }
+
+  public void stop() {
+    phaser.forceTermination();
+  }
+
+  public boolean isStopped() { return phaser.isTerminated(); }
+}
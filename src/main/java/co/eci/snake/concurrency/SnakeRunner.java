@@ -1,11 +1,24 @@
 package co.eci.snake.concurrency;
 
+import co.eci.snake.core.Arena;
 import co.eci.snake.core.Board;
 import co.eci.snake.core.Direction;
+import co.eci.snake.core.Leaderboard;
 import co.eci.snake.core.Snake;
 import co.eci.snake.core.engine.GameClock;
+import co.eci.snake.core.events.EventRing;
+import co.eci.snake.core.events.EventType;
+import co.eci.snake.core.metrics.EngineEvents;
+import co.eci.snake.core.metrics.EngineMetrics;
+import co.eci.snake.core.metrics.LatencyHistogram;
+import co.eci.snake.core.steering.RandomSteering;
+import co.eci.snake.core.steering.SteeringStrategy;
 
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
 
 /**
  * SnakeRunner - Ejecuta el movimiento de una serpiente de forma concurrente
@@ -15,13 +28,38 @@ import java.util.concurrent.ThreadLocalRandom;
  * - Implementa GameClockListener para coordinacion con GameClock
  * - Agregados pause/resume/stop thread-safe
  * - Sistema hibrido: coordinacion por clock + fallback timing
+ * - Generador aleatorio inyectable para simulaciones deterministas con semilla
+ * - Direccion delegada en un SteeringStrategy intercambiable (RandomSteering por defecto)
+ * - Latencia de cada Board.step() en un LatencyHistogram y conteos por MoveResult (EngineMetrics)
+ * - Con publishTo(ring, index) cada MoveResult se publica en un EventRing junto con la nueva cabeza
+ * - Con rankIn(leaderboard, index) cada cambio de longitud actualiza un Leaderboard compartido
+ * - Velocidad propia: moveIntervalNanos() parte del intervalo base de la serpiente; el turbo lo
+ *   reduce a la mitad y chocar con un obstaculo lo alarga hasta 1.5x. Cada efecto lleva su contador
+ *   de movimientos y se desvanece hacia el intervalo base (lo usan run() y WheelTickScheduler)
  */
 public final class SnakeRunner implements Runnable, GameClock.GameClockListener {
   private final Snake snake;
-  private final Board board;
-  private final int baseSleepMs = 80;
-  private final int turboSleepMs = 40;
+  private final Arena board;
+  private final RandomGenerator rng;
+  public static final long DEFAULT_INTERVAL_MILLIS = 80;
+  public static final int TURBO_MOVES = 100;
+  // Movimientos frenados tras chocar con un obstaculo; el frenado baja un poco en cada uno
+  public static final int SLOW_MOVES = 20;
+  // Movimientos finales del turbo en los que el intervalo vuelve de a poco al base
+  private static final int TURBO_FADE = 20;
+  private volatile long baseIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INTERVAL_MILLIS);
   private int turboTicks = 0;
+  private int slowTicks = 0;
+  private volatile SteeringStrategy steering = RandomSteering.INSTANCE;
+  private volatile EventRing events;
+  private int eventIndex = -1;
+  private volatile Leaderboard leaderboard;
+  private int rankIndex = -1;
+  private int rankedLength;
+
+  // Metricas: un solo escritor (el hilo que mueve la serpiente), lectores por JMX
+  private final LatencyHistogram stepLatency = new LatencyHistogram();
+  private final AtomicLongArray results = new AtomicLongArray(Board.MoveResult.values().length);
 
   // Sincronizacion para wait/notify en lugar de Thread.sleep()
   private final Object pauseLock = new Object();
@@ -31,9 +69,17 @@ public final class SnakeRunner implements Runnable, GameClock.GameClockListener
 
   private long lastMoveTime = 0;
 
-  public SnakeRunner(Snake snake, Board board) {
+  public SnakeRunner(Snake snake, Arena board) {
+    this(snake, board, null);
+  }
+
+  /**
+   * Creates a runner whose steering draws from rng (null means ThreadLocalRandom).
+   */
+  public SnakeRunner(Snake snake, Arena board, RandomGenerator rng) {
     this.snake = snake;
     this.board = board;
+    this.rng = rng;
   }
 
   @Override
@@ -52,7 +98,7 @@ public final class SnakeRunner implements Runnable, GameClock.GameClockListener
 
         synchronized (pauseLock) {
           while (!clockTick && !stopped) {
-            int sleepTime = (turboTicks > 0) ? turboSleepMs : baseSleepMs;
+            long sleepTime = Math.max(1, TimeUnit.NANOSECONDS.toMillis(moveIntervalNanos()));
             pauseLock.wait(sleepTime);
 
             if (!clockTick) {
@@ -70,30 +116,153 @@ public final class SnakeRunner implements Runnable, GameClock.GameClockListener
 
         lastMoveTime = System.currentTimeMillis();
 
-        maybeTurn();
-        var res = board.step(snake);
-        if (res == Board.MoveResult.HIT_OBSTACLE) {
-          randomTurn();
-        } else if (res == Board.MoveResult.ATE_TURBO) {
-          turboTicks = 100;
-        }
-        if (turboTicks > 0)
-          turboTicks--;
+        stepOnce();
       }
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
     }
   }
 
+  /**
+   * Performs a single move on the calling thread (steering, board step and turbo bookkeeping).
+   * Used by run() and by engines that drive the snake without its own thread.
+   */
+  public Board.MoveResult stepOnce() {
+    maybeTurn();
+    long t0 = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+    var res = board.step(snake);
+    if (EngineMetrics.ENABLED) {
+      long lat = System.nanoTime() - t0;
+      stepLatency.record(lat);
+      if (lat >= EngineEvents.SLOW_STEP_NANOS) EngineEvents.slowStep(snake.id(), res.name(), lat);
+    }
+    results.lazySet(res.ordinal(), results.get(res.ordinal()) + 1);
+    var ring = events;
+    if (ring != null) ring.publish(EventType.of(res), eventIndex, snake.headPacked());
+    var ranking = leaderboard;
+    if (ranking != null && snake.length() != rankedLength) {
+      rankedLength = snake.length();
+      ranking.update(rankIndex, rankedLength);
+    }
+    if (slowTicks > 0)
+      slowTicks--;
+    if (!res.moved()) {
+      turnAfterObstacle();
+      if (res == Board.MoveResult.HIT_OBSTACLE) slowTicks = SLOW_MOVES;
+    } else if (res == Board.MoveResult.ATE_TURBO) {
+      turboTicks = TURBO_MOVES;
+    }
+    if (turboTicks > 0)
+      turboTicks--;
+    return res;
+  }
+
+  public Snake snake() { return snake; }
+
+  public SteeringStrategy steering() { return steering; }
+
+  /**
+   * Replaces the strategy consulted before each step and after hitting an obstacle.
+   */
+  public void steering(SteeringStrategy steering) {
+    this.steering = Objects.requireNonNull(steering, "steering");
+  }
+
+  /**
+   * Publishes the result of every later step to ring, tagged with index (the snake's index in its
+   * session). A null ring stops publishing.
+   */
+  public void publishTo(EventRing ring, int index) {
+    this.eventIndex = index;
+    this.events = ring;
+  }
+
+  /**
+   * Reports this snake's length to leaderboard under index (the snake's index in its session)
+   * now and after every step that changes it. A null leaderboard stops reporting.
+   */
+  public void rankIn(Leaderboard leaderboard, int index) {
+    this.rankIndex = index;
+    this.rankedLength = snake.length();
+    if (leaderboard != null) leaderboard.update(index, rankedLength);
+    this.leaderboard = leaderboard;
+  }
+
+  /**
+   * Latency of this runner's Board.step() calls.
+   */
+  public LatencyHistogram stepLatency() { return stepLatency; }
+
+  /**
+   * Number of moves of this runner that ended with the given result.
+   */
+  public long resultCount(Board.MoveResult result) { return results.get(result.ordinal()); }
+
+  public void resetStats() {
+    stepLatency.reset();
+    for (int i = 0; i < results.length(); i++) results.set(i, 0);
+  }
+
+  /**
+   * Remaining turbo moves.
+   */
+  public int turboTicks() { return turboTicks; }
+
+  /**
+   * Restores the remaining turbo moves, e.g. when resuming from a snapshot.
+   */
+  public void restoreTurbo(int ticks) { this.turboTicks = Math.max(0, ticks); }
+
+  /**
+   * Remaining moves slowed down by the last obstacle hit.
+   */
+  public int slowTicks() { return slowTicks; }
+
+  /**
+   * Restores the remaining slowed-down moves, e.g. when resuming from a snapshot.
+   */
+  public void restoreSlow(int ticks) { this.slowTicks = Math.min(Math.max(0, ticks), SLOW_MOVES); }
+
+  /**
+   * Interval between two moves of this snake without turbo or slow-down.
+   */
+  public long baseIntervalMillis() { return TimeUnit.NANOSECONDS.toMillis(baseIntervalNanos); }
+
+  /**
+   * Sets this snake's own speed as the interval between two of its moves.
+   */
+  public void baseIntervalMillis(long millis) {
+    if (millis <= 0) throw new IllegalArgumentException("interval must be > 0");
+    this.baseIntervalNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  /**
+   * Time until this snake's next move at its current speed: the base interval, halved by turbo and
+   * up to 1.5 times longer after hitting an obstacle. Turbo fades back to the base interval over
+   * its last moves and the slow-down over SLOW_MOVES moves. Meant for the thread that moves it.
+   */
+  public long moveIntervalNanos() {
+    long base = baseIntervalNanos;
+    long interval = base;
+    if (turboTicks > 0) interval -= base / 2 * Math.min(turboTicks, TURBO_FADE) / TURBO_FADE;
+    if (slowTicks > 0) interval += base / 2 * slowTicks / SLOW_MOVES;
+    return interval;
+  }
+
   private void maybeTurn() {
-    double p = (turboTicks > 0) ? 0.05 : 0.10;
-    if (ThreadLocalRandom.current().nextDouble() < p)
-      randomTurn();
+    Direction dir = steering.steer(snake, random(), turboTicks > 0);
+    if (dir != null)
+      snake.turn(dir);
+  }
+
+  private void turnAfterObstacle() {
+    Direction dir = steering.onBlocked(snake, random());
+    if (dir != null)
+      snake.turn(dir);
   }
 
-  private void randomTurn() {
-    var dirs = Direction.values();
-    snake.turn(dirs[ThreadLocalRandom.current().nextInt(dirs.length)]);
+  private RandomGenerator random() {
+    return rng != null ? rng : ThreadLocalRandom.current();
   }
 
   /**
@@ -0,0 +1,161 @@
+package co.eci.snake.concurrency;
+
+import java.util.Arrays;
+
+/**
+ * TimingWheel - Rueda de tiempo jerarquica para miles de vencimientos con un solo reloj
+ *
+ * - Cuatro niveles de 64 ranuras: una ranura del nivel 0 dura un tick de la rueda, una del nivel 1
+ *   64 ticks, una del nivel 2 4096 y una del nivel 3 262144. Un elemento va a la ranura del nivel
+ *   que corresponde a la distancia de su vencimiento
+ * - Los elementos son indices 0..capacity-1 (la serpiente dentro de su sesion) y las ranuras son
+ *   listas doblemente enlazadas sobre int[]: schedule() y cancel() son O(1) y no asignan
+ * - advance() avanza de a un tick: al dar la vuelta un nivel baja (cascade) la ranura siguiente del
+ *   nivel de arriba a los de abajo, y despues vence toda la ranura actual del nivel 0. Cada elemento
+ *   baja a lo sumo una vez por nivel, asi que el costo amortizado por vencimiento es O(1)
+ * - Vencimientos mas alla del nivel 3 esperan en su ultima ranura y se reubican al bajar
+ * - Sin sincronizacion: la usa un solo hilo a la vez (WheelTickScheduler)
+ */
+public final class TimingWheel {
+  private static final int BITS = 6;
+  private static final int SLOTS = 1 << BITS;
+  private static final int MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  private static final int NONE = -1;
+
+  /**
+   * Receives each item whose deadline was reached. It may schedule or cancel any item, including
+   * others that expire in the same tick.
+   */
+  @FunctionalInterface
+  public interface Expiry {
+    void expired(int item);
+  }
+
+  // Primer elemento de cada ranura (nivel * SLOTS + ranura) o NONE
+  private final int[] heads = new int[LEVELS * SLOTS];
+  private final int[] next;
+  private final int[] prev;
+  // Ranura donde esta cada elemento o NONE si no esta programado
+  private final int[] slotOf;
+  private final long[] deadline;
+  private long now;
+  private int size;
+
+  public TimingWheel(int capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("negative capacity");
+    this.next = new int[capacity];
+    this.prev = new int[capacity];
+    this.slotOf = new int[capacity];
+    this.deadline = new long[capacity];
+    Arrays.fill(heads, NONE);
+    Arrays.fill(slotOf, NONE);
+  }
+
+  /**
+   * Ticks advanced so far.
+   */
+  public long now() { return now; }
+
+  /**
+   * Items currently scheduled.
+   */
+  public int size() { return size; }
+
+  public int capacity() { return slotOf.length; }
+
+  public boolean isScheduled(int item) { return slotOf[item] != NONE; }
+
+  /**
+   * Tick at which item expires; only meaningful while it is scheduled.
+   */
+  public long deadline(int item) { return deadline[item]; }
+
+  /**
+   * Schedules item to expire delay ticks from now (at least one), replacing its previous deadline.
+   */
+  public void schedule(int item, long delay) {
+    if (slotOf[item] != NONE) unlink(item);
+    else size++;
+    deadline[item] = now + Math.max(1, delay);
+    place(item);
+  }
+
+  /**
+   * Unschedules item. Returns false if it was not scheduled.
+   */
+  public boolean cancel(int item) {
+    if (slotOf[item] == NONE) return false;
+    unlink(item);
+    slotOf[item] = NONE;
+    size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel by ticks, handing every item that expires to expiry in deadline order.
+   * Returns the number of expirations.
+   */
+  public int advance(long ticks, Expiry expiry) {
+    int fired = 0;
+    for (long i = 0; i < ticks; i++) {
+      long t = ++now;
+      // Al completar una vuelta del nivel l - 1 baja la ranura que empieza ahora en el nivel l
+      for (int level = 1; level < LEVELS && (t & ((1L << (level * BITS)) - 1)) == 0; level++) {
+        cascade(level * SLOTS + ((int) (t >>> (level * BITS)) & MASK));
+      }
+      int slot = (int) t & MASK;
+      // Se saca de a un elemento de la cabeza: expired() puede cancelar o reprogramar cualquier
+      // otro de la ranura sin romper el recorrido. Nada vuelve a esta ranura en este tick (un
+      // vencimiento a 1..63 ticks cae en otra ranura del nivel 0 y uno a 64 o mas en otro nivel)
+      int item;
+      while ((item = heads[slot]) != NONE) {
+        unlink(item);
+        slotOf[item] = NONE;
+        size--;
+        fired++;
+        expiry.expired(item);
+      }
+    }
+    return fired;
+  }
+
+  private void cascade(int slot) {
+    int item = heads[slot];
+    heads[slot] = NONE;
+    while (item != NONE) {
+      int following = next[item];
+      place(item);
+      item = following;
+    }
+  }
+
+  private void place(int item) {
+    long d = deadline[item];
+    long delta = d - now;
+    int slot;
+    if (delta < SLOTS) {
+      slot = (int) d & MASK;
+    } else {
+      int level = 1;
+      while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * BITS)) level++;
+      long span = d >>> (level * BITS);
+      // Mas alla del ultimo nivel: la ranura anterior a la actual, la ultima en bajar
+      if (level == LEVELS - 1 && delta >= 1L << (LEVELS * BITS)) span = (now >>> (level * BITS)) + MASK;
+      slot = level * SLOTS + (int) (span & MASK);
+    }
+    int head = heads[slot];
+    next[item] = head;
+    prev[item] = NONE;
+    if (head != NONE) prev[head] = item;
+    heads[slot] = item;
+    slotOf[item] = slot;
+  }
+
+  private void unlink(int item) {
+    int p = prev[item], n = next[item];
+    if (p != NONE) next[p] = n;
+    else heads[slotOf[item]] = n;
+    if (n != NONE) prev[n] = p;
+  }
+}
@@ -0,0 +1,150 @@
+package co.eci.snake.concurrency;
+
+import co.eci.snake.core.engine.GameClock;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WheelTickScheduler - Cada serpiente a su propia velocidad desde un solo hilo, con una TimingWheel
+ *
+ * - Cada SnakeRunner esta programado en la rueda para su proximo movimiento; al vencer se mueve
+ *   (stepOnce) y se reprograma a moveIntervalNanos(): la velocidad base de cada serpiente, el turbo
+ *   y el frenado por choque solo cambian la distancia del siguiente vencimiento
+ * - run() es la unica espera temporizada de la partida: duerme una resolucion (1 ms por defecto),
+ *   avanza la rueda hasta el tiempo transcurrido y mueve las serpientes vencidas. Miles de
+ *   serpientes no son miles de hilos ni de temporizadores
+ * - Los primeros movimientos se reparten a lo largo de un intervalo para no vencer todos juntos
+ * - advance(nanos) avanza tiempo virtual en el hilo que llama (GameSession.tick(), modo headless)
+ * - Escucha al GameClock: pausa, reanuda y detiene el hilo con la partida; tras una pausa (o un
+ *   atraso mayor a MAX_CATCH_UP_NANOS) la rueda sigue donde quedo en lugar de ponerse al dia
+ */
+public final class WheelTickScheduler implements Runnable, GameClock.GameClockListener {
+  public static final long DEFAULT_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  public static final long MAX_CATCH_UP_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final SnakeRunner[] runners;
+  private final TimingWheel wheel;
+  private final long resolutionNanos;
+  private final TimingWheel.Expiry move = this::move;
+  // Tiempo ya entregado a advance() que no llega a un tick de la rueda
+  private long carryNanos;
+  private int moved;
+  private volatile long moves;
+
+  private final Object lock = new Object();
+  private volatile boolean paused;
+  private volatile boolean stopped;
+
+  public WheelTickScheduler(List<SnakeRunner> runners) {
+    this(runners, DEFAULT_RESOLUTION_NANOS);
+  }
+
+  public WheelTickScheduler(List<SnakeRunner> runners, long resolutionNanos) {
+    if (resolutionNanos <= 0) throw new IllegalArgumentException("resolution must be > 0");
+    this.runners = runners.toArray(new SnakeRunner[0]);
+    this.wheel = new TimingWheel(this.runners.length);
+    this.resolutionNanos = resolutionNanos;
+    int n = this.runners.length;
+    for (int i = 0; i < n; i++) {
+      wheel.schedule(i, 1 + (long) i * wheelTicks(this.runners[i].moveIntervalNanos()) / n);
+    }
+  }
+
+  /**
+   * Advances the wheel by nanos of (real or virtual) time on the calling thread, moving every
+   * snake that comes due. Returns the number of moves that did not hit an obstacle. Must not be
+   * called while run() is active on another thread.
+   */
+  public int advance(long nanos) {
+    long total = carryNanos + nanos;
+    long ticks = total / resolutionNanos;
+    carryNanos = total - ticks * resolutionNanos;
+    moved = 0;
+    moves += wheel.advance(ticks, move);
+    return moved;
+  }
+
+  private void move(int i) {
+    SnakeRunner runner = runners[i];
+    if (runner.stepOnce().moved()) moved++;
+    wheel.schedule(i, wheelTicks(runner.moveIntervalNanos()));
+  }
+
+  private long wheelTicks(long nanos) {
+    return Math.max(1, (nanos + resolutionNanos / 2) / resolutionNanos);
+  }
+
+  /**
+   * Drives the wheel in real time until stop(): one timed wait per resolution for all snakes.
+   */
+  @Override
+  public void run() {
+    long last = System.nanoTime();
+    try {
+      while (!stopped && !Thread.currentThread().isInterrupted()) {
+        synchronized (lock) {
+          if (paused) {
+            while (paused && !stopped) lock.wait();
+            last = System.nanoTime();
+          }
+          if (stopped) break;
+          TimeUnit.NANOSECONDS.timedWait(lock, resolutionNanos);
+        }
+        long now = System.nanoTime();
+        advance(Math.min(now - last, MAX_CATCH_UP_NANOS));
+        last = now;
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Snake moves performed so far, including the ones that hit an obstacle.
+   */
+  public long moves() { return moves; }
+
+  /**
+   * Time advanced so far, in nanoseconds.
+   */
+  public long elapsedNanos() { return wheel.now() * resolutionNanos; }
+
+  public int runnerCount() { return runners.length; }
+
+  public void pause() {
+    synchronized (lock) {
+      paused = true;
+    }
+  }
+
+  public void resume() {
+    synchronized (lock) {
+      paused = false;
+      lock.notifyAll();
+    }
+  }
+
+  public void stop() {
+    synchronized (lock) {
+      stopped = true;
+      lock.notifyAll();
+    }
+  }
+
+  public boolean isStopped() { return stopped; }
+
+  @Override
+  public void onTick() {
+    // La rueda lleva su propio tiempo; el reloj solo publica los frames
+  }
+
+  @Override
+  public void onPause() { pause(); }
+
+  @Override
+  public void onResume() { resume(); }
+
+  @Override
+  public void onStop() { stop(); }
+}
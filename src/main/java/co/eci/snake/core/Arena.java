@@ -0,0 +1,26 @@
+package co.eci.snake.core;
+
+/**
+ * Superficie sobre la que se mueven las serpientes: Board (denso, acotado) o ChunkedBoard
+ * (por chunks, para mundos enormes casi vacios). Es todo lo que necesitan SnakeRunner y
+ * BatchTickScheduler.
+ */
+public interface Arena {
+  int width();
+  int height();
+
+  /**
+   * Moves the snake one cell in its direction, applying items, teleports and collisions.
+   */
+  Board.MoveResult step(Snake snake);
+
+  /**
+   * Registers the current body of the snake before its first step.
+   */
+  void place(Snake snake);
+
+  /**
+   * Lock region (tile or chunk) holding the packed position; snakes with equal regions contend.
+   */
+  int tileOf(int packed);
+}
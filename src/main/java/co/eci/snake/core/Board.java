@@ -1,11 +1,25 @@
 package co.eci.snake.core;
 
+import co.eci.snake.core.events.EventRing;
+import co.eci.snake.core.events.EventType;
+import co.eci.snake.core.metrics.EngineMetrics;
+import co.eci.snake.core.metrics.LockStats;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.random.RandomGenerator;
 
 /**
  * Board - Tablero de juego con soporte completo para concurrencia
@@ -15,76 +29,551 @@ import java.util.concurrent.locks.ReentrantLock;
  * - HashMap -> ConcurrentHashMap (accesos thread-safe)
  * - synchronized step() -> locks granulares (mejor rendimiento)
  * - Multiples serpientes pueden moverse simultaneamente cuando es seguro
+ * - Conjuntos de Position -> grilla primitiva indexada por celda (y*width + x):
+ *   un CellBitSet por tipo de item y un int[] con el destino de cada teleport
+ * - step() sin asignaciones: trabaja con posiciones empaquetadas y tablas de wrap precalculadas
+ *   (wrapX/wrapY) en lugar de crear Position y hacer dos modulos por paso
+ * - randomEmpty() con reintentos -> FreeCellIndex mantenido incrementalmente con los
+ *   items y los cuerpos de las serpientes (muestreo uniforme O(1) aunque el tablero este lleno)
+ * - miceLock global -> locks por tile (BoardRegions): step() solo bloquea los tiles de la celda
+ *   de entrada, la de destino (teleport) y la cola; con tileSize <= 0 hay un solo tile (miceLock)
+ * - Generador aleatorio inyectable: con una semilla el tablero es reproducible
+ * - CellListener: avisa de cada celda que gana o pierde un raton o un obstaculo (fuera de los locks),
+ *   para que estructuras derivadas como DistanceField se actualicen incrementalmente
+ * - Choques entre serpientes sin lock global: occupant[c] guarda el id de la serpiente que ocupa
+ *   cada celda; step() reclama la celda de la nueva cabeza con un CAS (0 -> id) antes de tomar los
+ *   locks de tile y suelta la cola con otro CAS (id -> 0). Si la celda ya tiene duenio (otra
+ *   serpiente o la propia) el movimiento es BLOCKED; si dos cabezas van a la misma celda gana el
+ *   primer CAS (en modo determinista, la serpiente anterior en el orden del tick). Entrar en la
+ *   propia cola que se suelta en el mismo paso esta permitido
+ * - events(EventRing): cada item que aparece se publica en el ring (MOUSE/OBSTACLE/TURBO_SPAWNED)
+ * - spawnZones(): rectangulos opcionales (los de un Level) fuera de los cuales no aparecen items;
+ *   sin zonas los items aparecen en cualquier celda libre
+ * - RespawnPolicy: que aparece tras cada raton comido (tope de items, obstaculos por raton, turbo);
+ *   con startRespawnPipeline() step() solo encola la reposicion y la hace un RespawnPipeline
+ * - Espera y retencion de miceLock (o de los locks de tile) e itemGenerationLock medidas en
+ *   LockStats para EngineMetrics
  */
-public final class Board {
+public final class Board implements Arena {
+  private static final int MAX_ZONE_ATTEMPTS = 32;
+
   private final int width;
   private final int height;
 
-  // Colecciones thread-safe para prevenir ConcurrentModificationException
-  private final Set<Position> mice = ConcurrentHashMap.newKeySet();
-  private final Set<Position> obstacles = ConcurrentHashMap.newKeySet();
-  private final Set<Position> turbo = ConcurrentHashMap.newKeySet();
-  private final Map<Position, Position> teleports = new ConcurrentHashMap<>();
+  // Grilla de ocupacion: bitsets atomicos por tipo de item (sin boxing ni nodos por elemento)
+  private final CellBitSet mice;
+  private final CellBitSet obstacles;
+  private final CellBitSet turbo;
+  // Destino + 1 de cada teleport por celda (0 = no es teleport): un arreglo nuevo ya esta vacio
+  // sin recorrerlo; inmutable tras el constructor
+  private final int[] teleportTarget;
+  private final Map<Position, Position> teleports;
+  // Cambia cada vez que aparece un obstaculo (la UI cachea la capa estatica con este valor)
+  private final AtomicLong obstacleVersion = new AtomicLong();
+  // wrapX[x + 1] = x con wrap-around para x en [-1, width] (idem wrapY): vecinos sin modulo
+  private final int[] wrapX;
+  private final int[] wrapY;
+  // Id de la serpiente en cada celda (0 = ninguna); se reclama y se suelta por CAS sin locks
+  private final AtomicIntegerArray occupant;
+  // Tiles con su lock y sus celdas libres (sin items ni segmentos de serpiente)
+  private final BoardRegions regions;
+
+  // null -> ThreadLocalRandom del hilo que llama
+  private final RandomGenerator rng;
 
   // Locks granulares para operaciones especificas (mejor que synchronized general)
   private final ReentrantLock miceLock = new ReentrantLock();
   private final ReentrantLock itemGenerationLock = new ReentrantLock();
+  // Con tiles, miceLockStats agrega las esperas de los locks de tile tomados por step()
+  private final LockStats miceLockStats = new LockStats("miceLock");
+  private final LockStats itemGenerationLockStats = new LockStats("itemGenerationLock");
+
+  // Zonas de aparicion como x, y, ancho, alto consecutivos; null = todo el tablero
+  private volatile int[] spawnZones;
+  private volatile RespawnPolicy respawnPolicy = RespawnPolicy.DEFAULT;
+  // null -> step() repone los items en el hilo que comio
+  private volatile RespawnPipeline respawnPipeline;
+  // Demoras (ns) de reposiciones restauradas de un checkpoint que todavia no se encolaron
+  private long[] deferredRespawns = new long[0];
+
+  private final List<CellListener> cellListeners = new CopyOnWriteArrayList<>();
+  // null -> no se publican eventos
+  private volatile EventRing events;
 
-  public enum MoveResult { MOVED, ATE_MOUSE, HIT_OBSTACLE, ATE_TURBO, TELEPORTED }
+  public enum MoveResult {
+    MOVED, ATE_MOUSE, HIT_OBSTACLE, ATE_TURBO, TELEPORTED, BLOCKED;
+
+    /**
+     * False when the head stayed where it was (obstacle or another snake in the way).
+     */
+    public boolean moved() { return this != HIT_OBSTACLE && this != BLOCKED; }
+  }
+
+  /**
+   * Notified after a cell gained or lost a mouse or an obstacle, from the thread that changed it.
+   */
+  @FunctionalInterface
+  public interface CellListener {
+    void cellChanged(int cell);
+  }
 
   public Board(int width, int height) {
+    this(width, height, 0);
+  }
+
+  /**
+   * Creates a board split into tileSize x tileSize lock regions (tileSize <= 0 means a single region).
+   */
+  public Board(int width, int height, int tileSize) {
+    this(width, height, tileSize, null);
+  }
+
+  /**
+   * Creates a board whose item placement is drawn from rng (null means ThreadLocalRandom).
+   * A seeded, non thread-safe rng requires the snakes to be stepped from one thread at a time.
+   */
+  public Board(int width, int height, int tileSize, RandomGenerator rng) {
+    this(width, height, tileSize, rng, null);
+  }
+
+  private Board(int width, int height, int tileSize, RandomGenerator rng, ByteBuffer state) {
     if (width <= 0 || height <= 0) throw new IllegalArgumentException("Board dimensions must be positive");
+    if (width > Position.MAX_COORD + 1 || height > Position.MAX_COORD + 1 || (long) width * height > Integer.MAX_VALUE - 64)
+      throw new IllegalArgumentException("Board dimensions too large");
     this.width = width;
     this.height = height;
-    for (int i=0;i<6;i++) mice.add(randomEmpty());
-    for (int i=0;i<4;i++) obstacles.add(randomEmpty());
-    for (int i=0;i<3;i++) turbo.add(randomEmpty());
-    createTeleportPairs(2);
+    this.rng = rng;
+    this.mice = new CellBitSet(width, height);
+    this.obstacles = new CellBitSet(width, height);
+    this.turbo = new CellBitSet(width, height);
+    this.teleportTarget = new int[width * height];
+    this.occupant = new AtomicIntegerArray(width * height);
+    this.wrapX = wrapTable(width);
+    this.wrapY = wrapTable(height);
+    this.regions = new BoardRegions(width, height, tileSize, miceLock);
+    if (state == null) {
+      for (int i=0;i<6;i++) spawn(mice);
+      for (int i=0;i<4;i++) spawn(obstacles);
+      for (int i=0;i<3;i++) spawn(turbo);
+      createTeleportPairs(2);
+    } else {
+      loadItems(state);
+    }
+    this.teleports = teleportView();
+  }
+
+  /**
+   * Rebuilds a board written by writeTo(). Snakes must be placed again afterwards.
+   */
+  public static Board readFrom(ByteBuffer buf, RandomGenerator rng) {
+    int width = buf.getInt(), height = buf.getInt(), tileSize = buf.getInt();
+    return new Board(width, height, tileSize, rng, buf);
   }
 
+  /**
+   * Writes dimensions, item bitmaps and teleport pairs (snapshotSize() bytes). Reads the live
+   * bitsets without locking, so concurrent steps may be caught halfway.
+   */
+  public void writeTo(ByteBuffer buf) {
+    buf.putInt(width).putInt(height).putInt(regions.tileCount() == 1 ? 0 : regions.tileSize());
+    mice.store(buf);
+    obstacles.store(buf);
+    turbo.store(buf);
+    buf.putInt(teleports.size() / 2);
+    for (int c = 0; c < teleportTarget.length; c++) {
+      if (teleportTarget[c] > c + 1) buf.putInt(c).putInt(teleportTarget[c] - 1);
+    }
+  }
+
+  public int snapshotSize() {
+    return 3 * Integer.BYTES + 3 * mice.wordCount() * Long.BYTES + Integer.BYTES + teleports.size() * Integer.BYTES;
+  }
+
+  private void loadItems(ByteBuffer buf) {
+    mice.load(buf);
+    obstacles.load(buf);
+    turbo.load(buf);
+    // Aun no hay otros hilos: se reconstruyen las celdas libres sin tomar los locks de los tiles
+    for (var items : List.of(mice, obstacles, turbo)) {
+      for (int c = items.nextSetBit(0); c >= 0; c = items.nextSetBit(c + 1)) regions.acquire(c);
+    }
+    int pairs = buf.getInt();
+    for (int i = 0; i < pairs; i++) {
+      int a = buf.getInt(), b = buf.getInt();
+      teleportTarget[a] = b + 1;
+      teleportTarget[b] = a + 1;
+      regions.acquire(a);
+      regions.acquire(b);
+    }
+  }
+
+  @Override
   public int width() { return width; }
+  @Override
   public int height() { return height; }
 
-  public Set<Position> mice() { return mice; }
-  public Set<Position> obstacles() { return obstacles; }
-  public Set<Position> turbo() { return turbo; }
+  public Set<Position> mice() { return mice.asSet(); }
+  public Set<Position> obstacles() { return obstacles.asSet(); }
+  public Set<Position> turbo() { return turbo.asSet(); }
   public Map<Position, Position> teleports() { return teleports; }
 
+  /**
+   * Counter bumped whenever an obstacle is added; equal values mean identical obstacle sets.
+   */
+  public long obstacleVersion() { return obstacleVersion.get(); }
+
+  /**
+   * Length of the arrays expected by copyItems() (64 cells per word, indexed y*width + x).
+   */
+  public int itemWords() { return mice.wordCount(); }
+
+  /**
+   * Copies the item bitmaps into the given arrays (itemWords() longs each) without locking.
+   */
+  public void copyItems(long[] miceWords, long[] obstacleWords, long[] turboWords) {
+    mice.copyWords(miceWords);
+    obstacles.copyWords(obstacleWords);
+    turbo.copyWords(turboWords);
+  }
+
+  /**
+   * Teleport cells as consecutive (from, to) pairs, one entry per direction.
+   */
+  public int[] teleportCells() {
+    int[] pairs = new int[teleports.size() * 2];
+    int n = 0;
+    for (int c = 0; c < teleportTarget.length; c++) {
+      if (teleportTarget[c] != 0) {
+        pairs[n++] = c;
+        pairs[n++] = teleportTarget[c] - 1;
+      }
+    }
+    return pairs;
+  }
+
+  /**
+   * Number of cells with no item and no snake segment on them.
+   */
+  public int freeCellCount() { return regions.freeCount(); }
+
+  public boolean hasMouse(int cell) { return mice.contains(cell); }
+  public boolean hasObstacle(int cell) { return obstacles.contains(cell); }
+
+  /**
+   * Id of the snake occupying the cell (y*width + x), or 0 when no snake is there.
+   */
+  public int occupant(int cell) { return occupant.get(cell); }
+
+  /**
+   * Cell a snake lands on when it enters the given cell, or -1 if it is not a teleport.
+   */
+  public int teleportTarget(int cell) { return teleportTarget[cell] - 1; }
+
+  public void addCellListener(CellListener listener) {
+    cellListeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
+  public void removeCellListener(CellListener listener) {
+    cellListeners.remove(listener);
+  }
+
+  /**
+   * Publishes every item spawned from now on to ring (null stops publishing).
+   */
+  public void events(EventRing ring) {
+    this.events = ring;
+  }
+
+  private void fireCellChanged(int cell) {
+    for (var l : cellListeners) l.cellChanged(cell);
+  }
+
+  /**
+   * Restricts every later item spawn to the given rectangles (consecutive x, y, width, height
+   * quadruples, inside the board). Null or empty spawns on any free cell again.
+   */
+  public void spawnZones(int[] rects) {
+    if (rects == null || rects.length == 0) {
+      spawnZones = null;
+      return;
+    }
+    if (rects.length % 4 != 0) throw new IllegalArgumentException("zones are x, y, width, height quadruples");
+    for (int i = 0; i < rects.length; i += 4) {
+      int x = rects[i], y = rects[i + 1], w = rects[i + 2], h = rects[i + 3];
+      if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > width || y + h > height)
+        throw new IllegalArgumentException("zone " + x + "," + y + "," + w + "," + h + " outside the board");
+    }
+    spawnZones = rects.clone();
+    var pipeline = respawnPipeline;
+    if (pipeline != null) pipeline.discardCandidates();
+  }
+
+  /**
+   * Current spawn zones as x, y, width, height quadruples (empty when items spawn anywhere).
+   */
+  public int[] spawnZones() {
+    int[] zones = spawnZones;
+    return zones == null ? new int[0] : zones.clone();
+  }
+
+  public RespawnPolicy respawnPolicy() { return respawnPolicy; }
+
+  /**
+   * Sets what spawns after each eaten mouse from now on.
+   */
+  public void respawnPolicy(RespawnPolicy policy) {
+    this.respawnPolicy = Objects.requireNonNull(policy, "policy");
+  }
+
+  /**
+   * Moves item respawn off step(): from now on eating a mouse only enqueues a request that a
+   * RespawnPipeline stage thread serves after the policy's delay. Boards with a seeded rng keep
+   * respawning synchronously to stay reproducible. Returns the running pipeline.
+   */
+  public RespawnPipeline startRespawnPipeline() {
+    if (rng != null) throw new IllegalStateException("a seeded board respawns on the stepping thread");
+    itemGenerationLock.lock();
+    try {
+      if (respawnPipeline == null) {
+        respawnPipeline = new RespawnPipeline(this, RespawnPipeline.DEFAULT_CAPACITY);
+        for (long delay : deferredRespawns) respawnPipeline.requestAfter(delay);
+        deferredRespawns = new long[0];
+      }
+      return respawnPipeline;
+    } finally {
+      itemGenerationLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the respawn pipeline, if any; step() respawns synchronously again. Requests still
+   * queued are dropped.
+   */
+  public void stopRespawnPipeline() {
+    RespawnPipeline pipeline;
+    itemGenerationLock.lock();
+    try {
+      pipeline = respawnPipeline;
+      respawnPipeline = null;
+    } finally {
+      itemGenerationLock.unlock();
+    }
+    if (pipeline != null) pipeline.close();
+  }
+
+  /**
+   * Running respawn pipeline, or null when step() respawns synchronously.
+   */
+  public RespawnPipeline respawnPipeline() { return respawnPipeline; }
+
+  /**
+   * Remaining delays (nanoseconds) of the respawns restored by deferRespawns() that were not
+   * queued nor performed yet.
+   */
+  public long[] deferredRespawns() {
+    itemGenerationLock.lock();
+    try {
+      return deferredRespawns.clone();
+    } finally {
+      itemGenerationLock.unlock();
+    }
+  }
+
+  /**
+   * Queues respawns restored from a checkpoint (remaining delays in nanoseconds). They go to the
+   * respawn pipeline as soon as it runs (GameSession starts it with the session).
+   */
+  public void deferRespawns(long[] delaysNanos) {
+    itemGenerationLock.lock();
+    try {
+      var pipeline = respawnPipeline;
+      if (pipeline != null) {
+        for (long delay : delaysNanos) pipeline.requestAfter(delay);
+      } else {
+        long[] all = Arrays.copyOf(deferredRespawns, deferredRespawns.length + delaysNanos.length);
+        System.arraycopy(delaysNanos, 0, all, deferredRespawns.length, delaysNanos.length);
+        deferredRespawns = all;
+      }
+    } finally {
+      itemGenerationLock.unlock();
+    }
+  }
+
+  public int tileSize() { return regions.tileSize(); }
+  public int tileCount() { return regions.tileCount(); }
+
+  /**
+   * Lock tile holding the packed position (0 when the board has a single lock).
+   */
+  @Override
+  public int tileOf(int packed) {
+    return regions.tileOf(Position.unpackY(packed) * width + Position.unpackX(packed));
+  }
+
+  /**
+   * Wait/hold times of the lock(s) taken by step(): miceLock, or the tile locks when striped.
+   */
+  public LockStats miceLockStats() { return miceLockStats; }
+
+  public LockStats itemGenerationLockStats() { return itemGenerationLockStats; }
+
+  /**
+   * Marks the current body of the snake as occupied so items never spawn under it and other
+   * snakes cannot move into it. Snakes must be placed before their first step. Cells already
+   * owned by another snake (overlapping starting positions) keep their first owner.
+   */
+  @Override
+  public void place(Snake snake) {
+    int id = snake.id();
+    snake.forEachSegment((i, x, y) -> {
+      int c = cell(new Position(x, y).wrap(width, height));
+      occupant.compareAndSet(c, 0, id);
+      var lock = regions.lock(regions.tileOf(c));
+      lock.lock();
+      try {
+        regions.acquire(c);
+      } finally {
+        lock.unlock();
+      }
+    });
+  }
+
+  /**
+   * Places a mouse on a uniformly random free cell. Returns its position, or null if the board is full.
+   */
+  public Position spawnMouse() {
+    int c = spawn(mice);
+    return c < 0 ? null : position(c);
+  }
+
+  /**
+   * Places an obstacle on a uniformly random free cell. Returns its position, or null if the board is full.
+   */
+  public Position spawnObstacle() {
+    int c = spawn(obstacles);
+    return c < 0 ? null : position(c);
+  }
+
+  /**
+   * Removes the mouse at p, if there is one, and frees its cell.
+   */
+  public boolean removeMouse(Position p) {
+    int c = cell(p.wrap(width, height));
+    var lock = regions.lock(regions.tileOf(c));
+    lock.lock();
+    try {
+      if (!mice.remove(c)) return false;
+      regions.release(c);
+    } finally {
+      lock.unlock();
+    }
+    fireCellChanged(c);
+    return true;
+  }
+
+  private int cell(Position p) { return p.y() * width + p.x(); }
+
+  private static int[] wrapTable(int size) {
+    int[] t = new int[size + 2];
+    for (int v = -1; v <= size; v++) t[v + 1] = Position.wrapCoord(v, size);
+    return t;
+  }
+
+  /**
+   * Cell (y*width + x) next to cell in the given direction, with wrap-around.
+   */
+  public int neighbour(int cell, Direction dir) {
+    int y = cell / width;
+    return wrapY[y + dir.dy + 1] * width + wrapX[cell - y * width + dir.dx + 1];
+  }
+
+  /**
+   * Packed position next to packed in the given direction, with wrap-around.
+   */
+  public int neighbourPacked(int packed, Direction dir) {
+    return Position.pack(wrapX[Position.unpackX(packed) + dir.dx + 1], wrapY[Position.unpackY(packed) + dir.dy + 1]);
+  }
+  private Position position(int cell) { return new Position(cell % width, cell / width); }
+
+  @Override
   public MoveResult step(Snake snake) {
     Objects.requireNonNull(snake, "snake");
-    var head = snake.head();
+    int head = snake.headPacked();
     var dir = snake.direction();
-    Position next = new Position(head.x() + dir.dx, head.y() + dir.dy).wrap(width, height);
-
-    if (obstacles.contains(next)) return MoveResult.HIT_OBSTACLE;
+    int nx = wrapX[Position.unpackX(head) + dir.dx + 1];
+    int ny = wrapY[Position.unpackY(head) + dir.dy + 1];
+    int entry = ny * width + nx;
+    int next = Position.pack(nx, ny);
 
     boolean teleported = false;
-    if (teleports.containsKey(next)) {
-      next = teleports.get(next);
+    int cell = entry;
+    int target = teleportTarget[entry] - 1;
+    if (target >= 0) {
+      cell = target;
+      next = Position.pack(target % width, target / width);
       teleported = true;
     }
 
-    boolean ateMouse = false;
-    boolean ateTurbo = turbo.remove(next);
+    int tail = snake.tailPacked();
+    int tailCell = Position.unpackY(tail) * width + Position.unpackX(tail);
+    int entryTile = regions.tileOf(entry);
+    int cellTile = regions.tileOf(cell);
+    int tailTile = regions.tileOf(tailCell);
+
+    // Entrar en la propia cola es valido si esa cola se suelta en este mismo paso
+    int id = snake.id();
+    boolean intoOwnTail = cell == tailCell && snake.length() >= snake.maxLength();
+    if (!intoOwnTail && !occupant.compareAndSet(cell, 0, id)) return MoveResult.BLOCKED;
 
-    miceLock.lock();
+    boolean ateMouse;
+    boolean ateTurbo;
+    long t0 = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+    regions.lockAll(entryTile, cellTile, tailTile);
+    long t1 = EngineMetrics.ENABLED ? System.nanoTime() : 0;
     try {
-      ateMouse = mice.remove(next);
-      snake.advance(next, ateMouse);
+      if (obstacles.contains(entry)) {
+        if (!intoOwnTail) occupant.set(cell, 0);
+        return MoveResult.HIT_OBSTACLE;
+      }
+      // La cabeza ocupa la celda antes de soltar los items para que no quede libre ni un instante
+      regions.acquire(cell);
+      ateTurbo = turbo.remove(cell);
+      if (ateTurbo) regions.release(cell);
+      ateMouse = mice.remove(cell);
+      if (ateMouse) regions.release(cell);
+      if (snake.advance(next, ateMouse)) {
+        regions.release(tailCell);
+        if (!intoOwnTail) occupant.compareAndSet(tailCell, id, 0);
+      }
     } finally {
-      miceLock.unlock();
+      regions.unlockAll(entryTile, cellTile, tailTile);
+      if (EngineMetrics.ENABLED) {
+        miceLockStats.recordWait(t1 - t0);
+        miceLockStats.recordHold(System.nanoTime() - t1);
+      }
     }
 
     if (ateMouse) {
-      itemGenerationLock.lock();
-      try {
-        mice.add(randomEmpty());
-        obstacles.add(randomEmpty());
-        if (ThreadLocalRandom.current().nextDouble() < 0.2) {
-          turbo.add(randomEmpty());
+      fireCellChanged(cell);
+      var pipeline = respawnPipeline;
+      if (pipeline != null) {
+        pipeline.request();
+      } else if (regions.tileCount() == 1) {
+        long w0 = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+        itemGenerationLock.lock();
+        long w1 = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+        try {
+          respawnAfterMouse(null, 0);
+        } finally {
+          itemGenerationLock.unlock();
+          if (EngineMetrics.ENABLED) {
+            itemGenerationLockStats.recordWait(w1 - w0);
+            itemGenerationLockStats.recordHold(System.nanoTime() - w1);
+          }
         }
-      } finally {
-        itemGenerationLock.unlock();
+      } else {
+        // Cada aparicion solo bloquea el tile de la celda elegida
+        respawnAfterMouse(null, 0);
       }
     }
 
@@ -94,29 +583,141 @@ public final class Board {
     return MoveResult.MOVED;
   }
 
+  /**
+   * Spawns what follows an eaten mouse under the current RespawnPolicy: a mouse, the obstacles and
+   * maybe a turbo, each only while the board is below maxItems. Obstacles and turbo also leave room
+   * for the mice of the reserved respawns still waiting. Cells from candidates (-1 when exhausted)
+   * are tried before drawing a random one.
+   */
+  void respawnAfterMouse(IntSupplier candidates, long reserved) {
+    var policy = respawnPolicy;
+    long max = policy.maxItems();
+    if (itemCount() < max) spawn(mice, candidates);
+    for (int i = policy.obstaclesAfterMouse(random()); i > 0 && itemCount() + reserved < max; i--) {
+      spawn(obstacles, candidates);
+    }
+    if (itemCount() + reserved < max && random().nextDouble() < policy.turboChance()) {
+      spawn(turbo, candidates);
+    }
+  }
+
+  private int itemCount() { return mice.size() + obstacles.size() + turbo.size(); }
+
   private void createTeleportPairs(int pairs) {
     itemGenerationLock.lock();
     try {
       for (int i=0;i<pairs;i++) {
-        Position a = randomEmpty();
-        Position b = randomEmpty();
-        teleports.put(a, b);
-        teleports.put(b, a);
+        int a = randomEmpty();
+        int b = randomEmpty();
+        if (a < 0 || b < 0) {
+          if (a >= 0) releaseCell(a);
+          break;
+        }
+        teleportTarget[a] = b + 1;
+        teleportTarget[b] = a + 1;
       }
     } finally {
       itemGenerationLock.unlock();
     }
   }
 
-  private Position randomEmpty() {
-    var rnd = ThreadLocalRandom.current();
-    Position p;
-    int guard = 0;
-    do {
-      p = new Position(rnd.nextInt(width), rnd.nextInt(height));
-      guard++;
-      if (guard > width*height*2) break;
-    } while (mice.contains(p) || obstacles.contains(p) || turbo.contains(p) || teleports.containsKey(p));
-    return p;
+  private Map<Position, Position> teleportView() {
+    var map = new LinkedHashMap<Position, Position>();
+    for (int c = 0; c < teleportTarget.length; c++) {
+      if (teleportTarget[c] != 0) map.put(position(c), position(teleportTarget[c] - 1));
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
+  private int spawn(CellBitSet items) { return spawn(items, null); }
+
+  private int spawn(CellBitSet items, IntSupplier candidates) {
+    int c = -1;
+    if (candidates != null) {
+      // Muestreadas antes sin lock: claimCell las valida bajo el lock de su tile
+      for (int k = candidates.getAsInt(); k >= 0; k = candidates.getAsInt()) {
+        if (regions.claimCell(k, items)) {
+          c = k;
+          break;
+        }
+      }
+    }
+    int[] zones = spawnZones;
+    if (c < 0) c = zones == null ? regions.claimRandom(random(), items) : claimInZones(zones, items);
+    if (c >= 0 && items == obstacles) obstacleVersion.incrementAndGet();
+    if (c >= 0 && items != turbo) fireCellChanged(c);
+    var ring = events;
+    if (c >= 0 && ring != null) {
+      var type = items == mice ? EventType.MOUSE_SPAWNED : items == obstacles ? EventType.OBSTACLE_SPAWNED : EventType.TURBO_SPAWNED;
+      ring.publish(type, -1, Position.pack(c % width, c / width));
+    }
+    return c;
+  }
+
+  /**
+   * A cell that is free right now, drawn like spawn() would (inside the zones if any), without
+   * claiming it; -1 if none was found. Used to precompute respawn candidates.
+   */
+  int sampleFreeCell(RandomGenerator rnd) {
+    int[] zones = spawnZones;
+    if (zones == null) return regions.sampleFree(rnd);
+    for (int attempt = 0; attempt < MAX_ZONE_ATTEMPTS; attempt++) {
+      int c = randomZoneCell(zones, rnd);
+      if (regions.isFree(c)) return c;
+    }
+    return -1;
+  }
+
+  /**
+   * Claims a random free cell inside the zones (zones weighted by area), or -1 if all are full.
+   */
+  private int claimInZones(int[] zones, CellBitSet items) {
+    var rnd = random();
+    for (int attempt = 0; attempt < MAX_ZONE_ATTEMPTS; attempt++) {
+      int c = randomZoneCell(zones, rnd);
+      if (regions.claimCell(c, items)) return c;
+    }
+    // Zonas casi llenas: recorrido lineal como ultimo recurso
+    for (int i = 0; i < zones.length; i += 4) {
+      for (int y = zones[i + 1]; y < zones[i + 1] + zones[i + 3]; y++) {
+        for (int x = zones[i]; x < zones[i] + zones[i + 2]; x++) {
+          if (regions.claimCell(y * width + x, items)) return y * width + x;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private int randomZoneCell(int[] zones, RandomGenerator rnd) {
+    long area = 0;
+    for (int i = 0; i < zones.length; i += 4) area += (long) zones[i + 2] * zones[i + 3];
+    long r = rnd.nextLong(area);
+    int i = 0;
+    while (r >= (long) zones[i + 2] * zones[i + 3]) {
+      r -= (long) zones[i + 2] * zones[i + 3];
+      i += 4;
+    }
+    return (zones[i + 1] + (int) (r / zones[i + 2])) * width + zones[i] + (int) (r % zones[i + 2]);
+  }
+
+  /**
+   * Claims a uniformly random free cell, or returns -1 when the board has none left.
+   */
+  private int randomEmpty() {
+    return regions.claimRandom(random(), null);
+  }
+
+  private RandomGenerator random() {
+    return rng != null ? rng : ThreadLocalRandom.current();
+  }
+
+  private void releaseCell(int c) {
+    var lock = regions.lock(regions.tileOf(c));
+    lock.lock();
+    try {
+      regions.release(c);
+    } finally {
+      lock.unlock();
+    }
   }
 }
@@ -0,0 +1,235 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * BoardRegions - Particion del tablero en tiles con un lock y un FreeCellIndex por tile
+ *
+ * - Cada tile de tileSize x tileSize celdas tiene su propio ReentrantLock; un movimiento solo
+ *   bloquea los tiles que lee o escribe, asi serpientes lejanas avanzan en paralelo
+ * - Varios tiles se toman siempre en orden ascendente de indice (sin deadlocks aunque un
+ *   teleport cruce de tile)
+ * - Un arbol de Fenwick atomico con las celdas libres por tile permite elegir el tile con
+ *   probabilidad proporcional a sus celdas libres: el muestreo sigue siendo uniforme en el tablero
+ * - Con un solo tile se comporta como el candado unico original
+ */
+final class BoardRegions {
+  private static final int MAX_CLAIM_ATTEMPTS = 64;
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int tilesX;
+  private final ReentrantLock[] locks;
+  private final FreeCellIndex[] free;
+  private final AtomicIntegerArray tree;
+  private final AtomicInteger freeTotal = new AtomicInteger();
+
+  BoardRegions(int width, int height, int tileSize, ReentrantLock singleLock) {
+    this.width = width;
+    this.height = height;
+    this.tileSize = (tileSize <= 0) ? Math.max(width, height) : Math.min(tileSize, Math.max(width, height));
+    this.tilesX = (width + this.tileSize - 1) / this.tileSize;
+    int tilesY = (height + this.tileSize - 1) / this.tileSize;
+    int tiles = tilesX * tilesY;
+    this.locks = new ReentrantLock[tiles];
+    this.free = new FreeCellIndex[tiles];
+    this.tree = new AtomicIntegerArray(tiles + 1);
+    for (int t = 0; t < tiles; t++) {
+      locks[t] = (tiles == 1) ? singleLock : new ReentrantLock();
+      int n = tileWidth(t) * tileHeight(t);
+      free[t] = new FreeCellIndex(n);
+      add(t, n);
+    }
+    freeTotal.set(width * height);
+  }
+
+  int tileCount() { return locks.length; }
+  int tileSize() { return tileSize; }
+
+  int tileOf(int cell) {
+    if (locks.length == 1) return 0;
+    return ((cell / width) / tileSize) * tilesX + (cell % width) / tileSize;
+  }
+
+  ReentrantLock lock(int tile) { return locks[tile]; }
+
+  /**
+   * Locks the given tiles (duplicates allowed) in ascending order.
+   */
+  void lockAll(int a, int b, int c) {
+    int lo = Math.min(a, Math.min(b, c));
+    int hi = Math.max(a, Math.max(b, c));
+    int mid = a + b + c - lo - hi;
+    locks[lo].lock();
+    if (mid != lo) locks[mid].lock();
+    if (hi != mid) locks[hi].lock();
+  }
+
+  void unlockAll(int a, int b, int c) {
+    int lo = Math.min(a, Math.min(b, c));
+    int hi = Math.max(a, Math.max(b, c));
+    int mid = a + b + c - lo - hi;
+    if (hi != mid) locks[hi].unlock();
+    if (mid != lo) locks[mid].unlock();
+    locks[lo].unlock();
+  }
+
+  /**
+   * Adds an occupant to the cell. The caller must hold the lock of tileOf(cell).
+   */
+  void acquire(int cell) {
+    int t = tileOf(cell);
+    if (free[t].acquire(local(t, cell))) {
+      add(t, -1);
+      freeTotal.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes an occupant from the cell. The caller must hold the lock of tileOf(cell).
+   */
+  void release(int cell) {
+    int t = tileOf(cell);
+    if (free[t].release(local(t, cell))) {
+      add(t, 1);
+      freeTotal.incrementAndGet();
+    }
+  }
+
+  /**
+   * Claims a uniformly random free cell and marks it in items, all under the lock of its tile.
+   * Returns the cell, or -1 when the board has no free cell left.
+   */
+  int claimRandom(RandomGenerator rnd, CellBitSet items) {
+    for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+      int total = freeTotal.get();
+      if (total <= 0) return -1;
+      int t = findTile(rnd.nextInt(total));
+      int cell = claimIn(t, rnd, items);
+      if (cell >= 0) return cell;
+    }
+    // El arbol cambio demasiado entre lectura y bloqueo: recorrido lineal como ultimo recurso
+    for (int t = 0; t < locks.length; t++) {
+      int cell = claimIn(t, rnd, items);
+      if (cell >= 0) return cell;
+    }
+    return -1;
+  }
+
+  /**
+   * Claims the given cell if it is free and marks it in items, under the lock of its tile.
+   */
+  boolean claimCell(int cell, CellBitSet items) {
+    int t = tileOf(cell);
+    var lock = locks[t];
+    lock.lock();
+    try {
+      if (!free[t].claim(local(t, cell))) return false;
+      add(t, -1);
+      freeTotal.decrementAndGet();
+      if (items != null) items.add(cell);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int freeCount() { return freeTotal.get(); }
+
+  /**
+   * A uniformly random free cell without claiming it (it may be taken right after), or -1.
+   */
+  int sampleFree(RandomGenerator rnd) {
+    int total = freeTotal.get();
+    if (total <= 0) return -1;
+    int t = findTile(rnd.nextInt(total));
+    var lock = locks[t];
+    lock.lock();
+    try {
+      int l = free[t].sample(rnd);
+      return l < 0 ? -1 : global(t, l);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean isFree(int cell) {
+    int t = tileOf(cell);
+    var lock = locks[t];
+    lock.lock();
+    try {
+      return free[t].isFree(local(t, cell));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int claimIn(int t, RandomGenerator rnd, CellBitSet items) {
+    var lock = locks[t];
+    lock.lock();
+    try {
+      int l = free[t].claimRandom(rnd);
+      if (l < 0) return -1;
+      add(t, -1);
+      freeTotal.decrementAndGet();
+      int cell = global(t, l);
+      if (items != null) items.add(cell);
+      return cell;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Fenwick 1-based sobre las celdas libres por tile
+  private void add(int tile, int delta) {
+    for (int i = tile + 1; i < tree.length(); i += i & -i) tree.addAndGet(i, delta);
+  }
+
+  /**
+   * Returns the tile containing the r-th free cell (0-based) according to the tree.
+   */
+  private int findTile(int r) {
+    int n = tree.length() - 1;
+    int pos = 0;
+    for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+      int next = pos + step;
+      if (next <= n) {
+        int v = tree.get(next);
+        if (v <= r) {
+          pos = next;
+          r -= v;
+        }
+      }
+    }
+    return Math.min(pos, n - 1);
+  }
+
+  private int tileWidth(int t) {
+    int tx = t % tilesX;
+    return Math.min(tileSize, width - tx * tileSize);
+  }
+
+  private int tileHeight(int t) {
+    int ty = t / tilesX;
+    return Math.min(tileSize, height - ty * tileSize);
+  }
+
+  private int local(int t, int cell) {
+    if (locks.length == 1) return cell;
+    int x = cell % width - (t % tilesX) * tileSize;
+    int y = cell / width - (t / tilesX) * tileSize;
+    return y * tileWidth(t) + x;
+  }
+
+  private int global(int t, int local) {
+    if (locks.length == 1) return local;
+    int tw = tileWidth(t);
+    int x = (t % tilesX) * tileSize + local % tw;
+    int y = (t / tilesX) * tileSize + local / tw;
+    return y * width + x;
+  }
+}
@@ -0,0 +1,151 @@
+package co.eci.snake.core;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * CellBitSet - Conjunto de celdas del tablero respaldado por un long[] atomico
+ *
+ * - Un bit por celda, indexado como y*width + x
+ * - add/remove son CAS sobre una sola palabra: sin locks, sin boxing y sin nodos por elemento
+ * - asSet() expone una vista de solo lectura en terminos de Position para el renderer
+ */
+public final class CellBitSet {
+  private final int width;
+  private final int cells;
+  private final AtomicLongArray words;
+  private final AtomicInteger count = new AtomicInteger();
+
+  public CellBitSet(int width, int height) {
+    this.width = width;
+    this.cells = width * height;
+    this.words = new AtomicLongArray((cells + 63) >>> 6);
+  }
+
+  public boolean contains(int cell) {
+    return (words.get(cell >>> 6) & (1L << cell)) != 0;
+  }
+
+  /**
+   * Sets the bit of the cell. Returns false if it was already set.
+   */
+  public boolean add(int cell) {
+    int w = cell >>> 6;
+    long mask = 1L << cell;
+    long cur;
+    do {
+      cur = words.get(w);
+      if ((cur & mask) != 0) return false;
+    } while (!words.compareAndSet(w, cur, cur | mask));
+    count.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Clears the bit of the cell. Returns true only for the caller that actually cleared it.
+   */
+  public boolean remove(int cell) {
+    int w = cell >>> 6;
+    long mask = 1L << cell;
+    long cur;
+    do {
+      cur = words.get(w);
+      if ((cur & mask) == 0) return false;
+    } while (!words.compareAndSet(w, cur, cur & ~mask));
+    count.decrementAndGet();
+    return true;
+  }
+
+  public int size() { return count.get(); }
+
+  public int cells() { return cells; }
+
+  public int wordCount() { return words.length(); }
+
+  public long word(int index) { return words.get(index); }
+
+  /**
+   * Copies the raw words into dst, which must hold at least wordCount() longs. Each word is
+   * read atomically; the whole copy is not.
+   */
+  public void copyWords(long[] dst) {
+    for (int i = 0; i < words.length(); i++) dst[i] = words.get(i);
+  }
+
+  /**
+   * Writes the raw words into buf (wordCount() longs).
+   */
+  public void store(ByteBuffer buf) {
+    for (int i = 0; i < words.length(); i++) buf.putLong(words.get(i));
+  }
+
+  /**
+   * Replaces the content with wordCount() longs read from buf. Plain stores: meant for a set
+   * that other threads cannot see yet (a board being restored).
+   */
+  public void load(ByteBuffer buf) {
+    int n = 0;
+    for (int i = 0; i < words.length(); i++) {
+      long w = buf.getLong();
+      words.setPlain(i, w);
+      n += Long.bitCount(w);
+    }
+    count.set(n);
+  }
+
+  /**
+   * Returns the first set cell at or after from, or -1 if there is none.
+   */
+  public int nextSetBit(int from) {
+    if (from >= cells) return -1;
+    int w = from >>> 6;
+    long word = words.get(w) & (-1L << from);
+    while (true) {
+      if (word != 0) {
+        int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+        return cell < cells ? cell : -1;
+      }
+      if (++w >= words.length()) return -1;
+      word = words.get(w);
+    }
+  }
+
+  /**
+   * Read-only, weakly consistent view of the set cells as positions.
+   */
+  public java.util.Set<Position> asSet() {
+    return new AbstractSet<>() {
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Position p)) return false;
+        if (p.x() < 0 || p.y() < 0 || p.x() >= width || p.y() >= cells / width) return false;
+        return CellBitSet.this.contains(p.y() * width + p.x());
+      }
+
+      @Override
+      public int size() { return count.get(); }
+
+      @Override
+      public Iterator<Position> iterator() {
+        return new Iterator<>() {
+          private int next = nextSetBit(0);
+
+          @Override
+          public boolean hasNext() { return next >= 0; }
+
+          @Override
+          public Position next() {
+            if (next < 0) throw new NoSuchElementException();
+            int cell = next;
+            next = nextSetBit(cell + 1);
+            return new Position(cell % width, cell / width);
+          }
+        };
+      }
+    };
+  }
+}
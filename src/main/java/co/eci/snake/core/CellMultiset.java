@@ -0,0 +1,91 @@
+package co.eci.snake.core;
+
+/**
+ * CellMultiset - Multiconjunto de posiciones empaquetadas (int) con direccionamiento abierto
+ *
+ * - Sondeo lineal con borrado por desplazamiento hacia atras: sin lapidas ni objetos por entrada
+ * - Un slot esta vacio cuando su contador es 0, asi cualquier int es una clave valida
+ * - Usado por Snake para responder occupies(x,y) en O(1) aunque el cuerpo se cruce consigo mismo
+ */
+final class CellMultiset {
+  private int[] keys;
+  private int[] counts;
+  private int mask;
+  private int distinct;
+
+  CellMultiset(int expected) {
+    int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+    keys = new int[cap];
+    counts = new int[cap];
+    mask = cap - 1;
+  }
+
+  boolean contains(int key) {
+    int[] k = keys, c = counts;
+    int m = k.length - 1;
+    for (int i = hash(key) & m; c[i] != 0; i = (i + 1) & m) {
+      if (k[i] == key) return true;
+    }
+    return false;
+  }
+
+  void add(int key) {
+    for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+      if (counts[i] == 0) {
+        keys[i] = key;
+        counts[i] = 1;
+        if (++distinct * 2 > keys.length) rehash(keys.length << 1);
+        return;
+      }
+      if (keys[i] == key) {
+        counts[i]++;
+        return;
+      }
+    }
+  }
+
+  void remove(int key) {
+    int i = hash(key) & mask;
+    while (counts[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+    if (counts[i] == 0) return;
+    if (--counts[i] > 0) return;
+    distinct--;
+    // Borrado por desplazamiento: recoloca los elementos del cluster que quedaron detras del hueco
+    int hole = i;
+    for (int j = (hole + 1) & mask; counts[j] != 0; j = (j + 1) & mask) {
+      int home = hash(keys[j]) & mask;
+      if (((j - home) & mask) >= ((j - hole) & mask)) {
+        keys[hole] = keys[j];
+        counts[hole] = counts[j];
+        counts[j] = 0;
+        hole = j;
+      }
+    }
+  }
+
+  /**
+   * Grows the table so that at least the given number of distinct keys fit at load factor 0.5.
+   */
+  void ensureCapacity(int expected) {
+    if (expected * 2 > keys.length) rehash(Integer.highestOneBit(expected * 2 - 1) << 1);
+  }
+
+  private void rehash(int cap) {
+    int[] oldKeys = keys, oldCounts = counts;
+    keys = new int[cap];
+    counts = new int[cap];
+    mask = cap - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldCounts[i] == 0) continue;
+      int j = hash(oldKeys[i]) & mask;
+      while (counts[j] != 0) j = (j + 1) & mask;
+      keys[j] = oldKeys[i];
+      counts[j] = oldCounts[i];
+    }
+  }
+
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
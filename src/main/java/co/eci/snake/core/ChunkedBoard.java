@@ -0,0 +1,644 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * ChunkedBoard - Tablero disperso por chunks para mundos abiertos enormes y casi vacios
+ *
+ * - El mundo se divide en chunks de chunkSize x chunkSize celdas (potencia de dos) que se crean
+ *   solo cuando reciben un item, un segmento de serpiente o un teleport, y se desalojan en cuanto
+ *   vuelven a quedar vacios: la memoria crece con los items y los cuerpos, no con el area
+ * - Cada chunk tiene su lock; step() toma los chunks de la celda de entrada, la de destino y la
+ *   cola en orden ascendente de clave (como los tiles de Board). Un chunk desalojado queda marcado
+ *   como muerto y quien lo bloquee despues vuelve a buscarlo en el mapa
+ * - El duenio de cada celda (id de la serpiente) se decide bajo el lock del chunk, que de todos
+ *   modos hay que tomar para que no lo desalojen; las reglas de choque son las de Board
+ * - Wrap-around en ambos ejes; los teleports pueden unir chunks lejanos y fijan sus chunks en
+ *   memoria
+ * - Los items aparecen solo cerca de la actividad: spawnSnake() deja un raton junto a cada serpiente
+ *   y comer uno hace aparecer el siguiente (y el obstaculo, y a veces un turbo) a menos de
+ *   spawnRadius celdas de donde se comio
+ * - Coordenadas de hasta Integer.MAX_VALUE por eje (100000 x 100000 son 10^10 celdas, mas de lo
+ *   que entra en un int): las celdas de las serpientes no son Position.pack sino el slot del chunk
+ *   vivo en los bits altos y la celda dentro del chunk en los bajos. El slot se libera al desalojar
+ *   el chunk, y mientras una serpiente tenga un segmento ahi el chunk no se desaloja. El tablero es
+ *   el CellCodec de sus serpientes (se crean con spawnSnake()), asi que head(), occupies() y
+ *   forEachSegment() de Snake devuelven coordenadas del mundo
+ * - Una celda tiene a lo sumo una serpiente: spawnSnake() corre el inicio a la siguiente celda
+ *   libre y place() rechaza cuerpos que pisan otra serpiente
+ */
+public final class ChunkedBoard implements Arena, Snake.CellCodec {
+  public static final int DEFAULT_CHUNK_SIZE = 32;
+  /** Con chunks mas grandes quedan menos de 2^15 slots para chunks vivos. */
+  public static final int MAX_CHUNK_SIZE = 256;
+  private static final int SPAWN_ATTEMPTS = 16;
+  // Celdas que spawnSnake() recorre buscando un inicio libre
+  private static final int SPAWN_SCAN = 1 << 16;
+
+  private static final int MICE = 0, OBSTACLES = 1, TURBO = 2, LAYERS = 3;
+
+  private final int width;
+  private final int height;
+  private final int chunkSize;
+  private final int shift;
+  private final int localMask;
+  // Bits de la celda dentro del chunk (2 * shift); el resto de los 31 bits es el slot
+  private final int localBits;
+  private final int maxSlots;
+  private final int chunksHigh;
+  private final int spawnRadius;
+  // null -> ThreadLocalRandom del hilo que llama
+  private final RandomGenerator rng;
+
+  // Clave = x del chunk en los 32 bits altos, y en los bajos
+  private final ConcurrentHashMap<Long, Chunk> chunks = new ConcurrentHashMap<>();
+  // Chunk vivo de cada slot; las celdas se publican a otros hilos bajo los locks de chunk
+  private volatile Chunk[] bySlot = new Chunk[64];
+  private final ReentrantLock slotLock = new ReentrantLock();
+  private int[] freeSlots = new int[16];
+  private int freeCount;
+  private int nextSlot;
+  private final LongAdder allocated = new LongAdder();
+  private final LongAdder evicted = new LongAdder();
+  private final LongAdder[] items = { new LongAdder(), new LongAdder(), new LongAdder() };
+
+  public ChunkedBoard(int width, int height) {
+    this(width, height, DEFAULT_CHUNK_SIZE, 2, null);
+  }
+
+  /**
+   * Creates a world of the given size with teleportPairs random teleport pairs. Items are drawn
+   * from rng, which must be thread-safe if snakes step concurrently (null means ThreadLocalRandom).
+   */
+  public ChunkedBoard(int width, int height, int chunkSize, int teleportPairs, RandomGenerator rng) {
+    if (width <= 0 || height <= 0) throw new IllegalArgumentException("Board dimensions must be positive");
+    if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1 || chunkSize > MAX_CHUNK_SIZE)
+      throw new IllegalArgumentException("chunkSize must be a power of two up to " + MAX_CHUNK_SIZE);
+    this.width = width;
+    this.height = height;
+    this.chunkSize = chunkSize;
+    this.shift = Integer.numberOfTrailingZeros(chunkSize);
+    this.localMask = chunkSize - 1;
+    this.localBits = 2 * shift;
+    this.maxSlots = (int) Math.min(Integer.MAX_VALUE, 1L << (31 - localBits));
+    this.chunksHigh = (int) (((long) height + chunkSize - 1) >>> shift);
+    this.spawnRadius = Math.max(4, chunkSize);
+    this.rng = rng;
+    createTeleportPairs(teleportPairs);
+  }
+
+  @Override
+  public int width() { return width; }
+  @Override
+  public int height() { return height; }
+  public int chunkSize() { return chunkSize; }
+
+  /**
+   * Chunks currently in memory.
+   */
+  public int chunkCount() { return chunks.size(); }
+
+  public long allocatedChunks() { return allocated.sum(); }
+  public long evictedChunks() { return evicted.sum(); }
+
+  public long miceCount() { return items[MICE].sum(); }
+  public long obstacleCount() { return items[OBSTACLES].sum(); }
+  public long turboCount() { return items[TURBO].sum(); }
+
+  /**
+   * Approximate heap used by the live chunks (arrays only).
+   */
+  public long footprintBytes() {
+    long bytes = 0;
+    for (Chunk c : chunks.values()) bytes += c.footprintBytes();
+    return bytes;
+  }
+
+  /**
+   * Column of a cell of this board (a snake segment or a teleport target). The cell must be live,
+   * which every cell still held by a snake is.
+   */
+  @Override
+  public int x(int cell) { return chunkOf(cell).cx << shift | (cell & localMask); }
+
+  /**
+   * Row of a cell of this board; see x(int).
+   */
+  @Override
+  public int y(int cell) { return chunkOf(cell).cy << shift | ((cell >>> shift) & localMask); }
+
+  /**
+   * Cell of (x, y), or -1 if its chunk is not in memory (then no snake is there).
+   */
+  @Override
+  public int cell(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+    Chunk c = chunks.get(chunkKey(x, y));
+    return c == null || c.dead ? -1 : cell(c, local(x, y));
+  }
+
+  /**
+   * Chunk of the cell, numbered column by column; snakes in the same chunk contend.
+   */
+  @Override
+  public int tileOf(int cell) {
+    Chunk c = chunkOf(cell);
+    return (int) ((long) c.cx * chunksHigh + c.cy);
+  }
+
+  public boolean hasMouse(int x, int y) { return has(x, y, MICE); }
+  public boolean hasObstacle(int x, int y) { return has(x, y, OBSTACLES); }
+  public boolean hasTurbo(int x, int y) { return has(x, y, TURBO); }
+
+  /**
+   * Id of the snake occupying (x, y), or 0 when no snake is there.
+   */
+  public int occupant(int x, int y) {
+    Chunk c = chunks.get(chunkKey(x, y));
+    if (c == null) return 0;
+    c.lock.lock();
+    try {
+      return c.dead ? 0 : c.owner(local(x, y));
+    } finally {
+      c.lock.unlock();
+    }
+  }
+
+  /**
+   * Cell a snake lands on when it enters (x, y), or -1 if (x, y) is not a teleport.
+   */
+  public int teleportTarget(int x, int y) {
+    Chunk c = chunks.get(chunkKey(x, y));
+    int t = c == null ? -1 : c.teleport(local(x, y));
+    return t < 0 ? -1 : c.teleportTargets[t];
+  }
+
+  public boolean isTeleport(int x, int y) { return teleportTarget(x, y) >= 0; }
+
+  /**
+   * Creates a one-segment snake at (x, y), registers it and drops a mouse near it. If another
+   * snake is already there the start moves to the next cell without a snake, row by row, as in
+   * GameSession.
+   */
+  public Snake spawnSnake(int x, int y, Direction dir) {
+    if (x < 0 || x >= width || y < 0 || y >= height) throw new IllegalArgumentException("outside the world: " + x + "," + y);
+    Snake snake = null;
+    int sx = x, sy = y;
+    for (int attempt = 0; snake == null; attempt++) {
+      if (attempt == SPAWN_SCAN) throw new IllegalStateException("no free cell to start a snake near " + x + "," + y);
+      Chunk c = lock(chunkKey(sx, sy));
+      try {
+        int l = local(sx, sy);
+        if (c.owner(l) == 0) {
+          snake = Snake.at(cell(c, l), dir, this);
+          c.setOwner(l, snake.id());
+        }
+      } finally {
+        release(c);
+      }
+      if (snake == null && ++sx == width) {
+        sx = 0;
+        sy = sy + 1 == height ? 0 : sy + 1;
+      }
+    }
+    spawnNear(sx, sy, MICE);
+    return snake;
+  }
+
+  /**
+   * Registers again the body of a snake whose segments are cells of this board (see spawnSnake())
+   * and drops a mouse near its head. Throws IllegalArgumentException if another snake already owns
+   * one of its cells; the cells claimed until then are released.
+   */
+  @Override
+  public void place(Snake snake) {
+    int id = snake.id();
+    int[] body = new int[snake.length()];
+    int n = snake.copySegments(body);
+    for (int i = 0; i < n; i++) {
+      Chunk c = chunkOf(body[i]);
+      int l = body[i] & ((1 << localBits) - 1);
+      c.lock.lock();
+      try {
+        if (c.dead) throw new IllegalArgumentException("not a live cell of this board: " + body[i]);
+        int owner = c.owner(l);
+        if (owner != 0 && owner != id) {
+          unclaim(body, i, id);
+          throw new IllegalArgumentException("cell " + x(body[i]) + "," + y(body[i]) + " already belongs to snake " + owner);
+        }
+        c.setOwner(l, id);
+      } finally {
+        c.lock.unlock();
+      }
+    }
+    spawnNear(x(body[0]), y(body[0]), MICE);
+  }
+
+  // Suelta las primeras n celdas de body que todavia son de la serpiente. Los chunks se desalojan
+  // al final: un cuerpo puede repetir celdas y todas tienen que seguir decodificandose
+  private void unclaim(int[] body, int n, int id) {
+    int localMaskAll = (1 << localBits) - 1;
+    for (int i = 0; i < n; i++) {
+      Chunk c = chunkOf(body[i]);
+      // Reentrante: el chunk del segmento rechazado puede ser uno de estos
+      c.lock.lock();
+      try {
+        if (c.owner(body[i] & localMaskAll) == id) c.setOwner(body[i] & localMaskAll, 0);
+      } finally {
+        c.lock.unlock();
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      Chunk c = bySlot[body[i] >>> localBits];
+      if (c == null) continue;
+      c.lock.lock();
+      try {
+        retire(c);
+      } finally {
+        c.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Places a mouse on a free cell within spawnRadius of (x, y). Returns false if none was found.
+   */
+  public boolean spawnMouseNear(int x, int y) { return spawnNear(x, y, MICE); }
+
+  public boolean spawnObstacleNear(int x, int y) { return spawnNear(x, y, OBSTACLES); }
+
+  @Override
+  public Board.MoveResult step(Snake snake) {
+    Objects.requireNonNull(snake, "snake");
+    int head = snake.headPacked();
+    var dir = snake.direction();
+    int ex = Position.wrapCoord(x(head) + dir.dx, width);
+    int ey = Position.wrapCoord(y(head) + dir.dy, height);
+    int le = local(ex, ey);
+    long entryKey = chunkKey(ex, ey);
+    int tail = snake.tailPacked();
+    int id = snake.id();
+
+    boolean teleported;
+    boolean ateMouse;
+    boolean ateTurbo;
+    int cell;
+    for (;;) {
+      // Solo se busca: sin chunk la celda de entrada esta vacia y no es teleport
+      Chunk e = chunks.get(entryKey);
+      int target = e == null ? -1 : e.teleport(le);
+      teleported = target >= 0;
+      // El chunk de la cabeza se crea recien aca, para reclamarla bajo su lock; si otro hilo lo
+      // desaloja antes (vacio) se ve muerto y se reintenta
+      if (e == null) e = chunk(entryKey);
+      // Los chunks con teleport estan fijos, asi que el destino sigue vivo
+      cell = teleported ? e.teleportTargets[target] : cell(e, le);
+      Chunk c = teleported ? chunkOf(cell) : e;
+      // La cola es de la serpiente: su chunk no se desaloja
+      Chunk t = chunkOf(tail);
+      lockAll(c, t, e);
+      if (c.dead || t.dead || e.dead) {
+        unlockAll(c, t, e);
+        continue;
+      }
+      try {
+        if (e.has(le, OBSTACLES)) return Board.MoveResult.HIT_OBSTACLE;
+        boolean intoOwnTail = cell == tail && snake.length() >= snake.maxLength();
+        int lc = cell & ((1 << localBits) - 1);
+        if (!intoOwnTail) {
+          if (c.owner(lc) != 0) return Board.MoveResult.BLOCKED;
+          c.setOwner(lc, id);
+        }
+        ateTurbo = take(c, lc, TURBO);
+        ateMouse = take(c, lc, MICE);
+        if (snake.advance(cell, ateMouse) && !intoOwnTail) {
+          int lt = tail & ((1 << localBits) - 1);
+          if (t.owner(lt) == id) t.setOwner(lt, 0);
+        }
+      } finally {
+        retire(c);
+        retire(t);
+        retire(e);
+        unlockAll(c, t, e);
+      }
+      break;
+    }
+
+    if (ateMouse) {
+      // La nueva cabeza es de la serpiente: la celda sigue viva
+      int cx = x(cell), cy = y(cell);
+      spawnNear(cx, cy, MICE);
+      spawnNear(cx, cy, OBSTACLES);
+      if (random().nextDouble() < 0.2) spawnNear(cx, cy, TURBO);
+    }
+
+    if (ateTurbo) return Board.MoveResult.ATE_TURBO;
+    if (ateMouse) return Board.MoveResult.ATE_MOUSE;
+    if (teleported) return Board.MoveResult.TELEPORTED;
+    return Board.MoveResult.MOVED;
+  }
+
+  private boolean take(Chunk c, int local, int layer) {
+    if (!c.has(local, layer)) return false;
+    c.clear(local, layer);
+    items[layer].decrement();
+    return true;
+  }
+
+  private boolean spawnNear(int x, int y, int layer) {
+    var rnd = random();
+    for (int attempt = 0; attempt < SPAWN_ATTEMPTS; attempt++) {
+      int px = Math.floorMod((long) x + rnd.nextInt(-spawnRadius, spawnRadius + 1), width);
+      int py = Math.floorMod((long) y + rnd.nextInt(-spawnRadius, spawnRadius + 1), height);
+      Chunk c = lock(chunkKey(px, py));
+      try {
+        int l = local(px, py);
+        if (c.owner(l) != 0 || c.teleport(l) >= 0 || c.has(l, MICE) || c.has(l, OBSTACLES) || c.has(l, TURBO)) continue;
+        c.set(l, layer);
+        items[layer].increment();
+        return true;
+      } finally {
+        release(c);
+      }
+    }
+    return false;
+  }
+
+  private void createTeleportPairs(int pairs) {
+    var rnd = random();
+    for (int i = 0; i < pairs; i++) {
+      int ax = rnd.nextInt(width), ay = rnd.nextInt(height);
+      int bx = rnd.nextInt(width), by = rnd.nextInt(height);
+      addTeleportPair(ax, ay, bx, by);
+    }
+  }
+
+  /**
+   * Joins (ax, ay) and (bx, by) with a teleport; false if they are the same cell or either one is
+   * already a teleport. Only while no snake is on the board (the constructor and tests).
+   */
+  boolean addTeleportPair(int ax, int ay, int bx, int by) {
+    if ((ax == bx && ay == by) || isTeleport(ax, ay) || isTeleport(bx, by)) return false;
+    Chunk a = chunk(chunkKey(ax, ay)), b = chunk(chunkKey(bx, by));
+    a.addTeleport(local(ax, ay), cell(b, local(bx, by)));
+    b.addTeleport(local(bx, by), cell(a, local(ax, ay)));
+    return true;
+  }
+
+  private boolean has(int x, int y, int layer) {
+    Chunk c = chunks.get(chunkKey(x, y));
+    if (c == null) return false;
+    c.lock.lock();
+    try {
+      return !c.dead && c.has(local(x, y), layer);
+    } finally {
+      c.lock.unlock();
+    }
+  }
+
+  private Chunk chunk(long key) {
+    Chunk c = chunks.get(key);
+    if (c != null) return c;
+    return chunks.computeIfAbsent(key, this::newChunk);
+  }
+
+  private Chunk newChunk(long key) {
+    slotLock.lock();
+    try {
+      int slot;
+      if (freeCount > 0) {
+        slot = freeSlots[--freeCount];
+      } else {
+        if (nextSlot == maxSlots) throw new IllegalStateException("more than " + maxSlots + " live chunks");
+        slot = nextSlot++;
+        if (slot == bySlot.length) bySlot = Arrays.copyOf(bySlot, (int) Math.min(maxSlots, 2L * slot));
+      }
+      var c = new Chunk(key, slot, chunkSize);
+      bySlot[slot] = c;
+      allocated.increment();
+      return c;
+    } finally {
+      slotLock.unlock();
+    }
+  }
+
+  private void freeSlot(int slot) {
+    slotLock.lock();
+    try {
+      bySlot[slot] = null;
+      if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+      freeSlots[freeCount++] = slot;
+    } finally {
+      slotLock.unlock();
+    }
+  }
+
+  private Chunk chunkOf(int cell) {
+    Chunk c = bySlot[cell >>> localBits];
+    if (c == null) throw new IllegalArgumentException("not a live cell of this board: " + cell);
+    return c;
+  }
+
+  private int cell(Chunk c, int local) { return c.slot << localBits | local; }
+
+  // Bloquea el chunk vivo de la clave, creandolo si hace falta
+  private Chunk lock(long key) {
+    for (;;) {
+      Chunk c = chunk(key);
+      c.lock.lock();
+      if (!c.dead) return c;
+      c.lock.unlock();
+    }
+  }
+
+  private void release(Chunk c) {
+    retire(c);
+    c.lock.unlock();
+  }
+
+  // Desaloja el chunk si quedo vacio y libera su slot; el llamador tiene su lock
+  private void retire(Chunk c) {
+    if (c.dead || c.population != 0 || c.teleportCells.length != 0) return;
+    c.dead = true;
+    chunks.remove(c.key, c);
+    freeSlot(c.slot);
+    evicted.increment();
+  }
+
+  // Orden ascendente de clave (sin deadlocks); se admiten repetidos
+  private static void lockAll(Chunk a, Chunk b, Chunk c) {
+    Chunk lo = min(a, min(b, c)), hi = max(a, max(b, c));
+    Chunk mid = a != lo && a != hi ? a : b != lo && b != hi ? b : c;
+    lo.lock.lock();
+    if (mid != lo) mid.lock.lock();
+    if (hi != mid) hi.lock.lock();
+  }
+
+  private static void unlockAll(Chunk a, Chunk b, Chunk c) {
+    Chunk lo = min(a, min(b, c)), hi = max(a, max(b, c));
+    Chunk mid = a != lo && a != hi ? a : b != lo && b != hi ? b : c;
+    if (hi != mid) hi.lock.unlock();
+    if (mid != lo) mid.lock.unlock();
+    lo.lock.unlock();
+  }
+
+  private static Chunk min(Chunk a, Chunk b) { return a.key <= b.key ? a : b; }
+  private static Chunk max(Chunk a, Chunk b) { return a.key > b.key ? a : b; }
+
+  private long chunkKey(int x, int y) {
+    return (long) (x >>> shift) << 32 | (y >>> shift);
+  }
+
+  private int local(int x, int y) {
+    return (y & localMask) << shift | (x & localMask);
+  }
+
+  private RandomGenerator random() {
+    return rng != null ? rng : ThreadLocalRandom.current();
+  }
+
+  /**
+   * Un chunk: capas de items como bitmaps (solo si tiene items), duenios de celda en una tabla
+   * abierta chica (crece con los segmentos, no con el area del chunk) y sus teleports.
+   * population cuenta items y celdas con duenio; todo se protege con lock.
+   */
+  private static final class Chunk {
+    private static final int[] NONE = new int[0];
+
+    final long key;
+    final int cx;
+    final int cy;
+    final int slot;
+    final ReentrantLock lock = new ReentrantLock();
+    final int words;
+    // Capas de items (MICE, OBSTACLES, TURBO) una tras otra; null hasta el primer item
+    long[] layers;
+    // Sondeo lineal; ownerKeys[i] = celda local + 1 (0 = slot vacio)
+    int[] ownerKeys = NONE;
+    int[] ownerIds = NONE;
+    int owned;
+    int[] teleportCells = NONE;
+    int[] teleportTargets = NONE;
+    int population;
+    boolean dead;
+
+    Chunk(long key, int slot, int chunkSize) {
+      this.key = key;
+      this.cx = (int) (key >>> 32);
+      this.cy = (int) key;
+      this.slot = slot;
+      this.words = (chunkSize * chunkSize + 63) >>> 6;
+    }
+
+    boolean has(int local, int layer) {
+      return layers != null && (layers[layer * words + (local >>> 6)] & (1L << local)) != 0;
+    }
+
+    void set(int local, int layer) {
+      if (layers == null) layers = new long[LAYERS * words];
+      layers[layer * words + (local >>> 6)] |= 1L << local;
+      population++;
+    }
+
+    void clear(int local, int layer) {
+      layers[layer * words + (local >>> 6)] &= ~(1L << local);
+      population--;
+    }
+
+    int owner(int local) {
+      int m = ownerKeys.length - 1;
+      if (m < 0) return 0;
+      for (int i = mix(local) & m; ownerKeys[i] != 0; i = (i + 1) & m) {
+        if (ownerKeys[i] == local + 1) return ownerIds[i];
+      }
+      return 0;
+    }
+
+    void setOwner(int local, int id) {
+      if (id == 0) {
+        removeOwner(local);
+        return;
+      }
+      if ((owned + 1) * 2 > ownerKeys.length) rehash(Math.max(8, ownerKeys.length << 1));
+      int m = ownerKeys.length - 1;
+      int i = mix(local) & m;
+      while (ownerKeys[i] != 0 && ownerKeys[i] != local + 1) i = (i + 1) & m;
+      if (ownerKeys[i] == 0) {
+        ownerKeys[i] = local + 1;
+        owned++;
+        population++;
+      }
+      ownerIds[i] = id;
+    }
+
+    // Borrado con desplazamiento hacia atras, como CellMultiset (sin lapidas)
+    private void removeOwner(int local) {
+      int m = ownerKeys.length - 1;
+      if (m < 0) return;
+      int i = mix(local) & m;
+      while (ownerKeys[i] != local + 1) {
+        if (ownerKeys[i] == 0) return;
+        i = (i + 1) & m;
+      }
+      owned--;
+      population--;
+      for (int j = (i + 1) & m; ownerKeys[j] != 0; j = (j + 1) & m) {
+        int home = mix(ownerKeys[j] - 1) & m;
+        // j puede ocupar el hueco i si su posicion ideal no esta en (i, j]
+        if (((j - home) & m) >= ((j - i) & m)) {
+          ownerKeys[i] = ownerKeys[j];
+          ownerIds[i] = ownerIds[j];
+          i = j;
+        }
+      }
+      ownerKeys[i] = 0;
+      ownerIds[i] = 0;
+      if (owned == 0) {
+        ownerKeys = NONE;
+        ownerIds = NONE;
+      }
+    }
+
+    private void rehash(int capacity) {
+      int[] keys = ownerKeys, ids = ownerIds;
+      ownerKeys = new int[capacity];
+      ownerIds = new int[capacity];
+      int m = capacity - 1;
+      for (int k = 0; k < keys.length; k++) {
+        if (keys[k] == 0) continue;
+        int i = mix(keys[k] - 1) & m;
+        while (ownerKeys[i] != 0) i = (i + 1) & m;
+        ownerKeys[i] = keys[k];
+        ownerIds[i] = ids[k];
+      }
+    }
+
+    private static int mix(int local) { return local * 0x9E3779B9 >>> 16; }
+
+    int teleport(int local) {
+      for (int i = 0; i < teleportCells.length; i++) {
+        if (teleportCells[i] == local) return i;
+      }
+      return -1;
+    }
+
+    // Solo desde el constructor del tablero, antes de publicarlo a otros hilos
+    void addTeleport(int local, int target) {
+      int n = teleportCells.length;
+      teleportCells = Arrays.copyOf(teleportCells, n + 1);
+      teleportTargets = Arrays.copyOf(teleportTargets, n + 1);
+      teleportCells[n] = local;
+      teleportTargets[n] = target;
+    }
+
+    long footprintBytes() {
+      return (layers == null ? 0 : layers.length * 8L) + ownerKeys.length * 8L + teleportCells.length * 8L;
+    }
+  }
+}
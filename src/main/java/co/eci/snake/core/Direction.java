@@ -1,4 +1,22 @@
 package co.eci.snake.core;
 
 public enum Direction { UP(0,-1), DOWN(0,1), LEFT(-1,0), RIGHT(1,0);
-  public final int dx, dy; Direction(int dx, int dy){ this.dx=dx; this.dy=dy; } }
+  private static final Direction[] VALUES = values();
+
+  public final int dx, dy; Direction(int dx, int dy){ this.dx=dx; this.dy=dy; }
+
+  /**
+   * Direction with the given ordinal, without the array copy values() makes on every call.
+   */
+  public static Direction of(int ordinal) { return VALUES[ordinal]; }
+
+  public static int count() { return VALUES.length; }
+
+  /**
+   * Packed neighbour of packed in this direction on a width x height board with wrap-around.
+   */
+  public int step(int packed, int width, int height) {
+    return Position.pack(Position.wrapCoord(Position.unpackX(packed) + dx, width),
+        Position.wrapCoord(Position.unpackY(packed) + dy, height));
+  }
+}
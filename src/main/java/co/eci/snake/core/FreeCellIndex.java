@@ -0,0 +1,96 @@
+package co.eci.snake.core;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * FreeCellIndex - Indice incremental de celdas libres de una region del tablero
+ *
+ * - free[0..size) guarda las celdas libres en forma densa; slot[c] es la posicion de c en free
+ * - Quitar una celda es un swap-remove con el ultimo elemento: O(1)
+ * - refs[c] cuenta ocupantes (items y segmentos de serpiente, que pueden solaparse):
+ *   la celda vuelve a estar libre solo cuando el ultimo ocupante la suelta
+ * - claimRandom() muestrea uniformemente entre las libres en O(1) y la reserva en el mismo paso
+ * - free y slot guardan la diferencia con la identidad (free[i] - i, slot[c] - c): recien creados
+ *   valen cero y ya describen "todas libres", sin recorrer las celdas al construir el tablero
+ * - No es thread-safe: BoardRegions lo protege con el lock de su tile
+ */
+final class FreeCellIndex {
+  private final int[] free;
+  private final int[] slot;
+  private final int[] refs;
+  private int size;
+
+  FreeCellIndex(int cells) {
+    this.free = new int[cells];
+    this.slot = new int[cells];
+    this.refs = new int[cells];
+    this.size = cells;
+  }
+
+  /**
+   * Registers one more occupant on the cell. Returns true if the cell stopped being free.
+   */
+  boolean acquire(int cell) {
+    if (refs[cell]++ != 0) return false;
+    removeFree(cell);
+    return true;
+  }
+
+  /**
+   * Drops one occupant from the cell. Returns true if the cell became free.
+   */
+  boolean release(int cell) {
+    if (refs[cell] == 0) return false;
+    if (--refs[cell] != 0) return false;
+    addFree(cell);
+    return true;
+  }
+
+  /**
+   * Picks a uniformly random free cell and acquires it, or returns -1 if there is none.
+   */
+  int claimRandom(RandomGenerator rnd) {
+    if (size == 0) return -1;
+    int i = rnd.nextInt(size);
+    int cell = free[i] + i;
+    refs[cell] = 1;
+    removeFree(cell);
+    return cell;
+  }
+
+  /**
+   * A uniformly random free cell, left free; -1 if there is none.
+   */
+  int sample(RandomGenerator rnd) {
+    if (size == 0) return -1;
+    int i = rnd.nextInt(size);
+    return free[i] + i;
+  }
+
+  boolean isFree(int cell) { return refs[cell] == 0; }
+
+  /**
+   * Acquires the cell only if it is free. Returns true if it was claimed.
+   */
+  boolean claim(int cell) {
+    if (refs[cell] != 0) return false;
+    refs[cell] = 1;
+    removeFree(cell);
+    return true;
+  }
+
+  int freeCount() { return size; }
+
+  private void removeFree(int cell) {
+    int i = slot[cell] + cell;
+    int last = free[--size] + size;
+    free[i] = last - i;
+    slot[last] = i - last;
+    slot[cell] = -1 - cell;
+  }
+
+  private void addFree(int cell) {
+    free[size] = cell - size;
+    slot[cell] = size++ - cell;
+  }
+}
@@ -0,0 +1,151 @@
+package co.eci.snake.core;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Leaderboard - Ranking vivo de las serpientes de una partida por longitud, sin ordenar
+ *
+ * - order[] guarda los indices de serpiente de la mas larga a la mas corta y rank[] la posicion
+ *   de cada una; las serpientes de igual longitud forman un bloque contiguo cuyo inicio es
+ *   start[L] (cuantas serpientes miden mas que L)
+ * - Crecer un segmento es un intercambio con la primera del bloque y mover un limite: O(1) por
+ *   segmento, sin importar cuantas serpientes haya. A igual longitud va primero la que llego antes
+ * - top(k)/bottom(k) copian k entradas (O(k)) y rank(i) es una lectura: la UI deja de ordenar la
+ *   lista completa en cada repintado
+ * - Escritores serializados por el monitor; los lectores no bloquean: usan un contador de version
+ *   (seqlock, como Snake.copySegments) y reintentan si hubo una actualizacion en medio
+ */
+public final class Leaderboard {
+  private final int[] order;
+  private final int[] rank;
+  private final int[] length;
+  private int[] start = new int[16];
+  // Impar mientras update() reacomoda los arreglos
+  private volatile long version;
+
+  public Leaderboard(int snakes) {
+    this.order = new int[snakes];
+    this.rank = new int[snakes];
+    this.length = new int[snakes];
+    for (int i = 0; i < snakes; i++) {
+      order[i] = i;
+      rank[i] = i;
+    }
+  }
+
+  /**
+   * Sets the length of snake (its index in the session). Each segment of difference costs O(1);
+   * snakes only grow one segment per step, so updates from the engine are constant time.
+   */
+  public synchronized void update(int snake, int newLength) {
+    if (newLength < 0) throw new IllegalArgumentException("negative length");
+    int current = length[snake];
+    if (current == newLength) return;
+    long v = version;
+    version = v + 1;
+    VarHandle.storeStoreFence();
+    if (newLength >= start.length) start = Arrays.copyOf(start, Integer.highestOneBit(newLength) << 1);
+    for (int l = current; l < newLength; l++) {
+      // Pasa al final del bloque l + 1, que termina justo donde empieza el bloque l
+      swap(rank[snake], start[l]);
+      start[l]++;
+    }
+    for (int l = current; l > newLength; l--) {
+      // Pasa al inicio del bloque l - 1, que empieza justo donde termina el bloque l
+      swap(rank[snake], --start[l - 1]);
+    }
+    length[snake] = newLength;
+    version = v + 2;
+  }
+
+  private void swap(int a, int b) {
+    int sa = order[a], sb = order[b];
+    order[a] = sb;
+    rank[sb] = a;
+    order[b] = sa;
+    rank[sa] = b;
+  }
+
+  public int size() { return order.length; }
+
+  /**
+   * Length last reported for snake.
+   */
+  public int length(int snake) {
+    while (true) {
+      long v = stableVersion();
+      int l = length[snake];
+      VarHandle.loadLoadFence();
+      if (version == v) return l;
+    }
+  }
+
+  /**
+   * Position of snake in the ranking, 0 being the longest.
+   */
+  public int rank(int snake) {
+    while (true) {
+      long v = stableVersion();
+      int r = rank[snake];
+      VarHandle.loadLoadFence();
+      if (version == v) return r;
+    }
+  }
+
+  /**
+   * Index of the longest snake, or -1 without snakes.
+   */
+  public int leader() {
+    if (order.length == 0) return -1;
+    while (true) {
+      long v = stableVersion();
+      int s = order[0];
+      VarHandle.loadLoadFence();
+      if (version == v) return s;
+    }
+  }
+
+  /**
+   * Copies the indices of the dst.length longest snakes (longest first) and their lengths into
+   * lengths (same size as dst, or null). Returns how many were copied.
+   */
+  public int top(int[] dst, int[] lengths) {
+    while (true) {
+      long v = stableVersion();
+      int n = Math.min(dst.length, order.length);
+      for (int i = 0; i < n; i++) {
+        dst[i] = order[i];
+        if (lengths != null) lengths[i] = length[dst[i]];
+      }
+      VarHandle.loadLoadFence();
+      if (version == v) return n;
+    }
+  }
+
+  public int top(int[] dst) { return top(dst, null); }
+
+  /**
+   * Like top() but from the shortest snake up.
+   */
+  public int bottom(int[] dst, int[] lengths) {
+    while (true) {
+      long v = stableVersion();
+      int n = Math.min(dst.length, order.length);
+      for (int i = 0; i < n; i++) {
+        dst[i] = order[order.length - 1 - i];
+        if (lengths != null) lengths[i] = length[dst[i]];
+      }
+      VarHandle.loadLoadFence();
+      if (version == v) return n;
+    }
+  }
+
+  public int bottom(int[] dst) { return bottom(dst, null); }
+
+  private long stableVersion() {
+    long v;
+    while (((v = version) & 1) != 0) Thread.onSpinWait();
+    return v;
+  }
+}
@@ -1,9 +1,34 @@
 package co.eci.snake.core;
 
 public record Position(int x, int y) {
+  /** Largest coordinate that fits in a packed position (16 bits per axis). */
+  public static final int MAX_COORD = 0xFFFF;
+
+  /**
+   * Same position moved onto a width x height board; returns this when it is already inside.
+   */
   public Position wrap(int width, int height) {
+    if (x >= 0 && x < width && y >= 0 && y < height) return this;
     int nx = ((x % width) + width) % width;
     int ny = ((y % height) + height) % height;
     return new Position(nx, ny);
   }
+
+  /**
+   * Wraps a coordinate that is at most one board length out of [0, size), without modulo.
+   */
+  public static int wrapCoord(int v, int size) {
+    if (v < 0) return v + size;
+    return v >= size ? v - size : v;
+  }
+
+  /**
+   * Packs non-negative coordinates up to MAX_COORD into a single int (x in the high half).
+   */
+  public static int pack(int x, int y) { return (x << 16) | (y & 0xFFFF); }
+  public static int unpackX(int packed) { return packed >>> 16; }
+  public static int unpackY(int packed) { return packed & 0xFFFF; }
+  public static Position unpack(int packed) { return new Position(unpackX(packed), unpackY(packed)); }
+
+  public int packed() { return pack(x, y); }
 }
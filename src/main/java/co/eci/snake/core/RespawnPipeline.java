@@ -0,0 +1,242 @@
+package co.eci.snake.core;
+
+import co.eci.snake.core.metrics.LatencyHistogram;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * RespawnPipeline - Reposicion de items fuera del camino caliente de Board.step()
+ *
+ * - step() solo encola el vencimiento del pedido (ahora + delayMillis de la RespawnPolicy) en una
+ *   cola acotada multiproductor: un anillo de long con un numero de secuencia por ranura, sin
+ *   locks ni asignaciones. Con la cola llena el pedido se suma a un contador y se atiende sin demora
+ * - Una etapa en segundo plano (un hilo) atiende los pedidos vencidos en orden con
+ *   Board.respawnAfterMouse (raton, obstaculos y turbo segun la politica). Mientras llegan pedidos
+ *   revisa la cola cada POLL_NANOS sin que nadie la despierte: step() no paga un unpark por raton.
+ *   Tras IDLE_POLLS revisiones vacias se duerme (park) y el siguiente pedido la despierta
+ * - Entre pedidos la etapa muestrea celdas libres candidatas (dentro de las zonas si las hay); al
+ *   reponer prueba primero esas celdas, que claimCell valida de nuevo bajo el lock de su tile, y
+ *   solo si ninguna sigue libre busca otra. Cambiar las zonas descarta las candidatas
+ * - El retraso de cada pedido respecto de su vencimiento queda en un LatencyHistogram
+ * - hold()/release() detienen la etapa mientras se escribe un checkpoint: los pedidos pendientes
+ *   (con la demora que les queda) se guardan junto con el tablero y nada se repone en el medio
+ */
+public final class RespawnPipeline implements AutoCloseable {
+  public static final int DEFAULT_CAPACITY = 4096;
+  private static final int CANDIDATES = 64;
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int IDLE_POLLS = 100;
+  // Tope de cada espera de la etapa dormida (red de seguridad, los pedidos la despiertan con unpark)
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final Board board;
+  // Anillo: la ranura i guarda un vencimiento si sequence[i] == posicion + 1
+  private final long[] dueAt;
+  private final AtomicLongArray sequence;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  // Solo la etapa, bajo stageLock
+  private long head;
+  private final ReentrantLock stageLock = new ReentrantLock();
+  // Pedidos que no entraron en el anillo
+  private final AtomicInteger overflow = new AtomicInteger();
+  private final AtomicLong overflowed = new AtomicLong();
+
+  // Solo la etapa
+  private final int[] candidates = new int[CANDIDATES];
+  private int candidateCount;
+  private final IntSupplier nextCandidate = () -> candidateCount > 0 ? candidates[--candidateCount] : -1;
+  private volatile boolean staleCandidates;
+
+  private final LatencyHistogram lag = new LatencyHistogram();
+  private volatile long served;
+  private final Thread stage;
+  private volatile boolean sleeping;
+  private volatile boolean stopped;
+
+  RespawnPipeline(Board board, int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two");
+    this.board = board;
+    this.dueAt = new long[capacity];
+    this.sequence = new AtomicLongArray(capacity);
+    this.mask = capacity - 1;
+    for (int i = 0; i < capacity; i++) sequence.set(i, i);
+    this.stage = new Thread(this::runStage, "respawn");
+    stage.setDaemon(true);
+    stage.start();
+  }
+
+  /**
+   * Enqueues the respawn that follows an eaten mouse. Called from step(); never blocks.
+   */
+  void request() {
+    long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(board.respawnPolicy().delayMillis());
+    if (!offer(due)) {
+      overflow.incrementAndGet();
+      overflowed.incrementAndGet();
+    }
+    if (sleeping) LockSupport.unpark(stage);
+  }
+
+  private boolean offer(long due) {
+    long t = tail.get();
+    while (true) {
+      int i = (int) t & mask;
+      long s = sequence.get(i);
+      if (s == t) {
+        if (tail.compareAndSet(t, t + 1)) {
+          dueAt[i] = due;
+          // Escritura volatil: junto con sleeping (tambien volatil) ningun pedido queda sin despertar
+          sequence.set(i, t + 1);
+          return true;
+        }
+        t = tail.get();
+      } else if (s < t) {
+        return false;
+      } else {
+        t = tail.get();
+      }
+    }
+  }
+
+  private boolean available() {
+    return sequence.get((int) head & mask) == head + 1;
+  }
+
+  private void runStage() {
+    int idlePolls = 0;
+    while (!stopped) {
+      if (staleCandidates) {
+        staleCandidates = false;
+        candidateCount = 0;
+      }
+      boolean worked = false;
+      stageLock.lock();
+      try {
+        for (int n = overflow.getAndSet(0); n > 0; n--) {
+          serve(System.nanoTime());
+          worked = true;
+        }
+        long now = System.nanoTime();
+        while (available() && dueAt[(int) head & mask] - now <= 0) {
+          long due = dueAt[(int) head & mask];
+          sequence.set((int) head & mask, head + mask + 1);
+          head++;
+          serve(due);
+          worked = true;
+        }
+      } finally {
+        stageLock.unlock();
+      }
+      if (worked) {
+        idlePolls = 0;
+        continue;
+      }
+      refillCandidates();
+
+      long wait = available() ? dueAt[(int) head & mask] - System.nanoTime() : Long.MAX_VALUE;
+      if (++idlePolls < IDLE_POLLS) {
+        if (wait > 0) LockSupport.parkNanos(this, Math.min(wait, POLL_NANOS));
+        continue;
+      }
+      sleeping = true;
+      // Se vuelve a mirar la cola con sleeping ya visible: un pedido publicado antes no se pierde
+      if (overflow.get() == 0) {
+        long next = available() ? dueAt[(int) head & mask] - System.nanoTime() : MAX_PARK_NANOS;
+        if (next > 0) LockSupport.parkNanos(this, Math.min(next, MAX_PARK_NANOS));
+      }
+      sleeping = false;
+    }
+  }
+
+  private void serve(long due) {
+    // Los pedidos que siguen en cola tambien reponen su raton: se les guarda lugar bajo maxItems
+    board.respawnAfterMouse(nextCandidate, Math.max(0, requested() - served - 1));
+    lag.record(Math.max(0, System.nanoTime() - due));
+    served++;
+  }
+
+  private void refillCandidates() {
+    var rnd = ThreadLocalRandom.current();
+    while (candidateCount < CANDIDATES) {
+      int c = board.sampleFreeCell(rnd);
+      if (c < 0) break;
+      candidates[candidateCount++] = c;
+    }
+  }
+
+  /**
+   * Enqueues a respawn due delayNanos from now, e.g. one restored from a checkpoint.
+   */
+  void requestAfter(long delayNanos) {
+    if (!offer(System.nanoTime() + Math.max(0, delayNanos))) {
+      overflow.incrementAndGet();
+      overflowed.incrementAndGet();
+    }
+    if (sleeping) LockSupport.unpark(stage);
+  }
+
+  /**
+   * Stops the stage from serving until release() and returns the remaining delay, in nanoseconds,
+   * of every request not served yet (in queue order). Must be paired with release(). Checkpoints
+   * save these delays together with the board so no eaten mouse is lost or placed twice.
+   */
+  public long[] hold() {
+    stageLock.lock();
+    long now = System.nanoTime();
+    int queued = 0;
+    while (queued <= mask && sequence.get((int) (head + queued) & mask) == head + queued + 1) queued++;
+    // Los desbordados se atienden sin demora: quedan en 0
+    long[] delays = new long[queued + overflow.get()];
+    for (int i = 0; i < queued; i++) delays[i] = Math.max(0, dueAt[(int) (head + i) & mask] - now);
+    return delays;
+  }
+
+  public void release() { stageLock.unlock(); }
+
+  /**
+   * Drops the precomputed candidates (the spawn zones changed).
+   */
+  void discardCandidates() { staleCandidates = true; }
+
+  /**
+   * Respawns requested by step() so far.
+   */
+  public long requested() { return tail.get() + overflowed.get(); }
+
+  /**
+   * Respawns already performed.
+   */
+  public long served() { return served; }
+
+  /**
+   * Requests that found the queue full and were served without delay.
+   */
+  public long overflowed() { return overflowed.get(); }
+
+  /**
+   * Delay between a request's due time and its respawn.
+   */
+  public LatencyHistogram lag() { return lag; }
+
+  /**
+   * One-line summary: requests, respawns, overflows and lag.
+   */
+  public String format() {
+    return String.format("respawn requested=%d served=%d overflowed=%d lag avg=%.1f us p99=%.1f us max=%.1f us",
+        requested(), served(), overflowed(), lag.mean() / 1e3, lag.percentile(0.99) / 1e3, lag.max() / 1e3);
+  }
+
+  @Override
+  public void close() {
+    stopped = true;
+    LockSupport.unpark(stage);
+  }
+}
@@ -0,0 +1,52 @@
+package co.eci.snake.core;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Que aparece en el tablero cada vez que una serpiente se come un raton.
+ *
+ * @param delayMillis       demora entre comer y reponer (solo con RespawnPipeline; el camino
+ *                          sincrono de step() repone en el acto)
+ * @param maxItems          tope de items (ratones, obstaculos y turbo) en el tablero; los ratones
+ *                          tienen prioridad: obstaculos y turbo no ocupan el lugar de los ratones
+ *                          que todavia faltan reponer
+ * @param obstaclesPerMouse obstaculos nuevos por raton comido; la parte fraccionaria es la
+ *                          probabilidad de uno mas (0 detiene el crecimiento)
+ * @param turboChance       probabilidad de que aparezca un turbo
+ */
+public record RespawnPolicy(long delayMillis, int maxItems, double obstaclesPerMouse, double turboChance) {
+  /** Lo que hacia step() siempre: un raton, un obstaculo y turbo con probabilidad 0.2, sin tope. */
+  public static final RespawnPolicy DEFAULT = new RespawnPolicy(0, Integer.MAX_VALUE, 1.0, 0.2);
+
+  public RespawnPolicy {
+    if (delayMillis < 0) throw new IllegalArgumentException("delay must be >= 0");
+    if (maxItems < 0) throw new IllegalArgumentException("maxItems must be >= 0");
+    if (!(obstaclesPerMouse >= 0)) throw new IllegalArgumentException("obstaclesPerMouse must be >= 0");
+    if (!(turboChance >= 0 && turboChance <= 1)) throw new IllegalArgumentException("turboChance must be in [0, 1]");
+  }
+
+  /**
+   * Number of obstacles to spawn for one eaten mouse. Draws from rnd only when the rate has a
+   * fractional part, so whole rates keep seeded boards on the same random sequence.
+   */
+  public int obstaclesAfterMouse(RandomGenerator rnd) {
+    int whole = (int) Math.min(Integer.MAX_VALUE, (long) obstaclesPerMouse);
+    double fraction = obstaclesPerMouse - whole;
+    return fraction > 0 && rnd.nextDouble() < fraction ? whole + 1 : whole;
+  }
+
+  /**
+   * Parses DELAY_MS[:MAX_ITEMS[:OBSTACLES_PER_MOUSE[:TURBO_CHANCE]]]; missing parts keep the
+   * default. Null means DEFAULT.
+   */
+  public static RespawnPolicy parse(String spec) {
+    if (spec == null) return DEFAULT;
+    String[] v = spec.split(":");
+    if (v.length > 4) throw new IllegalArgumentException("respawn must be DELAY[:MAX[:OBSTACLES[:TURBO]]]: " + spec);
+    return new RespawnPolicy(
+        Long.parseLong(v[0].trim()),
+        v.length > 1 ? Integer.parseInt(v[1].trim()) : DEFAULT.maxItems,
+        v.length > 2 ? Double.parseDouble(v[2].trim()) : DEFAULT.obstaclesPerMouse,
+        v.length > 3 ? Double.parseDouble(v[3].trim()) : DEFAULT.turboChance);
+  }
+}
@@ -1,20 +1,76 @@
 package co.eci.snake.core;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Snake - Cuerpo de la serpiente sin asignaciones en el camino caliente
+ *
+ * - El cuerpo es un ring buffer int[] de posiciones empaquetadas (Position.pack); la cabeza
+ *   se inserta al frente y la cola se descarta sin crear objetos
+ * - La capacidad crece en potencias de dos segun maxLength (nunca por cada movimiento)
+ * - occupies(x,y) responde en O(1) mediante un CellMultiset de las celdas del cuerpo
+ * - Lectura sin copia con forEachSegment(); copySegments() usa un contador de version
+ *   (seqlock) para obtener una copia consistente mientras el hilo de la serpiente avanza
+ * - id() unico y positivo (orden de creacion): Board lo usa como duenio de las celdas ocupadas
+ * - Las serpientes de un tablero con otra codificacion de celdas (ChunkedBoard) llevan su CellCodec:
+ *   head(), occupies() y forEachSegment() decodifican con el y no con Position
+ */
 public final class Snake {
-  private final Deque<Position> body = new ArrayDeque<>();
+  private static final int INITIAL_CAPACITY = 8;
+  private static final AtomicInteger IDS = new AtomicInteger();
+
+  private final int id = IDS.incrementAndGet();
+
+  private int[] ring = new int[INITIAL_CAPACITY];
+  private int headIdx;
+  private int size;
+  private final CellMultiset cells = new CellMultiset(INITIAL_CAPACITY);
+  // Impar mientras advance() modifica el cuerpo
+  private volatile long version;
   private volatile Direction direction;
   private int maxLength = 5;
-  
-  private Snake(Position start, Direction dir) {
-    body.addFirst(start);
+  // null -> celdas Position.pack
+  private final CellCodec codec;
+
+  private Snake(int cell, Direction dir, CellCodec codec) {
+    ring[0] = cell;
+    size = 1;
+    cells.add(cell);
     this.direction = dir;
+    this.codec = codec;
   }
 
   public static Snake of(int x, int y, Direction dir) {
-    return new Snake(new Position(x, y), dir);
+    return new Snake(new Position(x, y).packed(), dir, null);
+  }
+
+  /**
+   * Starts a one-segment snake on a cell encoded by codec rather than by Position.pack, e.g. a
+   * ChunkedBoard cell. head(), occupies() and forEachSegment() decode through codec; the packed
+   * accessors (headPacked(), copySegments(), advance(int, boolean)) keep the codec's cells.
+   */
+  public static Snake at(int cell, Direction dir, CellCodec codec) {
+    return new Snake(cell, dir, Objects.requireNonNull(codec, "codec"));
+  }
+
+  /**
+   * Rebuilds a snake from a saved body (packed cells, head first).
+   */
+  public static Snake restore(Direction dir, int maxLength, int[] body, int length) {
+    if (length <= 0) throw new IllegalArgumentException("snake without body");
+    var snake = new Snake(body[0], dir, null);
+    snake.maxLength = Math.max(maxLength, length);
+    snake.ensureCapacity(snake.maxLength + 1);
+    for (int i = 1; i < length; i++) {
+      snake.ring[i] = body[i];
+      snake.cells.add(body[i]);
+    }
+    snake.size = length;
+    return snake;
   }
 
   public Direction direction() { return direction; }
@@ -29,21 +85,158 @@ public final class Snake {
     this.direction = dir;
   }
 
-  public Position head() { return body.peekFirst(); }
+  public Position head() { return position(headPacked()); }
+
+  public int headPacked() { return ring[headIdx]; }
+
+  public int tailPacked() { return ring[(headIdx + size - 1) & (ring.length - 1)]; }
 
-  public Deque<Position> snapshot() { return new ArrayDeque<>(body); }
+  public Deque<Position> snapshot() {
+    var copy = new ArrayDeque<Position>(size);
+    forEachSegment((i, x, y) -> copy.addLast(new Position(x, y)));
+    return copy;
+  }
+
+  /**
+   * Visits the body from head to tail without copying it. Intended for the owner thread or for
+   * readers that tolerate a frame mixing two consecutive moves; see copySegments() otherwise.
+   */
+  public void forEachSegment(SegmentConsumer consumer) {
+    int[] r = ring;
+    int m = r.length - 1;
+    int h = headIdx;
+    int n = Math.min(size, r.length);
+    for (int i = 0; i < n; i++) {
+      int p = r[(h + i) & m];
+      if (codec == null) consumer.accept(i, Position.unpackX(p), Position.unpackY(p));
+      else consumer.accept(i, codec.x(p), codec.y(p));
+    }
+  }
+
+  /**
+   * Copies up to dst.length packed segments (head first) into dst and returns how many were copied.
+   * The copy is consistent: it retries if advance() ran concurrently.
+   */
+  public int copySegments(int[] dst) {
+    while (true) {
+      long v = version;
+      if ((v & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      int[] r = ring;
+      int m = r.length - 1;
+      int h = headIdx;
+      int n = Math.min(Math.min(size, r.length), dst.length);
+      for (int i = 0; i < n; i++) dst[i] = r[(h + i) & m];
+      VarHandle.loadLoadFence();
+      if (version == v) return n;
+    }
+  }
+
+  /**
+   * True if any body segment lies on (x, y).
+   */
+  public boolean occupies(int x, int y) {
+    if (codec == null) return cells.contains(Position.pack(x, y));
+    int cell = codec.cell(x, y);
+    return cell >= 0 && cells.contains(cell);
+  }
 
-  public void advance(Position newHead, boolean grow) {
-    body.addFirst(newHead);
+  /**
+   * Pushes the new head and trims the tail. Returns the removed tail cell, or null if none was removed.
+   */
+  public Position advance(Position newHead, boolean grow) {
+    int head;
+    if (codec == null) {
+      head = newHead.packed();
+    } else {
+      head = codec.cell(newHead.x(), newHead.y());
+      if (head < 0) throw new IllegalArgumentException("not a cell of this snake's board: " + newHead);
+    }
+    // La cola se decodifica antes: su celda puede dejar de existir al soltarla
+    var tail = position(tailPacked());
+    return advance(head, grow) ? tail : null;
+  }
+
+  /**
+   * Allocation-free variant of advance(Position, boolean). Returns true if the tail cell
+   * (tailPacked() before the call) was dropped.
+   */
+  public boolean advance(int packedHead, boolean grow) {
+    long v = version;
+    version = v + 1;
+    VarHandle.storeStoreFence();
     if (grow) maxLength++;
-    while (body.size() > maxLength) body.removeLast();
+    ensureCapacity(maxLength + 1);
+    headIdx = (headIdx - 1) & (ring.length - 1);
+    ring[headIdx] = packedHead;
+    size++;
+    cells.add(packedHead);
+    boolean dropped = false;
+    while (size > maxLength) {
+      cells.remove(ring[(headIdx + size - 1) & (ring.length - 1)]);
+      size--;
+      dropped = true;
+    }
+    version = v + 2;
+    return dropped;
   }
+
+  private void ensureCapacity(int needed) {
+    if (needed <= ring.length) return;
+    int cap = ring.length;
+    while (cap < needed) cap <<= 1;
+    int[] grown = new int[cap];
+    int m = ring.length - 1;
+    for (int i = 0; i < size; i++) grown[i] = ring[(headIdx + i) & m];
+    ring = grown;
+    headIdx = 0;
+    cells.ensureCapacity(cap);
+  }
+
   public int length() {
-    return body.size();
+    return size;
+  }
+
+  public int maxLength() {
+    return maxLength;
   }
+
+  /**
+   * Modification counter; even when the body is stable, odd while advance() is running.
+   */
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Unique, positive id assigned in creation order.
+   */
   public int id() {
-    return System.identityHashCode(this);
+    return id;
+  }
+
+  private Position position(int cell) {
+    return codec == null ? Position.unpack(cell) : new Position(codec.x(cell), codec.y(cell));
   }
 
+  /**
+   * Cell encoding of a board whose cells are not Position.pack.
+   */
+  public interface CellCodec {
+    int x(int cell);
 
+    int y(int cell);
+
+    /**
+     * Cell at (x, y), or -1 if no snake segment can be there.
+     */
+    int cell(int x, int y);
+  }
+
+  @FunctionalInterface
+  public interface SegmentConsumer {
+    void accept(int index, int x, int y);
+  }
 }
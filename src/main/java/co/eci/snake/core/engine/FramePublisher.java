@@ -0,0 +1,123 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Snake;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * FramePublisher - Publica un FrameSnapshot por tick usando tres buffers reutilizables
+ *
+ * - publish() (un solo hilo escritor, el del reloj) elige un buffer que no sea el actual ni este
+ *   siendo leido, lo marca como ocupado (refs 0 -> -1), lo llena y lo publica con una escritura volatil
+ * - acquire()/release() cuentan lectores con CAS sobre refs; la simulacion nunca espera a un lector
+ * - Con tres buffers siempre hay uno libre mientras haya a lo sumo un frame retenido por lectores
+ *   ademas del actual; si no lo hay el frame se descarta (droppedFrames)
+ */
+public final class FramePublisher {
+  private static final int BUFFERS = 3;
+
+  private final Board board;
+  private final FrameSnapshot[] buffers = new FrameSnapshot[BUFFERS];
+  private volatile FrameSnapshot current;
+  private long sequence;
+  private volatile long droppedFrames;
+
+  public FramePublisher(Board board) {
+    this.board = board;
+    int[] teleports = board.teleportCells();
+    for (int i = 0; i < BUFFERS; i++) {
+      buffers[i] = new FrameSnapshot(board.width(), board.height(), board.itemWords(), teleports);
+    }
+  }
+
+  /**
+   * Captures the board and the snakes into a free buffer and makes it the current frame.
+   * Must be called from a single thread. Returns false if every spare buffer was in use.
+   */
+  public boolean publish(long tick, List<Snake> snakes) {
+    FrameSnapshot target = null;
+    FrameSnapshot cur = current;
+    for (FrameSnapshot f : buffers) {
+      if (f != cur && f.refs.compareAndSet(0, -1)) {
+        target = f;
+        break;
+      }
+    }
+    if (target == null) {
+      droppedFrames++;
+      return false;
+    }
+    fill(target, tick, snakes);
+    target.refs.set(0);
+    current = target;
+    return true;
+  }
+
+  /**
+   * Returns the latest frame with a read reference held, or null if nothing was published yet.
+   * Every non-null result must be handed back through release().
+   */
+  public FrameSnapshot acquire() {
+    while (true) {
+      FrameSnapshot f = current;
+      if (f == null) return null;
+      int r = f.refs.get();
+      // r < 0: el publicador lo esta reescribiendo, ya no es el actual
+      if (r >= 0 && f.refs.compareAndSet(r, r + 1)) return f;
+      Thread.onSpinWait();
+    }
+  }
+
+  public void release(FrameSnapshot frame) {
+    frame.refs.decrementAndGet();
+  }
+
+  /**
+   * Runs reader on the latest frame (if any) while holding it.
+   */
+  public void read(Consumer<FrameSnapshot> reader) {
+    FrameSnapshot f = acquire();
+    if (f == null) return;
+    try {
+      reader.accept(f);
+    } finally {
+      release(f);
+    }
+  }
+
+  /**
+   * Publications skipped because readers held every spare buffer.
+   */
+  public long droppedFrames() { return droppedFrames; }
+
+  private void fill(FrameSnapshot f, long tick, List<Snake> snakes) {
+    // La version se lee antes de copiar: un obstaculo nuevo a mitad de copia fuerza otra invalidacion
+    f.obstacleVersion = board.obstacleVersion();
+    board.copyItems(f.mice, f.obstacles, f.turbo);
+    int n = snakes.size();
+    if (f.bodies.length < n) {
+      f.bodies = Arrays.copyOf(f.bodies, n);
+      f.lengths = Arrays.copyOf(f.lengths, n);
+      f.directions = Arrays.copyOf(f.directions, n);
+    }
+    for (int i = 0; i < n; i++) {
+      Snake s = snakes.get(i);
+      int[] body = f.bodies[i];
+      if (body == null || body.length <= s.maxLength()) body = f.bodies[i] = new int[Integer.highestOneBit(s.maxLength() + 1) << 1];
+      int len = s.copySegments(body);
+      // Crecio mientras se copiaba: se repite con un arreglo mayor
+      while (len == body.length) {
+        body = f.bodies[i] = new int[body.length << 1];
+        len = s.copySegments(body);
+      }
+      f.lengths[i] = len;
+      f.directions[i] = (byte) s.direction().ordinal();
+    }
+    f.snakeCount = n;
+    f.tick = tick;
+    f.sequence = ++sequence;
+  }
+}
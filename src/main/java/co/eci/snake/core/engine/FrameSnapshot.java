@@ -0,0 +1,145 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * FrameSnapshot - Fotografia compacta del estado del juego al final de un tick
+ *
+ * - Bitmaps de items (64 celdas por long, indexadas y*width + x), teleports y cuerpos de las
+ *   serpientes como arreglos primitivos: sin Position ni colecciones por frame
+ * - Inmutable para los lectores mientras lo tengan adquirido: FramePublisher solo reescribe
+ *   un buffer cuando nadie lo esta leyendo (refs == 0)
+ * - Los arreglos se reutilizan entre frames y solo crecen cuando una serpiente se alarga
+ */
+public final class FrameSnapshot {
+  /** Item layers stored in a frame. */
+  public enum Layer { MICE, OBSTACLES, TURBO }
+
+  // > 0 lectores activos, 0 libre, -1 siendo escrito por el publicador
+  final AtomicInteger refs = new AtomicInteger();
+
+  final int width;
+  final int height;
+  final int[] teleports;
+  final long[] mice;
+  final long[] obstacles;
+  final long[] turbo;
+  long tick;
+  long sequence;
+  long obstacleVersion;
+  int snakeCount;
+  int[][] bodies = new int[0][];
+  int[] lengths = new int[0];
+  byte[] directions = new byte[0];
+
+  FrameSnapshot(int width, int height, int words, int[] teleports) {
+    this.width = width;
+    this.height = height;
+    this.teleports = teleports;
+    this.mice = new long[words];
+    this.obstacles = new long[words];
+    this.turbo = new long[words];
+  }
+
+  public int width() { return width; }
+  public int height() { return height; }
+
+  /**
+   * Simulation tick the frame was captured after.
+   */
+  public long tick() { return tick; }
+
+  /**
+   * Publication number, strictly increasing across frames of the same publisher.
+   */
+  public long sequence() { return sequence; }
+
+  /**
+   * Board.obstacleVersion() when the frame was captured; static layers only change with it.
+   */
+  public long obstacleVersion() { return obstacleVersion; }
+
+  public boolean contains(Layer layer, int x, int y) {
+    int cell = y * width + x;
+    return (words(layer)[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  /**
+   * Visits the cells (y*width + x) of the layer in ascending order.
+   */
+  public void forEachCell(Layer layer, IntConsumer consumer) {
+    long[] w = words(layer);
+    for (int i = 0; i < w.length; i++) {
+      long word = w[i];
+      while (word != 0) {
+        consumer.accept((i << 6) + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+  }
+
+  /**
+   * Copies the bitmap of the layer (64 cells per long) into dst.
+   */
+  public void copyWords(Layer layer, long[] dst) {
+    long[] w = words(layer);
+    System.arraycopy(w, 0, dst, 0, w.length);
+  }
+
+  /**
+   * Length of the arrays expected by copyWords().
+   */
+  public int wordCount() { return mice.length; }
+
+  public int count(Layer layer) {
+    int n = 0;
+    for (long word : words(layer)) n += Long.bitCount(word);
+    return n;
+  }
+
+  public int teleportCount() { return teleports.length / 2; }
+
+  /**
+   * Entry cell (y*width + x) of the i-th teleport.
+   */
+  public int teleportFrom(int i) { return teleports[2 * i]; }
+
+  /**
+   * Exit cell (y*width + x) of the i-th teleport.
+   */
+  public int teleportTo(int i) { return teleports[2 * i + 1]; }
+
+  public int snakeCount() { return snakeCount; }
+
+  public int snakeLength(int snake) { return lengths[snake]; }
+
+  public Direction snakeDirection(int snake) { return Direction.of(directions[snake]); }
+
+  /**
+   * Packed position (Position.pack) of the given segment, 0 being the head.
+   */
+  public int segment(int snake, int index) { return bodies[snake][index]; }
+
+  /**
+   * Visits the body of a snake from head to tail.
+   */
+  public void forEachSegment(int snake, Snake.SegmentConsumer consumer) {
+    int[] body = bodies[snake];
+    for (int i = 0, n = lengths[snake]; i < n; i++) {
+      consumer.accept(i, Position.unpackX(body[i]), Position.unpackY(body[i]));
+    }
+  }
+
+  private long[] words(Layer layer) {
+    return switch (layer) {
+      case MICE -> mice;
+      case OBSTACLES -> obstacles;
+      case TURBO -> turbo;
+    };
+  }
+}
@@ -1,20 +1,40 @@
 package co.eci.snake.core.engine;
 
 import co.eci.snake.core.GameState;
+import co.eci.snake.core.metrics.EngineEvents;
+import co.eci.snake.core.metrics.EngineMetrics;
+import co.eci.snake.core.metrics.LatencyHistogram;
 
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.List;
 
+/**
+ * GameClock - Reloj de paso fijo del motor
+ *
+ * - Un hilo planificador dispara el callback y avisa a los GameClockListener en cada tick
+ * - En pausa el bucle de ticks se detiene en lugar de despertar en cada periodo para nada;
+ *   resume() arranca uno nuevo alineado al momento de reanudar
+ */
 public final class GameClock implements AutoCloseable {
+  /** Late ticks run back to back before the clock gives up and skips ahead. */
+  public static final int MAX_CATCH_UP = 5;
+
   private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
   private final long periodMillis;
   private final Runnable tick;
   private final java.util.concurrent.atomic.AtomicReference<GameState> state = new AtomicReference<>(GameState.STOPPED);
   private final List<GameClockListener> listeners = new CopyOnWriteArrayList<>();
+  private final AtomicLong ticks = new AtomicLong();
+  private final LatencyHistogram jitter = new LatencyHistogram();
+  private final LatencyHistogram fanOut = new LatencyHistogram();
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile int run;
 
   public GameClock(long periodMillis, Runnable tick) {
     if (periodMillis <= 0)
@@ -25,22 +45,79 @@ public final class GameClock implements AutoCloseable {
 
   public void start() {
     if (state.compareAndSet(GameState.STOPPED, GameState.RUNNING)) {
-      scheduler.scheduleAtFixedRate(() -> {
-        if (state.get() == GameState.RUNNING) {
-          tick.run();
-          notifyListeners();
-        }
-      }, 0, periodMillis, TimeUnit.MILLISECONDS);
+      long period = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+      scheduleNext(++run, System.nanoTime(), 0, period);
+    }
+  }
+
+  /**
+   * Paso fijo con compensacion de deriva: el tick n vence en origin + n * period, sin importar
+   * cuanto tardo el anterior. Si el reloj se atrasa se recuperan hasta MAX_CATCH_UP ticks
+   * seguidos; un atraso mayor descarta los ticks vencidos y se realinea al siguiente periodo.
+   */
+  private void scheduleNext(int run, long origin, long n, long period) {
+    long delay = origin + n * period - System.nanoTime();
+    try {
+      scheduler.schedule(() -> fire(run, origin, n, period), Math.max(0, delay), TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException closed) {
+      // close() ya apago el planificador
     }
   }
 
+  private void fire(int run, long origin, long n, long period) {
+    long expected = origin + n * period;
+    // Un stop() seguido de start(), o un resume(), deja obsoleto el bucle anterior; en pausa se detiene
+    if (run != this.run || state.get() != GameState.RUNNING) return;
+    long t0 = System.nanoTime();
+    tick.run();
+    notifyListeners();
+    long t1 = System.nanoTime();
+    long count = ticks.incrementAndGet();
+    if (EngineMetrics.ENABLED) {
+      jitter.record(t0 - expected);
+      fanOut.record(t1 - t0);
+      EngineEvents.tick(count, t0 - expected, t1 - t0);
+    }
+    long next = n + 1;
+    long behind = (System.nanoTime() - origin) / period - next;
+    if (behind > MAX_CATCH_UP) {
+      dropped.addAndGet(behind);
+      next += behind;
+    }
+    scheduleNext(run, origin, next, period);
+  }
+
+  /**
+   * Ticks delivered so far (paused periods do not count).
+   */
+  public long ticks() { return ticks.get(); }
+
+  /**
+   * Delay between the scheduled and the actual start of each tick.
+   */
+  public LatencyHistogram jitter() { return jitter; }
+
+  /**
+   * Time spent running the tick callback and notifying every listener.
+   */
+  public LatencyHistogram fanOut() { return fanOut; }
+
+  /**
+   * Ticks skipped because the clock fell more than MAX_CATCH_UP periods behind.
+   */
+  public long droppedTicks() { return dropped.get(); }
+
   public void pause() {
-    state.set(GameState.PAUSED);
+    state.compareAndSet(GameState.RUNNING, GameState.PAUSED);
     listeners.forEach(GameClockListener::onPause);
   }
 
   public void resume() {
-    state.set(GameState.RUNNING);
+    if (state.compareAndSet(GameState.PAUSED, GameState.RUNNING)) {
+      long period = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+      // El primer tick llega un periodo despues de reanudar, no de inmediato
+      scheduleNext(++run, System.nanoTime(), 1, period);
+    }
     listeners.forEach(GameClockListener::onResume);
   }
 
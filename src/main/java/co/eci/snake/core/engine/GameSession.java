@@ -0,0 +1,456 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.concurrency.BatchTickScheduler;
+import co.eci.snake.concurrency.PhasedTickScheduler;
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.concurrency.WheelTickScheduler;
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Leaderboard;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+import co.eci.snake.core.events.EventRing;
+import co.eci.snake.core.events.WaitStrategy;
+import co.eci.snake.core.metrics.EngineMetrics;
+import co.eci.snake.core.steering.DistanceField;
+import co.eci.snake.core.steering.GoalSeekingSteering;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * GameSession - Motor de juego independiente de Swing
+ *
+ * Es duenio del Board, de las serpientes, de sus SnakeRunner y del GameClock.
+ * La UI legacy y el modo headless comparten este mismo cableado:
+ * - start() lanza un hilo virtual por SnakeRunner y arranca el reloj
+ * - runHeadless() avanza la simulacion en el hilo llamador tan rapido como sea posible
+ *
+ * Modo determinista (SessionConfig.seed != null):
+ * - Board y cada SnakeRunner reciben un SplittableRandom derivado de la semilla
+ * - No hay un hilo por serpiente: cada tick mueve todas las serpientes en orden fijo
+ * - Los giros externos (turn) se encolan, se aplican al inicio del siguiente tick y quedan
+ *   registrados en un InputJournal que Replay puede re-ejecutar
+ *
+ * Modo por fases (Scheduler.PHASED): un hilo virtual por serpiente, pero en lugar del esquema
+ * hibrido wait/notify de SnakeRunner un PhasedTickScheduler las mueve a todas exactamente una vez
+ * por tick del reloj; pausar y reanudar solo cambian el estado del GameClock
+ *
+ * Modo por lotes (Scheduler.BATCH): sin hilo por serpiente; cada tick (del reloj o de runHeadless)
+ * un BatchTickScheduler mueve lotes de serpientes en paralelo en un ForkJoinPool
+ *
+ * Modo rueda (Scheduler.WHEEL): sin hilo por serpiente; un WheelTickScheduler mueve cada serpiente
+ * a su propia velocidad (SnakeRunner.moveIntervalNanos) desde un hilo con una TimingWheel. En
+ * runHeadless cada tick avanza la rueda un periodo del reloj en tiempo virtual
+ *
+ * Con Steering.SEEK todas las serpientes comparten un DistanceField del tablero y van hacia el
+ * raton mas cercano (GoalSeekingSteering)
+ *
+ * Tras cada tick del reloj se publica un FrameSnapshot (frames()): la UI lee solo ese frame
+ * consistente en lugar de los conjuntos vivos del Board.
+ *
+ * enableEvents() publica ademas cada MoveResult y cada item que aparece en un EventRing, para
+ * consumidores (puntajes, logs, red) que corren fuera del hilo que mueve las serpientes.
+ *
+ * Fuera del modo determinista los items que siguen a cada raton comido los repone un
+ * RespawnPipeline en segundo plano (Board.startRespawnPipeline) segun la RespawnPolicy del Board.
+ * Su hilo arranca con start() o runHeadless() y termina con close(); una sesion que nunca corre no
+ * lo crea
+ *
+ * leaderboard() ordena las serpientes por longitud; los runners lo actualizan al crecer, asi que
+ * leer el top o el rango de una serpiente no recorre ni ordena la lista.
+ */
+public final class GameSession implements AutoCloseable {
+  public static final int DEFAULT_WIDTH = 35;
+  public static final int DEFAULT_HEIGHT = 28;
+  public static final long DEFAULT_TICK_MILLIS = 60;
+  private static final AtomicLong SESSION_IDS = new AtomicLong();
+
+  private final SessionConfig config;
+  private final Board board;
+  private final List<Snake> snakes = new CopyOnWriteArrayList<>();
+  private final List<SnakeRunner> runners = new CopyOnWriteArrayList<>();
+  private final GameClock clock;
+  private final Runnable onTick;
+  private final FramePublisher frames;
+  private final EngineMetrics metrics;
+  // Ranking por longitud que los runners actualizan al crecer
+  private final Leaderboard leaderboard;
+  // Segun SessionConfig.scheduler fuera del modo determinista; si no, null
+  private final PhasedTickScheduler phases;
+  private final BatchTickScheduler batches;
+  private final WheelTickScheduler wheel;
+  // Solo con Steering.SEEK; si no, null
+  private final DistanceField distanceField;
+  // Solo tras enableEvents(); si no, null
+  private volatile EventRing events;
+  // Ticks del reloj (en modo con hilos tick() no se llama y tickCount no avanza)
+  private long clockTicks;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private volatile ExecutorService exec;
+  private volatile long tickCount;
+  private volatile boolean closed;
+  // Giros pendientes del modo determinista, empaquetados como snake << 2 | direccion, en un anillo
+  // de int (potencia de dos) que solo crece si se acumulan mas giros que su capacidad en un tick
+  private final Object turnLock = new Object();
+  private int[] pendingTurns = new int[64];
+  private int turnHead;
+  private int turnCount;
+  private final InputJournal journal;
+
+  public GameSession(int width, int height, int snakeCount, long tickMillis, Runnable onTick) {
+    this(new SessionConfig(width, height, snakeCount, tickMillis, 0, null), onTick);
+  }
+
+  public GameSession(int snakeCount) {
+    this(SessionConfig.defaults(snakeCount), () -> {});
+  }
+
+  public GameSession(SessionConfig config, Runnable onTick) {
+    this(config, onTick, 0, rng -> randomWorld(config, rng));
+  }
+
+  /**
+   * Builds a session around an existing world (restored snapshot, loaded level...). The factory
+   * receives the board's random generator (null when not deterministic). Deterministic sessions
+   * started after tick 0 are reproducible from that point on but keep no journal.
+   */
+  GameSession(SessionConfig config, Runnable onTick, long startTick, Function<RandomGenerator, World> worldFactory) {
+    this(config, onTick, startTick, worldFactory, startTick == 0);
+  }
+
+  /**
+   * Like the constructor above, but journaled says whether a deterministic session records an
+   * InputJournal. Only worlds that Replay can rebuild from the config alone may be journaled.
+   */
+  GameSession(SessionConfig config, Runnable onTick, long startTick, Function<RandomGenerator, World> worldFactory,
+              boolean journaled) {
+    this.config = config;
+    SplittableRandom master = null;
+    if (config.deterministic()) {
+      master = new SplittableRandom(startTick == 0 ? config.seed() : config.seed() + startTick * 0x9E3779B97F4A7C15L);
+    }
+    var world = worldFactory.apply(master == null ? null : master.split());
+    this.board = world.board();
+    snakes.addAll(world.snakes());
+    this.tickCount = startTick;
+    this.onTick = Objects.requireNonNull(onTick, "onTick");
+    this.frames = new FramePublisher(board);
+    this.clock = new GameClock(config.tickMillis(), this::onClockTick);
+    this.metrics = new EngineMetrics(board, Collections.unmodifiableList(runners), clock);
+    this.distanceField = config.steering() == SessionConfig.Steering.SEEK ? new DistanceField(board) : null;
+    var seek = distanceField == null ? null : new GoalSeekingSteering(distanceField);
+    this.leaderboard = new Leaderboard(snakes.size());
+    for (int i = 0; i < snakes.size(); i++) {
+      SnakeRunner runner = new SnakeRunner(snakes.get(i), board, master == null ? null : master.split());
+      if (world.turboTicks() != null) runner.restoreTurbo(world.turboTicks()[i]);
+      if (world.slowTicks() != null) runner.restoreSlow(world.slowTicks()[i]);
+      if (seek != null) runner.steering(seek);
+      runner.rankIn(leaderboard, i);
+      runners.add(runner);
+      if (master == null && config.scheduler() == SessionConfig.Scheduler.HYBRID) clock.addListener(runner);
+    }
+    if (master != null) {
+      // Orden fijo por tick en el hilo del reloj (onClockTick) en lugar de un hilo por serpiente
+      this.journal = journaled ? new InputJournal(config) : null;
+    } else {
+      this.journal = null;
+    }
+    var scheduler = master == null ? config.scheduler() : null;
+    this.phases = scheduler == SessionConfig.Scheduler.PHASED ? new PhasedTickScheduler(runners) : null;
+    this.batches = scheduler == SessionConfig.Scheduler.BATCH ? new BatchTickScheduler(runners, board) : null;
+    this.wheel = scheduler == SessionConfig.Scheduler.WHEEL ? new WheelTickScheduler(runners) : null;
+    if (wheel != null) clock.addListener(wheel);
+    frames.publish(tickCount, snakes);
+  }
+
+  private static World randomWorld(SessionConfig config, RandomGenerator rng) {
+    int width = config.width(), height = config.height();
+    var board = new Board(width, height, config.tileSize(), rng);
+    var snakes = new ArrayList<Snake>();
+    int cells = width * height;
+    for (int i = 0; i < config.snakes(); i++) {
+      var start = new Position(2 + (i * 3) % width, 2 + (i * 2) % height).wrap(width, height);
+      // Con choques, dos serpientes en la misma celda se bloquean: se corre a la siguiente libre
+      int c = start.y() * width + start.x();
+      for (int k = 0; k < cells && board.occupant(c) != 0; k++) c = (c + 1) % cells;
+      var dir = Direction.of(i % Direction.count());
+      var snake = Snake.of(c % width, c / width, dir);
+      board.place(snake);
+      snakes.add(snake);
+    }
+    return new World(board, snakes, null);
+  }
+
+  /**
+   * Board plus placed snakes to run a session on; turboTicks and slowTicks may be null.
+   */
+  record World(Board board, List<Snake> snakes, int[] turboTicks, int[] slowTicks) {
+    World(Board board, List<Snake> snakes, int[] turboTicks) {
+      this(board, snakes, turboTicks, null);
+    }
+  }
+
+  public Board board() { return board; }
+  public List<Snake> snakes() { return Collections.unmodifiableList(snakes); }
+  public List<SnakeRunner> runners() { return Collections.unmodifiableList(runners); }
+  public GameClock clock() { return clock; }
+
+  /**
+   * Frames published after every clock tick; renderers should read the game state only from here.
+   */
+  public FramePublisher frames() { return frames; }
+
+  /**
+   * Latency, lock and clock metrics of this session; exported over JMX while it is started.
+   */
+  public EngineMetrics metrics() { return metrics; }
+  public SessionConfig config() { return config; }
+
+  /**
+   * Snakes ranked by length, kept up to date by the runners (indices follow snakes()).
+   */
+  public Leaderboard leaderboard() { return leaderboard; }
+
+  /**
+   * Ring the engine publishes its events to, or null when enableEvents() was not called.
+   */
+  public EventRing events() { return events; }
+
+  /**
+   * Makes the board and every runner publish their events to a new ring of the given capacity
+   * (a power of two). Must be called before start(); later calls return the same ring.
+   */
+  public synchronized EventRing enableEvents(int capacity, WaitStrategy wait) {
+    if (events != null) return events;
+    if (started.get()) throw new IllegalStateException("enableEvents() must be called before start()");
+    var ring = new EventRing(capacity, wait);
+    board.events(ring);
+    for (int i = 0; i < runners.size(); i++) runners.get(i).publishTo(ring, i);
+    events = ring;
+    return ring;
+  }
+
+  /**
+   * Ticks executed through tick() so far.
+   */
+  public long tickCount() { return tickCount; }
+
+  /**
+   * Journal of the turns applied so far, or null when the session is not deterministic
+   * or did not start at tick 0.
+   */
+  public InputJournal journal() { return journal; }
+
+  /**
+   * Starts the game clock and, unless the session is deterministic, one virtual thread per
+   * SnakeRunner (or per phased worker, or one for the timing wheel). Only the first call has effect.
+   */
+  public void start() {
+    if (!started.compareAndSet(false, true)) return;
+    metrics.register("session-" + SESSION_IDS.incrementAndGet());
+    if (phases != null) {
+      exec = Executors.newVirtualThreadPerTaskExecutor();
+      for (int i = 0; i < phases.runnerCount(); i++) {
+        exec.submit(phases.worker(i));
+      }
+    } else if (wheel != null) {
+      exec = Executors.newVirtualThreadPerTaskExecutor();
+      exec.submit(wheel);
+    } else if (!config.deterministic() && batches == null) {
+      exec = Executors.newVirtualThreadPerTaskExecutor();
+      for (SnakeRunner runner : runners) {
+        exec.submit(runner);
+      }
+    }
+    // Sin semilla step() no repone items: los repone la etapa del RespawnPipeline
+    if (!config.deterministic()) board.startRespawnPipeline();
+    clock.start();
+  }
+
+  /**
+   * Turns a snake. Deterministic sessions queue the turn for the next tick and journal it;
+   * otherwise it is applied right away.
+   */
+  public void turn(int snakeIndex, Direction dir) {
+    Objects.checkIndex(snakeIndex, snakes.size());
+    Objects.requireNonNull(dir, "dir");
+    if (!config.deterministic()) {
+      snakes.get(snakeIndex).turn(dir);
+      return;
+    }
+    synchronized (turnLock) {
+      if (turnCount == pendingTurns.length) {
+        int[] grown = new int[pendingTurns.length << 1];
+        for (int i = 0; i < turnCount; i++) grown[i] = pendingTurns[(turnHead + i) & (pendingTurns.length - 1)];
+        pendingTurns = grown;
+        turnHead = 0;
+      }
+      pendingTurns[(turnHead + turnCount++) & (pendingTurns.length - 1)] = snakeIndex << 2 | dir.ordinal();
+    }
+  }
+
+  private void onClockTick() {
+    long t;
+    if (config.deterministic() || batches != null) {
+      tick();
+      t = tickCount;
+    } else if (phases != null) {
+      if (!phases.runTick()) return;
+      t = phases.ticks();
+    } else {
+      t = ++clockTicks;
+    }
+    frames.publish(t, snakes);
+    onTick.run();
+  }
+
+  public void pause() { clock.pause(); }
+  public void resume() { clock.resume(); }
+
+  /**
+   * Advances every snake exactly once, in list order, on the calling thread. In batch mode the
+   * snakes move in parallel batches instead (twice while turbo is active); in wheel mode the timing
+   * wheel advances one tick period and each snake moves as often as its own speed allows.
+   * Returns the number of snakes that actually moved.
+   */
+  public int tick() {
+    if (batches != null) {
+      int moves = batches.runTick();
+      tickCount++;
+      return moves;
+    }
+    if (wheel != null) {
+      int moves = wheel.advance(TimeUnit.MILLISECONDS.toNanos(config.tickMillis()));
+      tickCount++;
+      return moves;
+    }
+    if (config.deterministic()) applyPendingTurns();
+    int moves = 0;
+    // Por indice: el iterador de CopyOnWriteArrayList es la unica asignacion que quedaba por tick
+    for (int i = 0, n = runners.size(); i < n; i++) {
+      if (runners.get(i).stepOnce().moved()) moves++;
+    }
+    tickCount++;
+    return moves;
+  }
+
+  private void applyPendingTurns() {
+    synchronized (turnLock) {
+      for (; turnCount > 0; turnCount--) {
+        int t = pendingTurns[turnHead];
+        turnHead = (turnHead + 1) & (pendingTurns.length - 1);
+        applyTurn(t >>> 2, Direction.of(t & 3));
+      }
+    }
+  }
+
+  /**
+   * Applies a turn immediately at the current tick and journals it. Used by Replay.
+   */
+  void applyTurn(int snakeIndex, Direction dir) {
+    if (journal != null) journal.record(tickCount, snakeIndex, dir);
+    snakes.get(snakeIndex).turn(dir);
+  }
+
+  /**
+   * 64-bit fingerprint of the items and snake bodies; equal seeds and journals give equal hashes.
+   */
+  public long stateHash() {
+    long h = 1125899906842597L;
+    for (var set : List.of(board.mice(), board.obstacles(), board.turbo())) {
+      for (var p : set) h = 31 * h + p.packed();
+      h = 31 * h - 1;
+    }
+    int[] buf = new int[16];
+    for (Snake s : snakes) {
+      if (buf.length < s.length()) buf = new int[s.length()];
+      int n = s.copySegments(buf);
+      for (int i = 0; i < n; i++) h = 31 * h + buf[i];
+      h = 31 * h + s.direction().ordinal();
+    }
+    return h;
+  }
+
+  /**
+   * Runs the simulation without threads nor clock until maxTicks ticks or maxNanos nanoseconds
+   * have elapsed (a value <= 0 disables that limit) and reports the measured throughput.
+   * Only the final state is published to frames().
+   */
+  public HeadlessReport runHeadless(long maxTicks, long maxNanos) {
+    if (maxTicks <= 0 && maxNanos <= 0)
+      throw new IllegalArgumentException("a tick or time budget is required");
+    if (started.get())
+      throw new IllegalStateException("session already running on its own threads");
+    if (!config.deterministic()) board.startRespawnPipeline();
+    long ticks = 0, moves = 0;
+    long minTick = Long.MAX_VALUE, maxTick = 0;
+    long begin = System.nanoTime();
+    long now = begin;
+    while ((maxTicks <= 0 || ticks < maxTicks) && (maxNanos <= 0 || now - begin < maxNanos)) {
+      long t0 = now;
+      moves += tick();
+      now = System.nanoTime();
+      long lat = now - t0;
+      if (lat < minTick) minTick = lat;
+      if (lat > maxTick) maxTick = lat;
+      ticks++;
+    }
+    frames.publish(tickCount, snakes);
+    return new HeadlessReport(snakes.size(), ticks, moves, now - begin, ticks == 0 ? 0 : minTick, maxTick);
+  }
+
+  public void stop() {
+    clock.stop();
+    if (phases != null) phases.stop();
+    if (wheel != null) wheel.stop();
+  }
+
+  /**
+   * Writes a SessionSnapshot to file every periodMillis on a virtual thread, so the clock never
+   * waits for the disk. Checkpoints stop when the session is closed.
+   */
+  public void checkpointEvery(Path file, long periodMillis) {
+    if (periodMillis <= 0) throw new IllegalArgumentException("periodMillis must be > 0");
+    Thread.ofVirtual().name("checkpoint").start(() -> {
+      while (!closed) {
+        try {
+          Thread.sleep(periodMillis);
+          if (!closed) SessionSnapshot.write(this, file);
+        } catch (InterruptedException e) {
+          return;
+        } catch (IOException e) {
+          System.err.println("checkpoint failed: " + e.getMessage());
+        }
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    metrics.unregister();
+    clock.stop();
+    if (phases != null) phases.stop();
+    if (wheel != null) wheel.stop();
+    clock.close();
+    if (batches != null) batches.close();
+    if (distanceField != null) distanceField.close();
+    board.stopRespawnPipeline();
+    var e = exec;
+    if (e != null) e.shutdownNow();
+  }
+}
@@ -0,0 +1,30 @@
+package co.eci.snake.core.engine;
+
+/**
+ * Resultado de una corrida headless de GameSession.
+ */
+public record HeadlessReport(int snakes, long ticks, long moves, long elapsedNanos,
+                             long minTickNanos, long maxTickNanos) {
+
+  public double ticksPerSecond() {
+    return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+  }
+
+  public double movesPerSecond() {
+    return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+  }
+
+  public double avgTickNanos() {
+    return ticks == 0 ? 0 : (double) elapsedNanos / ticks;
+  }
+
+  public String format() {
+    return String.format(
+        "snakes=%d ticks=%d moves=%d elapsed=%.3f s%n" +
+        "ticks/sec=%.1f moves/sec=%.1f%n" +
+        "tick latency: avg=%.2f us min=%.2f us max=%.2f us",
+        snakes, ticks, moves, elapsedNanos / 1e9,
+        ticksPerSecond(), movesPerSecond(),
+        avgTickNanos() / 1e3, minTickNanos / 1e3, maxTickNanos / 1e3);
+  }
+}
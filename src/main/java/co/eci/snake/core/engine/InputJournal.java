@@ -0,0 +1,199 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.Direction;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * InputJournal - Registro binario compacto de los giros aplicados en cada tick
+ *
+ * Formato (big-endian):
+ * - Cabecera: magic "SNKJ", version (byte), seed (long), width, height, tileSize, snakes (int),
+ *   steering (byte)
+ * - Registros: varint(delta de tick desde el registro anterior), varint(snake << 2 | direccion) + 1
+ * - Fin: varint(delta hasta el ultimo tick), varint 0
+ *
+ * Junto con la semilla basta para reconstruir la partida tick a tick (ver Replay). Las versiones 1 y
+ * 2 se grabaron antes de los choques entre serpientes: ya no se reproducen igual y se rechazan.
+ * El journal empieza en el tick 0, asi que no guarda estado de los SnakeRunner: turboTicks y
+ * slowTicks salen de los mismos MoveResult al re-ejecutar (SessionSnapshot si los guarda).
+ */
+public final class InputJournal {
+  private static final int MAGIC = 0x534E4B4A; // "SNKJ"
+  private static final byte VERSION = 3;
+  // Primera version grabada con choques entre serpientes (MoveResult.BLOCKED)
+  private static final byte MIN_VERSION = 3;
+
+  private final SessionConfig config;
+  private byte[] data = new byte[256];
+  private int length;
+  private long lastTick;
+  private long endTick = -1;
+
+  public InputJournal(SessionConfig config) {
+    if (!config.deterministic()) throw new IllegalArgumentException("journal requires a seeded session");
+    this.config = config;
+  }
+
+  public SessionConfig config() { return config; }
+
+  /**
+   * Number of ticks covered by the journal, or -1 while it is still being recorded.
+   */
+  public long endTick() { return endTick; }
+
+  public int sizeBytes() { return length; }
+
+  /**
+   * Appends a turn applied at the start of the given tick. Ticks must not go backwards.
+   */
+  public synchronized void record(long tick, int snakeIndex, Direction dir) {
+    if (endTick >= 0) throw new IllegalStateException("journal already finished");
+    if (tick < lastTick) throw new IllegalArgumentException("ticks must be non-decreasing");
+    writeVarLong(tick - lastTick);
+    writeVarLong(((long) snakeIndex << 2 | dir.ordinal()) + 1);
+    lastTick = tick;
+  }
+
+  /**
+   * Closes the journal at the given tick count.
+   */
+  public synchronized void finish(long ticks) {
+    if (endTick >= 0) return;
+    if (ticks < lastTick) throw new IllegalArgumentException("ticks must be non-decreasing");
+    writeVarLong(ticks - lastTick);
+    writeVarLong(0);
+    lastTick = ticks;
+    endTick = ticks;
+  }
+
+  public Cursor cursor() {
+    byte[] copy;
+    int len;
+    synchronized (this) {
+      copy = data;
+      len = length;
+    }
+    return new Cursor(copy, len);
+  }
+
+  public void writeTo(Path file) throws IOException {
+    try (OutputStream out = Files.newOutputStream(file)) {
+      writeTo(out);
+    }
+  }
+
+  public synchronized void writeTo(OutputStream os) throws IOException {
+    var out = new DataOutputStream(os);
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(config.seed());
+    out.writeInt(config.width());
+    out.writeInt(config.height());
+    out.writeInt(config.tileSize());
+    out.writeInt(config.snakes());
+    out.writeByte(config.steering().ordinal());
+    out.write(data, 0, length);
+    out.flush();
+  }
+
+  public static InputJournal read(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return read(in);
+    }
+  }
+
+  public static InputJournal read(InputStream is) throws IOException {
+    var in = new DataInputStream(is);
+    if (in.readInt() != MAGIC) throw new IOException("not a snake journal");
+    byte version = in.readByte();
+    if (version < 1 || version > VERSION) throw new IOException("unsupported journal version " + version);
+    if (version < MIN_VERSION)
+      throw new IOException("journal version " + version + " was recorded without snake collisions and cannot be replayed");
+    long seed = in.readLong();
+    int width = in.readInt(), height = in.readInt(), tileSize = in.readInt(), snakes = in.readInt();
+    var steering = SessionConfig.Steering.values()[in.readByte()];
+    var config = SessionConfig.defaults(snakes).withSize(width, height).withTileSize(tileSize).withSeed(seed)
+        .withSteering(steering);
+    var journal = new InputJournal(config);
+    journal.data = in.readAllBytes();
+    journal.length = journal.data.length;
+    // Recorre los registros para validar y conocer el tick final
+    var c = journal.cursor();
+    while (c.next()) { }
+    journal.lastTick = c.tick();
+    journal.endTick = c.finished() ? c.tick() : -1;
+    return journal;
+  }
+
+  private void writeVarLong(long v) {
+    while (true) {
+      if (length == data.length) data = Arrays.copyOf(data, data.length * 2);
+      if ((v & ~0x7FL) == 0) {
+        data[length++] = (byte) v;
+        return;
+      }
+      data[length++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+  }
+
+  /**
+   * Sequential reader over the journal records.
+   */
+  public static final class Cursor {
+    private final byte[] data;
+    private final int length;
+    private int pos;
+    private long tick;
+    private int snake = -1;
+    private Direction direction;
+    private boolean finished;
+
+    private Cursor(byte[] data, int length) {
+      this.data = data;
+      this.length = length;
+    }
+
+    /**
+     * Moves to the next turn record. Returns false at the end marker or at the end of the data.
+     */
+    public boolean next() {
+      if (finished || pos >= length) return false;
+      tick += readVarLong();
+      long v = readVarLong();
+      if (v == 0) {
+        finished = true;
+        snake = -1;
+        direction = null;
+        return false;
+      }
+      v--;
+      snake = (int) (v >>> 2);
+      direction = Direction.of((int) (v & 3));
+      return true;
+    }
+
+    public long tick() { return tick; }
+    public int snake() { return snake; }
+    public Direction direction() { return direction; }
+    public boolean finished() { return finished; }
+
+    private long readVarLong() {
+      long v = 0;
+      for (int shift = 0; ; shift += 7) {
+        if (pos >= length) throw new IllegalStateException("truncated journal");
+        byte b = data[pos++];
+        v |= (long) (b & 0x7F) << shift;
+        if (b >= 0) return v;
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Level - Formato binario de niveles (.snkl) cargado por memoria mapeada
+ *
+ * Formato (big-endian):
+ * - Cabecera: magic "SNKL", version (byte), serpientes (int)
+ * - Tablero: ver Board.writeTo (dimensiones, tileSize, bitmaps de ratones, obstaculos y turbo,
+ *   pares de teleport)
+ * - Zonas de aparicion: cantidad (int) y por zona x, y, ancho, alto (int); sin zonas los items
+ *   aparecen en cualquier celda libre (ver Board.spawnZones)
+ * - Por serpiente: x, y (int) y direccion (byte) de la posicion de salida
+ *
+ * - load() mapea el archivo en solo lectura y arma el tablero directamente desde los bitmaps:
+ *   sin sorteos, el mismo archivo produce siempre el mismo mundo inicial
+ * - write() guarda el mundo de una sesion (items, teleports, zonas y la cabeza y direccion de cada
+ *   serpiente) para curarlo a mano o reutilizarlo como arena fija
+ */
+public final class Level {
+  private static final int MAGIC = 0x534E4B4C; // "SNKL"
+  private static final byte VERSION = 1;
+  private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+  private static final int START_BYTES = 2 * Integer.BYTES + 1;
+
+  private Level() {}
+
+  /**
+   * Writes the current world of the session as a level, replacing file atomically. Snakes are
+   * saved as their head cell and direction. Returns the bytes written.
+   */
+  public static long write(GameSession session, Path file) throws IOException {
+    var board = session.board();
+    List<Snake> snakes = session.snakes();
+    int[] zones = board.spawnZones();
+    long size = HEADER_BYTES + board.snapshotSize() + Integer.BYTES + (long) zones.length * Integer.BYTES
+        + (long) snakes.size() * START_BYTES;
+
+    Path dir = file.toAbsolutePath().getParent();
+    Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (var ch = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buf.putInt(MAGIC).put(VERSION).putInt(snakes.size());
+        board.writeTo(buf);
+        writeZones(buf, zones);
+        for (Snake s : snakes) {
+          int head = s.headPacked();
+          buf.putInt(Position.unpackX(head)).putInt(Position.unpackY(head)).put((byte) s.direction().ordinal());
+        }
+        buf.force();
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    return size;
+  }
+
+  /**
+   * Builds a session on the level stored in file. Dimensions, tile size and snakes come from the
+   * level; seed, tick, scheduler and steering from config. The session is not started and keeps
+   * no journal (Replay only rebuilds random worlds).
+   */
+  public static GameSession load(Path file, SessionConfig config, Runnable onTick) throws IOException {
+    try (var ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if (buf.remaining() < HEADER_BYTES + 3 * Integer.BYTES || buf.getInt() != MAGIC) throw new IOException("not a snake level");
+      byte version = buf.get();
+      if (version != VERSION) throw new IOException("unsupported level version " + version);
+      int count = buf.getInt();
+      if (count <= 0) throw new IOException("level without snakes");
+
+      int boardStart = buf.position();
+      int width = buf.getInt(), height = buf.getInt(), tileSize = buf.getInt();
+      buf.position(boardStart);
+      var levelConfig = config.withSize(width, height).withTileSize(tileSize).withSnakes(count);
+      try {
+        return new GameSession(levelConfig, onTick, 0, rng -> build(buf, rng, count), false);
+      } catch (BufferUnderflowException e) {
+        throw new IOException("truncated level " + file, e);
+      } catch (IllegalArgumentException e) {
+        throw new IOException("bad level " + file + ": " + e.getMessage(), e);
+      }
+    }
+  }
+
+  private static GameSession.World build(ByteBuffer buf, RandomGenerator rng, int count) {
+    var board = Board.readFrom(buf, rng);
+    board.spawnZones(readZones(buf));
+    int width = board.width(), height = board.height();
+    var snakes = new ArrayList<Snake>(count);
+    for (int i = 0; i < count; i++) {
+      int x = buf.getInt(), y = buf.getInt();
+      int d = buf.get();
+      if (x < 0 || y < 0 || x >= width || y >= height) throw new IllegalArgumentException("snake " + i + " starts outside the board");
+      if (d < 0 || d >= Direction.count()) throw new IllegalArgumentException("snake " + i + " has no direction");
+      int cell = y * width + x;
+      if (board.hasObstacle(cell) || board.occupant(cell) != 0 || board.teleportTarget(cell) >= 0)
+        throw new IllegalArgumentException("snake " + i + " starts on a blocked cell");
+      var snake = Snake.of(x, y, Direction.of(d));
+      board.place(snake);
+      snakes.add(snake);
+    }
+    return new GameSession.World(board, snakes, null);
+  }
+
+  /**
+   * Spawn zones as written by writeZones(): a count followed by x, y, width, height quadruples.
+   */
+  static int[] readZones(ByteBuffer buf) {
+    int n = buf.getInt();
+    if (n < 0 || n > buf.remaining() / (4 * Integer.BYTES)) throw new IllegalArgumentException("bad zone count " + n);
+    int[] zones = new int[n * 4];
+    for (int i = 0; i < zones.length; i++) zones[i] = buf.getInt();
+    return zones;
+  }
+
+  static void writeZones(ByteBuffer buf, int[] zones) {
+    buf.putInt(zones.length / 4);
+    for (int v : zones) buf.putInt(v);
+  }
+}
@@ -0,0 +1,93 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.concurrency.BatchTickScheduler;
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.ChunkedBoard;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Leaderboard;
+import co.eci.snake.core.Snake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * OpenWorld - Simulacion headless sobre un ChunkedBoard (mundos de 100000 x 100000 y mas)
+ *
+ * - Las serpientes se reparten al azar por todo el mundo; cada una trae un raton cerca
+ * - Sin reloj ni hilo por serpiente: cada tick lo mueve un BatchTickScheduler (lotes por chunk)
+ * - Un Leaderboard sigue la longitud de cada serpiente; describe() informa la mas larga sin recorrerlas
+ * - No publica frames ni snapshots: GameSession sigue siendo el motor de los tableros densos
+ */
+public final class OpenWorld implements AutoCloseable {
+  private final ChunkedBoard board;
+  private final List<Snake> snakes = new ArrayList<>();
+  private final List<SnakeRunner> runners = new ArrayList<>();
+  private final BatchTickScheduler batches;
+  private final Leaderboard leaderboard;
+
+  /**
+   * @param seed seed of the starting positions only; steps run in parallel and are not reproducible
+   */
+  public OpenWorld(int width, int height, int chunkSize, int snakeCount, long seed) {
+    this.board = new ChunkedBoard(width, height, chunkSize, Math.max(2, snakeCount / 64), null);
+    var rnd = new SplittableRandom(seed);
+    var dirs = Direction.values();
+    this.leaderboard = new Leaderboard(snakeCount);
+    for (int i = 0; i < snakeCount; i++) {
+      var snake = board.spawnSnake(rnd.nextInt(width), rnd.nextInt(height), dirs[i % dirs.length]);
+      snakes.add(snake);
+      var runner = new SnakeRunner(snake, board);
+      runner.rankIn(leaderboard, i);
+      runners.add(runner);
+    }
+    this.batches = new BatchTickScheduler(runners, board);
+  }
+
+  public ChunkedBoard board() { return board; }
+  public List<Snake> snakes() { return List.copyOf(snakes); }
+  public Leaderboard leaderboard() { return leaderboard; }
+
+  /**
+   * Runs up to maxTicks ticks (0 = unbounded) or until maxNanos elapsed (0 = unbounded).
+   */
+  public HeadlessReport run(long maxTicks, long maxNanos) {
+    if (maxTicks <= 0 && maxNanos <= 0) throw new IllegalArgumentException("need a tick or time limit");
+    long begin = System.nanoTime();
+    long deadline = maxNanos > 0 ? begin + maxNanos : Long.MAX_VALUE;
+    long ticks = 0, moves = 0;
+    long minTick = Long.MAX_VALUE, maxTick = 0;
+    while ((maxTicks <= 0 || ticks < maxTicks) && System.nanoTime() < deadline) {
+      long t0 = System.nanoTime();
+      moves += batches.runTick();
+      long dt = System.nanoTime() - t0;
+      minTick = Math.min(minTick, dt);
+      maxTick = Math.max(maxTick, dt);
+      ticks++;
+    }
+    return new HeadlessReport(snakes.size(), ticks, moves, System.nanoTime() - begin,
+        ticks == 0 ? 0 : minTick, maxTick);
+  }
+
+  /**
+   * Chunk and item counts of the world.
+   */
+  public String describe() {
+    long segments = 0;
+    for (Snake s : snakes) segments += s.length();
+    int longest = leaderboard.leader();
+    return String.format(
+        "world=%dx%d chunk=%d chunks live=%d allocated=%d evicted=%d%n" +
+        "segments=%d mice=%d obstacles=%d turbo=%d chunk memory=%.1f KiB%n" +
+        "longest snake=#%d (%d segments)",
+        board.width(), board.height(), board.chunkSize(), board.chunkCount(), board.allocatedChunks(),
+        board.evictedChunks(), segments, board.miceCount(), board.obstacleCount(), board.turboCount(),
+        board.footprintBytes() / 1024.0,
+        longest < 0 ? -1 : snakes.get(longest).id(), longest < 0 ? 0 : leaderboard.length(longest));
+  }
+
+  @Override
+  public void close() {
+    batches.close();
+  }
+}
@@ -0,0 +1,82 @@
+package co.eci.snake.core.engine;
+
+/**
+ * Replay - Re-ejecuta un InputJournal sin reloj ni hilos, tan rapido como sea posible
+ *
+ * - Reconstruye una GameSession determinista con la semilla y dimensiones de la cabecera
+ * - Aplica cada giro registrado al inicio del tick en que ocurrio
+ * - seek() avanza hasta cualquier tick; ir hacia atras reinicia desde el tick 0
+ */
+public final class Replay implements AutoCloseable {
+  private final InputJournal journal;
+  private GameSession session;
+  private InputJournal.Cursor cursor;
+  private boolean hasRecord;
+
+  public Replay(InputJournal journal) {
+    this.journal = journal;
+    reset();
+  }
+
+  public GameSession session() { return session; }
+
+  public long tick() { return session.tickCount(); }
+
+  /**
+   * Last tick of the journal, or -1 if it was never finished.
+   */
+  public long endTick() { return journal.endTick(); }
+
+  /**
+   * Moves the simulation to the given tick, replaying from the start if it lies in the past.
+   */
+  public void seek(long target) {
+    if (target < 0) throw new IllegalArgumentException("tick must be >= 0");
+    if (target < tick()) reset();
+    while (tick() < target) step();
+  }
+
+  /**
+   * Replays the remaining ticks up to the end of the journal and reports the throughput.
+   */
+  public HeadlessReport runToEnd() {
+    long end = journal.endTick();
+    if (end < 0) throw new IllegalStateException("journal was not finished");
+    long ticks = 0, moves = 0;
+    long minTick = Long.MAX_VALUE, maxTick = 0;
+    long begin = System.nanoTime();
+    long now = begin;
+    while (tick() < end) {
+      long t0 = now;
+      moves += step();
+      now = System.nanoTime();
+      long lat = now - t0;
+      if (lat < minTick) minTick = lat;
+      if (lat > maxTick) maxTick = lat;
+      ticks++;
+    }
+    return new HeadlessReport(session.snakes().size(), ticks, moves, now - begin,
+        ticks == 0 ? 0 : minTick, maxTick);
+  }
+
+  private int step() {
+    long now = tick();
+    while (hasRecord && cursor.tick() == now) {
+      session.applyTurn(cursor.snake(), cursor.direction());
+      hasRecord = cursor.next();
+    }
+    return session.tick();
+  }
+
+  private void reset() {
+    if (session != null) session.close();
+    session = new GameSession(journal.config(), () -> {});
+    cursor = journal.cursor();
+    hasRecord = cursor.next();
+  }
+
+  @Override
+  public void close() {
+    session.close();
+  }
+}
@@ -0,0 +1,99 @@
+package co.eci.snake.core.engine;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Parametros de construccion de una GameSession.
+ *
+ * @param tileSize  lado de las regiones de lock del Board (<= 0: un solo candado)
+ * @param seed      semilla del modo determinista, o null para una partida no reproducible
+ * @param scheduler como se reparten los movimientos entre hilos (sin efecto en modo determinista)
+ * @param steering  estrategia de direccion de las serpientes
+ */
+public record SessionConfig(int width, int height, int snakes, long tickMillis, int tileSize, Long seed,
+                            Scheduler scheduler, Steering steering) {
+
+  /**
+   * Motor de movimiento de las serpientes fuera del modo determinista.
+   */
+  public enum Scheduler {
+    /** Un hilo virtual por SnakeRunner, despertado por wait/notify con temporizador de respaldo. */
+    HYBRID,
+    /** Un hilo virtual por SnakeRunner sincronizado por un PhasedTickScheduler (un paso por tick). */
+    PHASED,
+    /** Lotes de serpientes por nucleo en un ForkJoinPool (BatchTickScheduler), sin hilo por serpiente. */
+    BATCH,
+    /** Un solo hilo mueve cada serpiente a su propia velocidad con una TimingWheel (WheelTickScheduler). */
+    WHEEL;
+
+    /**
+     * Parses a scheduler name case-insensitively; null means HYBRID.
+     */
+    public static Scheduler parse(String name) {
+      return name == null ? HYBRID : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * Estrategia con la que GameSession configura cada SnakeRunner.
+   */
+  public enum Steering {
+    /** Giros al azar (RandomSteering). */
+    RANDOM,
+    /** Hacia el raton mas cercano con un DistanceField compartido (GoalSeekingSteering). */
+    SEEK;
+
+    /**
+     * Parses a steering name case-insensitively; null means RANDOM.
+     */
+    public static Steering parse(String name) {
+      return name == null ? RANDOM : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+  }
+
+  public SessionConfig {
+    if (snakes <= 0) throw new IllegalArgumentException("snakes must be > 0");
+    Objects.requireNonNull(scheduler, "scheduler");
+    Objects.requireNonNull(steering, "steering");
+  }
+
+  public SessionConfig(int width, int height, int snakes, long tickMillis, int tileSize, Long seed) {
+    this(width, height, snakes, tickMillis, tileSize, seed, Scheduler.HYBRID, Steering.RANDOM);
+  }
+
+  public static SessionConfig defaults(int snakes) {
+    return new SessionConfig(GameSession.DEFAULT_WIDTH, GameSession.DEFAULT_HEIGHT, snakes,
+        GameSession.DEFAULT_TICK_MILLIS, 0, null);
+  }
+
+  public boolean deterministic() { return seed != null; }
+
+  public SessionConfig withSize(int width, int height) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withSnakes(int snakes) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withTickMillis(long tickMillis) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withTileSize(int tileSize) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withSeed(Long seed) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withScheduler(Scheduler scheduler) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+
+  public SessionConfig withSteering(Steering steering) {
+    return new SessionConfig(width, height, snakes, tickMillis, tileSize, seed, scheduler, steering);
+  }
+}
@@ -0,0 +1,173 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.RespawnPolicy;
+import co.eci.snake.core.Snake;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SessionSnapshot - Checkpoint binario de una GameSession completa escrito por memoria mapeada
+ *
+ * Formato (big-endian):
+ * - Cabecera: magic "SNKS", version (byte), tickMillis (long), hay semilla (byte), seed (long),
+ *   tick (long), snakes (int), steering (byte, desde la version 2; la version 1 implica RANDOM)
+ * - Tablero: ver Board.writeTo (dimensiones, bitmaps de items y tabla de teleports)
+ * - Zonas de aparicion (desde la version 3): como en Level, cantidad (int) y x, y, ancho, alto por zona
+ * - Reposiciones pendientes (desde la version 4): cantidad (int) y la demora que le queda a cada una
+ *   en nanosegundos (long); son ratones comidos que el RespawnPipeline todavia no repuso
+ * - Politica de reposicion (desde la version 6): delayMillis (long), maxItems (int),
+ *   obstaclesPerMouse y turboChance (double); las versiones anteriores restauran RespawnPolicy.DEFAULT
+ * - Por serpiente: direccion (byte), maxLength, turboTicks, slowTicks (desde la version 5), length
+ *   (int), celdas empaquetadas (int)
+ *
+ * - write() copia los cuerpos con Snake.copySegments (sin detener el reloj ni los hilos) y luego
+ *   escribe directamente sobre un MappedByteBuffer de un archivo temporal que se mueve al destino.
+ *   La etapa del RespawnPipeline queda retenida (hold) mientras tanto: sus pedidos pendientes y el
+ *   tablero se guardan juntos
+ * - restore() mapea el archivo en solo lectura y reconstruye la sesion sin regenerar el mundo
+ */
+public final class SessionSnapshot {
+  private static final int MAGIC = 0x534E4B53; // "SNKS"
+  private static final byte VERSION = 6;
+  private static final int HEADER_BYTES = Integer.BYTES + 1 + Long.BYTES + 1 + Long.BYTES + Long.BYTES + Integer.BYTES + 1;
+  private static final int POLICY_BYTES = Long.BYTES + Integer.BYTES + 2 * Double.BYTES;
+  private static final int SNAKE_HEADER_BYTES = 1 + 4 * Integer.BYTES;
+
+  private SessionSnapshot() {}
+
+  /**
+   * Writes a checkpoint of the session to file, replacing it atomically. Returns the bytes written.
+   * With threaded runners the snapshot is taken while they keep moving, so snakes may be a move apart.
+   */
+  public static long write(GameSession session, Path file) throws IOException {
+    var board = session.board();
+    var pipeline = board.respawnPipeline();
+    long[] pending = pipeline == null ? board.deferredRespawns() : pipeline.hold();
+    try {
+      return write(session, file, pending);
+    } finally {
+      if (pipeline != null) pipeline.release();
+    }
+  }
+
+  private static long write(GameSession session, Path file, long[] pending) throws IOException {
+    var config = session.config();
+    var board = session.board();
+    List<Snake> snakes = session.snakes();
+    var runners = session.runners();
+    long tick = session.tickCount();
+
+    // Primero se copian los cuerpos: el tamano exacto del archivo depende de sus longitudes
+    var bodies = new ArrayList<int[]>(snakes.size());
+    var lengths = new int[snakes.size()];
+    int[] zones = board.spawnZones();
+    long size = HEADER_BYTES + board.snapshotSize() + Integer.BYTES + (long) zones.length * Integer.BYTES
+        + Integer.BYTES + (long) pending.length * Long.BYTES + POLICY_BYTES;
+    for (int i = 0; i < snakes.size(); i++) {
+      Snake s = snakes.get(i);
+      int[] body = new int[s.maxLength() + 1];
+      lengths[i] = s.copySegments(body);
+      bodies.add(body);
+      size += SNAKE_HEADER_BYTES + (long) lengths[i] * Integer.BYTES;
+    }
+
+    Path dir = file.toAbsolutePath().getParent();
+    Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (var ch = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buf.putInt(MAGIC).put(VERSION).putLong(config.tickMillis());
+        buf.put((byte) (config.deterministic() ? 1 : 0)).putLong(config.deterministic() ? config.seed() : 0);
+        buf.putLong(tick).putInt(snakes.size()).put((byte) config.steering().ordinal());
+        board.writeTo(buf);
+        Level.writeZones(buf, zones);
+        buf.putInt(pending.length);
+        for (long delay : pending) buf.putLong(delay);
+        var policy = board.respawnPolicy();
+        buf.putLong(policy.delayMillis()).putInt(policy.maxItems());
+        buf.putDouble(policy.obstaclesPerMouse()).putDouble(policy.turboChance());
+        for (int i = 0; i < snakes.size(); i++) {
+          Snake s = snakes.get(i);
+          buf.put((byte) s.direction().ordinal());
+          var runner = runners.get(i);
+          buf.putInt(s.maxLength()).putInt(runner.turboTicks()).putInt(runner.slowTicks()).putInt(lengths[i]);
+          int[] body = bodies.get(i);
+          for (int k = 0; k < lengths[i]; k++) buf.putInt(body[k]);
+        }
+        buf.force();
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+    return size;
+  }
+
+  /**
+   * Rebuilds a session from a checkpoint. The session is not started; a seeded session keeps
+   * running deterministically from the saved tick (without journal).
+   */
+  public static GameSession restore(Path file, Runnable onTick) throws IOException {
+    try (var ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if (buf.remaining() < HEADER_BYTES - 1 || buf.getInt() != MAGIC) throw new IOException("not a snake snapshot");
+      byte version = buf.get();
+      if (version < 1 || version > VERSION) throw new IOException("unsupported snapshot version " + version);
+      long tickMillis = buf.getLong();
+      boolean seeded = buf.get() != 0;
+      long seed = buf.getLong();
+      long tick = buf.getLong();
+      int count = buf.getInt();
+      if (count <= 0) throw new IOException("snapshot without snakes");
+      var steering = version >= 2 ? SessionConfig.Steering.values()[buf.get()] : SessionConfig.Steering.RANDOM;
+
+      // La dimension del tablero solo se conoce tras leerlo: se lee dentro de la fabrica del mundo
+      int boardStart = buf.position();
+      int width = buf.getInt(), height = buf.getInt(), tileSize = buf.getInt();
+      buf.position(boardStart);
+      var config = new SessionConfig(width, height, count, tickMillis, tileSize, seeded ? seed : null)
+          .withSteering(steering);
+      return new GameSession(config, onTick, tick, rng -> {
+        var board = Board.readFrom(buf, rng);
+        if (version >= 3) board.spawnZones(Level.readZones(buf));
+        if (version >= 4) {
+          int n = buf.getInt();
+          if (n < 0 || n > buf.remaining() / Long.BYTES) throw new IllegalArgumentException("bad pending respawn count " + n);
+          long[] pending = new long[n];
+          for (int i = 0; i < n; i++) pending[i] = buf.getLong();
+          board.deferRespawns(pending);
+        }
+        if (version >= 6) {
+          board.respawnPolicy(new RespawnPolicy(buf.getLong(), buf.getInt(), buf.getDouble(), buf.getDouble()));
+        }
+        var snakes = new ArrayList<Snake>(count);
+        var turbo = new int[count];
+        var slow = new int[count];
+        for (int i = 0; i < count; i++) {
+          Direction dir = Direction.of(buf.get());
+          int maxLength = buf.getInt();
+          turbo[i] = buf.getInt();
+          if (version >= 5) slow[i] = buf.getInt();
+          int length = buf.getInt();
+          int[] body = new int[length];
+          buf.asIntBuffer().get(body);
+          buf.position(buf.position() + length * Integer.BYTES);
+          var snake = Snake.restore(dir, maxLength, body, length);
+          board.place(snake);
+          snakes.add(snake);
+        }
+        return new GameSession.World(board, snakes, turbo, slow);
+      });
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.Board;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tournament - Corre muchas partidas headless independientes en paralelo dentro de una sola JVM
+ *
+ * - Cada partida es una GameSession determinista (semilla = baseSeed + indice) que avanza en el
+ *   hilo del pool sin reloj ni hilos propios: el resultado de cada partida es reproducible
+ * - El pool es acotado (parallelism hilos de plataforma): nunca hay mas de parallelism tableros vivos
+ * - Cada partida corre exactamente ticksPerMatch ticks; luego se agregan largos finales,
+ *   ratones comidos y choques con obstaculos en un TournamentReport
+ * - El reporte incluye partidas/s y el uso de CPU del proceso durante el torneo
+ */
+public final class Tournament {
+  private final SessionConfig config;
+  private final int matches;
+  private final long ticksPerMatch;
+  private final int parallelism;
+
+  /**
+   * @param config base configuration of every match; its seed (0 when null) is the seed of match 0
+   */
+  public Tournament(SessionConfig config, int matches, long ticksPerMatch, int parallelism) {
+    if (matches <= 0) throw new IllegalArgumentException("matches must be > 0");
+    if (ticksPerMatch <= 0) throw new IllegalArgumentException("ticksPerMatch must be > 0");
+    if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be > 0");
+    this.config = Objects.requireNonNull(config, "config");
+    this.matches = matches;
+    this.ticksPerMatch = ticksPerMatch;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Result of one match; lengths are indexed like the session's snakes.
+   */
+  public record MatchResult(long seed, long ticks, int[] lengths, long miceEaten, long obstacleHits,
+                            long elapsedNanos) {
+
+    /**
+     * Index of the longest snake (the lowest index wins ties).
+     */
+    public int winner() {
+      int best = 0;
+      for (int i = 1; i < lengths.length; i++) if (lengths[i] > lengths[best]) best = i;
+      return best;
+    }
+  }
+
+  /**
+   * Runs every match on a bounded pool and waits for all of them.
+   */
+  public TournamentReport run() throws InterruptedException {
+    long baseSeed = config.seed() == null ? 0 : config.seed();
+    var cpu = processCpu();
+    long cpu0 = cpu == null ? -1 : cpu.getProcessCpuTime();
+    long begin = System.nanoTime();
+
+    ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+    var results = new ArrayList<MatchResult>(matches);
+    try {
+      var futures = new ArrayList<Future<MatchResult>>(matches);
+      for (int i = 0; i < matches; i++) {
+        long seed = baseSeed + i;
+        futures.add(pool.submit(() -> play(seed)));
+      }
+      for (var f : futures) results.add(f.get());
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("match failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    long elapsed = System.nanoTime() - begin;
+    long cpuNanos = cpu == null || cpu0 < 0 ? -1 : cpu.getProcessCpuTime() - cpu0;
+    return new TournamentReport(results, parallelism, elapsed, cpuNanos,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  private MatchResult play(long seed) {
+    long t0 = System.nanoTime();
+    try (var session = new GameSession(config.withSeed(seed), () -> {})) {
+      for (long t = 0; t < ticksPerMatch; t++) session.tick();
+      List<SnakeRunner> runners = session.runners();
+      int[] lengths = new int[runners.size()];
+      long mice = 0, hits = 0;
+      for (int i = 0; i < lengths.length; i++) {
+        var r = runners.get(i);
+        lengths[i] = r.snake().length();
+        mice += r.resultCount(Board.MoveResult.ATE_MOUSE);
+        hits += r.resultCount(Board.MoveResult.HIT_OBSTACLE);
+      }
+      return new MatchResult(seed, session.tickCount(), lengths, mice, hits, System.nanoTime() - t0);
+    }
+  }
+
+  private static com.sun.management.OperatingSystemMXBean processCpu() {
+    return ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+        ? os : null;
+  }
+}
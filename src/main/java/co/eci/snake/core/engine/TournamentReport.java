@@ -0,0 +1,90 @@
+package co.eci.snake.core.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resultado agregado de un Tournament.
+ *
+ * @param cpuNanos tiempo de CPU del proceso durante el torneo, o -1 si la JVM no lo expone
+ */
+public record TournamentReport(List<Tournament.MatchResult> matches, int parallelism, long elapsedNanos,
+                               long cpuNanos, int cores) {
+
+  public TournamentReport {
+    matches = List.copyOf(matches);
+  }
+
+  public double matchesPerSecond() {
+    return elapsedNanos == 0 ? 0 : matches.size() * 1e9 / elapsedNanos;
+  }
+
+  public long totalTicks() {
+    long n = 0;
+    for (var m : matches) n += m.ticks();
+    return n;
+  }
+
+  public double ticksPerSecond() {
+    return elapsedNanos == 0 ? 0 : totalTicks() * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Share of all cores used by the process during the tournament (0..1), or -1 if unknown.
+   */
+  public double cpuUtilisation() {
+    if (cpuNanos < 0 || elapsedNanos == 0) return -1;
+    return (double) cpuNanos / ((double) elapsedNanos * cores);
+  }
+
+  public long miceEaten() {
+    long n = 0;
+    for (var m : matches) n += m.miceEaten();
+    return n;
+  }
+
+  public long obstacleHits() {
+    long n = 0;
+    for (var m : matches) n += m.obstacleHits();
+    return n;
+  }
+
+  public double avgFinalLength() {
+    long sum = 0, count = 0;
+    for (var m : matches) {
+      for (int len : m.lengths()) sum += len;
+      count += m.lengths().length;
+    }
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  public int maxFinalLength() {
+    int max = 0;
+    for (var m : matches) for (int len : m.lengths()) max = Math.max(max, len);
+    return max;
+  }
+
+  /**
+   * Matches won by each snake slot (longest snake at the end of the match).
+   */
+  public long[] winsBySlot() {
+    int slots = 0;
+    for (var m : matches) slots = Math.max(slots, m.lengths().length);
+    long[] wins = new long[slots];
+    for (var m : matches) wins[m.winner()]++;
+    return wins;
+  }
+
+  public String format() {
+    double cpu = cpuUtilisation();
+    return String.format(
+        "matches=%d parallelism=%d cores=%d elapsed=%.3f s%n" +
+        "matches/sec=%.1f ticks/sec=%.1f cpu=%s%n" +
+        "final length: avg=%.2f max=%d mice eaten=%d obstacle hits=%d%n" +
+        "wins by slot: %s",
+        matches.size(), parallelism, cores, elapsedNanos / 1e9,
+        matchesPerSecond(), ticksPerSecond(), cpu < 0 ? "n/a" : String.format("%.1f%%", cpu * 100),
+        avgFinalLength(), maxFinalLength(), miceEaten(), obstacleHits(),
+        Arrays.toString(winsBySlot()));
+  }
+}
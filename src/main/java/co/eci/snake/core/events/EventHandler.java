@@ -0,0 +1,21 @@
+package co.eci.snake.core.events;
+
+/**
+ * Consumer of the events of an EventRing, called from its EventProcessor thread. The event
+ * arrives as loose fields so that nothing is allocated per event.
+ */
+@FunctionalInterface
+public interface EventHandler {
+  /**
+   * @param snake index of the snake in its session, or -1 for item events
+   * @param cell packed position (Position.pack) of the new head or of the item
+   * @param endOfBatch true when no later event was published yet
+   */
+  void onEvent(long sequence, EventType type, int snake, int cell, boolean endOfBatch);
+
+  /**
+   * Called when the processor fell a whole ring behind and the given number of events was overwritten.
+   */
+  default void onOverrun(long lost) {
+  }
+}
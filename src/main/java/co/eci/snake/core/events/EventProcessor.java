@@ -0,0 +1,73 @@
+package co.eci.snake.core.events;
+
+import java.util.Objects;
+
+/**
+ * EventProcessor - Consumidor de un EventRing en su propio hilo
+ *
+ * - Lleva su propia secuencia: varios procesadores leen el mismo ring sin coordinarse
+ * - Empieza en el siguiente evento a publicar (no ve eventos anteriores a su creacion)
+ * - Cuando no hay evento espera con la WaitStrategy del ring
+ * - Si el ring le dio una vuelta salta a la vuelta actual y suma los eventos perdidos en lost()
+ */
+public final class EventProcessor implements Runnable {
+  private final EventRing ring;
+  private final EventHandler handler;
+  private volatile long sequence;
+  private volatile long lost;
+  private volatile boolean running = true;
+
+  public EventProcessor(EventRing ring, EventHandler handler) {
+    this.ring = Objects.requireNonNull(ring, "ring");
+    this.handler = Objects.requireNonNull(handler, "handler");
+    this.sequence = ring.claimed();
+  }
+
+  @Override
+  public void run() {
+    long next = sequence;
+    int attempt = 0;
+    try {
+      while (running) {
+        long r = ring.read(next, handler, next + 1 >= ring.claimed());
+        if (r == 0) {
+          sequence = ++next;
+          attempt = 0;
+        } else if (r > 0) {
+          // Lo mas viejo que aun puede estar intacto es la ultima vuelta completa del ring
+          long resume = Math.max(next + 1, ring.claimed() - ring.capacity());
+          lost += resume - next;
+          handler.onOverrun(resume - next);
+          sequence = next = resume;
+        } else {
+          ring.waitStrategy().await(ring, next, attempt++);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops run() after the current event (or wait) finishes.
+   */
+  public void halt() {
+    running = false;
+    ring.waitStrategy().signalAll();
+  }
+
+  /**
+   * Sequence of the next event this processor will handle.
+   */
+  public long sequence() { return sequence; }
+
+  /**
+   * Events overwritten before this processor could read them.
+   */
+  public long lost() { return lost; }
+
+  /**
+   * Events published but not handled yet.
+   */
+  public long backlog() { return Math.max(0, ring.claimed() - sequence); }
+}
@@ -0,0 +1,106 @@
+package co.eci.snake.core.events;
+
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EventRing - Buffer circular preasignado de eventos del motor, al estilo Disruptor
+ *
+ * - Capacidad potencia de dos; cada campo del evento es un arreglo primitivo (tipo, serpiente,
+ *   celda) y publicar no asigna nada
+ * - Cada productor reserva su secuencia con un getAndIncrement: varios SnakeRunner publican en
+ *   paralelo sin lock. Solo espera si el productor de la vuelta anterior del mismo slot no termino
+ * - El ring nunca frena al motor: un consumidor que se atrasa mas de una vuelta pierde eventos
+ *   (EventProcessor los cuenta y avisa con EventHandler.onOverrun)
+ * - Cada slot guarda la secuencia publicada; mientras se escribe guarda WRITING | secuencia.
+ *   Los lectores usan el mismo esquema que Snake.copySegments: leen la secuencia, los campos
+ *   y vuelven a leer la secuencia para descartar un slot sobrescrito a medias
+ */
+public final class EventRing {
+  // Marca de slot a medio escribir; las secuencias iniciales (-capacity..-1) quedan muy por encima
+  private static final long WRITING = Long.MIN_VALUE;
+
+  private final int capacity;
+  private final int mask;
+  private final byte[] types;
+  private final int[] snakes;
+  private final int[] cells;
+  private final AtomicLongArray sequences;
+  private final AtomicLong next = new AtomicLong();
+  private final WaitStrategy wait;
+
+  public EventRing(int capacity, WaitStrategy wait) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+      throw new IllegalArgumentException("capacity must be a power of two");
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.types = new byte[capacity];
+    this.snakes = new int[capacity];
+    this.cells = new int[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    // El slot i queda "publicado" en la vuelta -1 para que el primer productor no espere
+    for (int i = 0; i < capacity; i++) sequences.set(i, i - (long) capacity);
+    this.wait = Objects.requireNonNull(wait, "wait");
+  }
+
+  public int capacity() { return capacity; }
+
+  public WaitStrategy waitStrategy() { return wait; }
+
+  /**
+   * Sequence the next publish will get, i.e. the number of events claimed so far.
+   */
+  public long claimed() { return next.get(); }
+
+  /**
+   * Publishes one event and returns its sequence. Safe from any number of threads.
+   */
+  public long publish(EventType type, int snake, int cell) {
+    long seq = next.getAndIncrement();
+    int i = (int) seq & mask;
+    // Otro productor con seq - capacity puede seguir escribiendo el slot (solo si se durmio una vuelta entera)
+    for (int spins = 0; sequences.getAcquire(i) != seq - capacity; spins++) {
+      if (spins < WaitStrategy.SPIN_TRIES) Thread.onSpinWait();
+      else Thread.yield();
+    }
+    sequences.setOpaque(i, WRITING | seq);
+    VarHandle.storeStoreFence();
+    types[i] = (byte) type.ordinal();
+    snakes[i] = snake;
+    cells[i] = cell;
+    sequences.setRelease(i, seq);
+    wait.signalAll();
+    return seq;
+  }
+
+  /**
+   * True once the event with the given sequence (or a later one in its slot) was published.
+   */
+  public boolean isPublished(long sequence) {
+    return sequences.getAcquire((int) sequence & mask) >= sequence;
+  }
+
+  /**
+   * Reads the event with the given sequence into handler. Returns 0 when it was delivered,
+   * a negative value when it is not published yet, or the sequence currently written in its slot
+   * (always greater than the requested one) when it was overwritten.
+   */
+  long read(long sequence, EventHandler handler, boolean endOfBatch) {
+    int i = (int) sequence & mask;
+    long s = sequences.getAcquire(i);
+    if (s != sequence) return unpublished(s, sequence);
+    int type = types[i], snake = snakes[i], cell = cells[i];
+    VarHandle.loadLoadFence();
+    s = sequences.getAcquire(i);
+    if (s != sequence) return unpublished(s, sequence);
+    handler.onEvent(sequence, EventType.ofOrdinal(type), snake, cell, endOfBatch);
+    return 0;
+  }
+
+  private static long unpublished(long slot, long wanted) {
+    long seq = slot < Integer.MIN_VALUE ? slot & ~WRITING : slot;
+    return seq > wanted ? seq : -1;
+  }
+}
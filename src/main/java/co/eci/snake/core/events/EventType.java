@@ -0,0 +1,28 @@
+package co.eci.snake.core.events;
+
+import co.eci.snake.core.Board;
+
+/**
+ * EventType - Tipos de evento publicados en un EventRing
+ *
+ * - Uno por cada Board.MoveResult (mismo nombre), publicado por SnakeRunner tras cada paso
+ * - *_SPAWNED: el Board hizo aparecer un item (snake = -1)
+ */
+public enum EventType {
+  MOVED, ATE_MOUSE, HIT_OBSTACLE, ATE_TURBO, TELEPORTED, BLOCKED,
+  MOUSE_SPAWNED, OBSTACLE_SPAWNED, TURBO_SPAWNED;
+
+  private static final EventType[] VALUES = values();
+  private static final EventType[] BY_RESULT = new EventType[Board.MoveResult.values().length];
+
+  static {
+    for (var r : Board.MoveResult.values()) BY_RESULT[r.ordinal()] = valueOf(r.name());
+  }
+
+  /**
+   * Event published for a step that ended with the given result.
+   */
+  public static EventType of(Board.MoveResult result) { return BY_RESULT[result.ordinal()]; }
+
+  static EventType ofOrdinal(int ordinal) { return VALUES[ordinal]; }
+}
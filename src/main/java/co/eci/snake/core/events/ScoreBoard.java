@@ -0,0 +1,58 @@
+package co.eci.snake.core.events;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ScoreBoard - EventHandler que acumula por serpiente ratones, turbos, choques, bloqueos y teleports
+ *
+ * Un solo escritor (el hilo de su EventProcessor); la UI lee los contadores en cualquier momento.
+ */
+public final class ScoreBoard implements EventHandler {
+  private static final int STATS = 5;
+  private static final int MICE = 0, TURBO = 1, OBSTACLES = 2, TELEPORTS = 3, BLOCKS = 4;
+
+  private final int snakes;
+  private final AtomicLongArray counts;
+
+  public ScoreBoard(int snakes) {
+    this.snakes = snakes;
+    this.counts = new AtomicLongArray(snakes * STATS);
+  }
+
+  @Override
+  public void onEvent(long sequence, EventType type, int snake, int cell, boolean endOfBatch) {
+    if (snake < 0 || snake >= snakes) return;
+    int stat = switch (type) {
+      case ATE_MOUSE -> MICE;
+      case ATE_TURBO -> TURBO;
+      case HIT_OBSTACLE -> OBSTACLES;
+      case TELEPORTED -> TELEPORTS;
+      case BLOCKED -> BLOCKS;
+      default -> -1;
+    };
+    if (stat < 0) return;
+    int i = snake * STATS + stat;
+    counts.lazySet(i, counts.get(i) + 1);
+  }
+
+  public long mice(int snake) { return counts.get(snake * STATS + MICE); }
+  public long turbos(int snake) { return counts.get(snake * STATS + TURBO); }
+  public long obstacleHits(int snake) { return counts.get(snake * STATS + OBSTACLES); }
+  public long teleports(int snake) { return counts.get(snake * STATS + TELEPORTS); }
+
+  /**
+   * Moves of the snake blocked by another snake (or by its own body).
+   */
+  public long blocks(int snake) { return counts.get(snake * STATS + BLOCKS); }
+
+  /**
+   * Index of the snake that ate the most mice (the lowest index on ties), or -1 without snakes.
+   */
+  public int leader() {
+    int best = -1;
+    for (int s = 0; s < snakes; s++) {
+      if (best < 0 || mice(s) > mice(best)) best = s;
+    }
+    return best;
+  }
+}
@@ -0,0 +1,112 @@
+package co.eci.snake.core.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WaitStrategy - Como espera un EventProcessor a que se publique el siguiente evento
+ *
+ * - busySpin(): Thread.onSpinWait() sin soltar el nucleo (menor latencia, un nucleo ocupado)
+ * - yielding(): gira un rato y luego cede el procesador con Thread.yield()
+ * - sleeping(): gira, cede y finalmente duerme parkNanos (por defecto; casi sin CPU en reposo)
+ * - blocking(): Lock + Condition; los productores solo senalan si hay alguien esperando
+ *
+ * La estrategia es del EventRing: todos sus procesadores esperan igual y los productores
+ * llaman signalAll() tras cada publicacion (vacio salvo en blocking()).
+ */
+public interface WaitStrategy {
+  /**
+   * Waits a little for the given sequence to be published. attempt counts the consecutive
+   * calls without progress (0 on the first one); callers re-check the ring after every return.
+   */
+  void await(EventRing ring, long sequence, int attempt) throws InterruptedException;
+
+  /**
+   * Wakes up the processors waiting on this strategy.
+   */
+  default void signalAll() {
+  }
+
+  int SPIN_TRIES = 100;
+  int YIELD_TRIES = 100;
+
+  static WaitStrategy busySpin() {
+    return (ring, sequence, attempt) -> Thread.onSpinWait();
+  }
+
+  static WaitStrategy yielding() {
+    return (ring, sequence, attempt) -> {
+      if (attempt < SPIN_TRIES) Thread.onSpinWait();
+      else Thread.yield();
+    };
+  }
+
+  static WaitStrategy sleeping() {
+    return sleeping(TimeUnit.MICROSECONDS.toNanos(100));
+  }
+
+  static WaitStrategy sleeping(long parkNanos) {
+    return (ring, sequence, attempt) -> {
+      if (attempt < SPIN_TRIES) Thread.onSpinWait();
+      else if (attempt < SPIN_TRIES + YIELD_TRIES) Thread.yield();
+      else LockSupport.parkNanos(parkNanos);
+    };
+  }
+
+  static WaitStrategy blocking() {
+    return new Blocking();
+  }
+
+  static WaitStrategy parse(String name) {
+    if (name == null) return sleeping();
+    return switch (name.toLowerCase()) {
+      case "spin", "busy-spin" -> busySpin();
+      case "yield", "yielding" -> yielding();
+      case "sleep", "sleeping" -> sleeping();
+      case "block", "blocking" -> blocking();
+      default -> throw new IllegalArgumentException("unknown wait strategy: " + name);
+    };
+  }
+
+  /**
+   * Waits on a condition. The await is timed because a producer may read waiters before the
+   * consumer registers, so a missed signal costs at most MAX_WAIT_NANOS instead of hanging.
+   */
+  final class Blocking implements WaitStrategy {
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private volatile int waiters;
+
+    private Blocking() {}
+
+    @Override
+    public void await(EventRing ring, long sequence, int attempt) throws InterruptedException {
+      lock.lock();
+      try {
+        waiters++;
+        try {
+          if (!ring.isPublished(sequence)) published.awaitNanos(MAX_WAIT_NANOS);
+        } finally {
+          waiters--;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void signalAll() {
+      if (waiters == 0) return;
+      lock.lock();
+      try {
+        published.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package co.eci.snake.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * EngineEvents - Eventos JFR propios del motor (categoria "Snake Race")
+ *
+ * - Solo se crean en caminos lentos o una vez por tick: el camino caliente no asigna objetos
+ * - Ver con: java -XX:StartFlightRecording=filename=snake.jfr ... y jfr print --events co.eci.snake.* snake.jfr
+ */
+public final class EngineEvents {
+  /** Steps at or above this are reported as a JFR SlowStep event. */
+  public static final long SLOW_STEP_NANOS = 1_000_000;
+
+  private EngineEvents() {}
+
+  static void lockWait(String lock, long waitNanos) {
+    var e = new LockWait();
+    if (!e.isEnabled()) return;
+    e.lock = lock;
+    e.waitTime = waitNanos;
+    e.commit();
+  }
+
+  public static void slowStep(int snake, String result, long nanos) {
+    var e = new SlowStep();
+    if (!e.isEnabled()) return;
+    e.snake = snake;
+    e.result = result;
+    e.stepTime = nanos;
+    e.commit();
+  }
+
+  public static void tick(long tick, long jitterNanos, long fanOutNanos) {
+    var e = new Tick();
+    if (!e.isEnabled()) return;
+    e.tick = tick;
+    e.jitter = jitterNanos;
+    e.fanOut = fanOutNanos;
+    e.commit();
+  }
+
+  @Name("co.eci.snake.LockWait")
+  @Label("Lock Wait")
+  @Category({"Snake Race", "Engine"})
+  @Description("Long wait to acquire an engine lock")
+  @StackTrace(false)
+  public static final class LockWait extends Event {
+    @Label("Lock")
+    String lock;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+  }
+
+  @Name("co.eci.snake.SlowStep")
+  @Label("Slow Step")
+  @Category({"Snake Race", "Engine"})
+  @Description("Board.step() call slower than the slow-step threshold")
+  @StackTrace(false)
+  public static final class SlowStep extends Event {
+    @Label("Snake")
+    int snake;
+
+    @Label("Result")
+    String result;
+
+    @Label("Step Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long stepTime;
+  }
+
+  @Name("co.eci.snake.Tick")
+  @Label("Clock Tick")
+  @Category({"Snake Race", "Clock"})
+  @Description("One GameClock tick with its scheduling jitter and listener fan-out time")
+  @StackTrace(false)
+  public static final class Tick extends Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Jitter")
+    @Timespan(Timespan.NANOSECONDS)
+    long jitter;
+
+    @Label("Fan-out")
+    @Timespan(Timespan.NANOSECONDS)
+    long fanOut;
+  }
+}
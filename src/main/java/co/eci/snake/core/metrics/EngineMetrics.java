@@ -0,0 +1,153 @@
+package co.eci.snake.core.metrics;
+
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.Board;
+import co.eci.snake.core.engine.GameClock;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * EngineMetrics - Registro de metricas de una partida, expuesto por JMX
+ *
+ * - Latencia de Board.step() por SnakeRunner, espera/retencion de miceLock (o de los locks de
+ *   tile) y de itemGenerationLock, jitter y fan-out de GameClock, conteos por MoveResult
+ * - Cada componente graba en sus propios histogramas; este registro solo los agrega al leer
+ * - register()/unregister() publican la partida en el MBeanServer de la plataforma y en all()
+ * - -Dmetrics=false desactiva la medicion en el camino caliente (ENABLED es constante)
+ */
+public final class EngineMetrics implements EngineMetricsMXBean {
+  public static final boolean ENABLED = !"false".equals(System.getProperty("metrics"));
+
+  private static final Map<String, EngineMetrics> REGISTRY = new ConcurrentHashMap<>();
+
+  private final Board board;
+  private final List<SnakeRunner> runners;
+  private final GameClock clock;
+  private volatile String name;
+
+  public EngineMetrics(Board board, List<SnakeRunner> runners, GameClock clock) {
+    this.board = board;
+    this.runners = runners;
+    this.clock = clock;
+  }
+
+  /**
+   * Metrics of every registered session, by name.
+   */
+  public static Map<String, EngineMetrics> all() {
+    return Collections.unmodifiableMap(REGISTRY);
+  }
+
+  /**
+   * Publishes the metrics under co.eci.snake:type=Engine,name=&lt;name&gt;.
+   */
+  public void register(String name) {
+    if (this.name != null) return;
+    this.name = name;
+    REGISTRY.put(name, this);
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName(name));
+    } catch (JMException e) {
+      System.err.println("metrics not exported over JMX: " + e.getMessage());
+    }
+  }
+
+  public void unregister() {
+    String n = name;
+    if (n == null) return;
+    name = null;
+    REGISTRY.remove(n, this);
+    try {
+      var server = ManagementFactory.getPlatformMBeanServer();
+      var on = objectName(n);
+      if (server.isRegistered(on)) server.unregisterMBean(on);
+    } catch (JMException e) {
+      System.err.println("metrics not removed from JMX: " + e.getMessage());
+    }
+  }
+
+  private static ObjectName objectName(String name) throws JMException {
+    return new ObjectName("co.eci.snake:type=Engine,name=" + ObjectName.quote(name));
+  }
+
+  @Override
+  public long getClockTicks() { return clock.ticks(); }
+
+  @Override
+  public long getDroppedTicks() { return clock.droppedTicks(); }
+
+  @Override
+  public HistogramSummary getTickJitter() { return clock.jitter().summary(); }
+
+  @Override
+  public HistogramSummary getTickFanOut() { return clock.fanOut().summary(); }
+
+  @Override
+  public HistogramSummary getStepLatency() {
+    var merged = new LatencyHistogram();
+    for (SnakeRunner r : runners) merged.add(r.stepLatency());
+    return merged.summary();
+  }
+
+  @Override
+  public Map<String, HistogramSummary> getStepLatencyBySnake() {
+    var map = new LinkedHashMap<String, HistogramSummary>();
+    for (int i = 0; i < runners.size(); i++) map.put("snake-" + i, runners.get(i).stepLatency().summary());
+    return map;
+  }
+
+  @Override
+  public HistogramSummary getMiceLockWait() { return board.miceLockStats().waitTimes().summary(); }
+
+  @Override
+  public HistogramSummary getMiceLockHold() { return board.miceLockStats().holdTimes().summary(); }
+
+  @Override
+  public HistogramSummary getItemGenerationLockWait() { return board.itemGenerationLockStats().waitTimes().summary(); }
+
+  @Override
+  public HistogramSummary getItemGenerationLockHold() { return board.itemGenerationLockStats().holdTimes().summary(); }
+
+  @Override
+  public Map<String, Long> getMoveResults() {
+    var map = new LinkedHashMap<String, Long>();
+    for (var res : Board.MoveResult.values()) {
+      long n = 0;
+      for (SnakeRunner r : runners) n += r.resultCount(res);
+      map.put(res.name(), n);
+    }
+    return map;
+  }
+
+  @Override
+  public void reset() {
+    for (SnakeRunner r : runners) r.resetStats();
+    board.miceLockStats().reset();
+    board.itemGenerationLockStats().reset();
+    clock.jitter().reset();
+    clock.fanOut().reset();
+  }
+
+  /**
+   * Multi-line text report, e.g. for the headless mode.
+   */
+  public String format() {
+    var sb = new StringBuilder();
+    sb.append("step latency:        ").append(getStepLatency().format()).append('\n');
+    sb.append("miceLock wait:       ").append(getMiceLockWait().format()).append('\n');
+    sb.append("miceLock hold:       ").append(getMiceLockHold().format()).append('\n');
+    sb.append("itemGenLock wait:    ").append(getItemGenerationLockWait().format()).append('\n');
+    sb.append("itemGenLock hold:    ").append(getItemGenerationLockHold().format()).append('\n');
+    sb.append("clock jitter:        ").append(getTickJitter().format()).append('\n');
+    sb.append("clock fan-out:       ").append(getTickFanOut().format()).append('\n');
+    sb.append("move results:        ").append(getMoveResults());
+    return sb.toString();
+  }
+}
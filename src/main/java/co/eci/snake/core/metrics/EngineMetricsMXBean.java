@@ -0,0 +1,34 @@
+package co.eci.snake.core.metrics;
+
+import java.util.Map;
+
+/**
+ * Vista JMX de EngineMetrics (ObjectName co.eci.snake:type=Engine,name=...). Tiempos en nanosegundos.
+ */
+public interface EngineMetricsMXBean {
+  long getClockTicks();
+
+  /** Ticks the clock skipped after falling too far behind. */
+  long getDroppedTicks();
+
+  HistogramSummary getTickJitter();
+
+  HistogramSummary getTickFanOut();
+
+  /** Board.step() latency merged over all runners. */
+  HistogramSummary getStepLatency();
+
+  Map<String, HistogramSummary> getStepLatencyBySnake();
+
+  HistogramSummary getMiceLockWait();
+
+  HistogramSummary getMiceLockHold();
+
+  HistogramSummary getItemGenerationLockWait();
+
+  HistogramSummary getItemGenerationLockHold();
+
+  Map<String, Long> getMoveResults();
+
+  void reset();
+}
@@ -0,0 +1,46 @@
+package co.eci.snake.core.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Resumen inmutable de un LatencyHistogram (nanosegundos). Se expone por JMX como CompositeData.
+ */
+public final class HistogramSummary {
+  private final long count;
+  private final double mean;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  @ConstructorProperties({"count", "mean", "p50", "p90", "p99", "p999", "max"})
+  public HistogramSummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+    this.count = count;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  public long getCount() { return count; }
+  public double getMean() { return mean; }
+  public long getP50() { return p50; }
+  public long getP90() { return p90; }
+  public long getP99() { return p99; }
+  public long getP999() { return p999; }
+  public long getMax() { return max; }
+
+  /**
+   * One-line rendering in microseconds.
+   */
+  public String format() {
+    return String.format("n=%d avg=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f us",
+        count, mean / 1e3, p50 / 1e3, p90 / 1e3, p99 / 1e3, p999 / 1e3, max / 1e3);
+  }
+
+  @Override
+  public String toString() { return format(); }
+}
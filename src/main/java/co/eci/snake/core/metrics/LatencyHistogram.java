@@ -0,0 +1,101 @@
+package co.eci.snake.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - Histograma log-lineal de latencias en nanosegundos (estilo HDR)
+ *
+ * - Valores < 16 tienen un bucket propio; desde 16 cada potencia de dos se divide en 8 buckets
+ *   (error relativo maximo 12.5%) hasta 2^63
+ * - record() no asigna memoria: un incremento atomico en un AtomicLongArray de tamano fijo
+ * - Seguro con varios escritores; los lectores ven una vista debilmente consistente
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int LINEAR = 2 * SUB_BUCKETS;
+  static final int BUCKETS = LINEAR + (63 - (SUB_BITS + 1)) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records one sample; negative values count as 0.
+   */
+  public void record(long nanos) {
+    long v = Math.max(0, nanos);
+    counts.incrementAndGet(bucketOf(v));
+    total.incrementAndGet();
+    sum.addAndGet(v);
+    long m;
+    while (v > (m = max.get()) && !max.compareAndSet(m, v)) { }
+  }
+
+  public long count() { return total.get(); }
+
+  public long max() { return max.get(); }
+
+  public double mean() {
+    long n = total.get();
+    return n == 0 ? 0 : (double) sum.get() / n;
+  }
+
+  /**
+   * Upper bound of the bucket holding the q-th quantile (0 < q <= 1), or 0 if empty.
+   */
+  public long percentile(double q) {
+    long n = total.get();
+    if (n == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(q * n));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) return Math.min(upperBound(i), max.get());
+    }
+    return max.get();
+  }
+
+  /**
+   * Adds the samples of other into this histogram.
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      long c = other.counts.get(i);
+      if (c != 0) counts.addAndGet(i, c);
+    }
+    total.addAndGet(other.total.get());
+    sum.addAndGet(other.sum.get());
+    long v = other.max.get(), m;
+    while (v > (m = max.get()) && !max.compareAndSet(m, v)) { }
+  }
+
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+    total.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  public HistogramSummary summary() {
+    return new HistogramSummary(count(), mean(), percentile(0.50), percentile(0.90), percentile(0.99),
+        percentile(0.999), max());
+  }
+
+  static int bucketOf(long v) {
+    if (v < LINEAR) return (int) v;
+    int exp = 63 - Long.numberOfLeadingZeros(v);
+    int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR + (exp - (SUB_BITS + 1)) * SUB_BUCKETS + sub;
+  }
+
+  static long upperBound(int bucket) {
+    if (bucket < LINEAR) return bucket;
+    int exp = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+    int sub = (bucket - LINEAR) % SUB_BUCKETS;
+    long lower = (long) (SUB_BUCKETS + sub) << (exp - SUB_BITS);
+    return lower + (1L << (exp - SUB_BITS)) - 1;
+  }
+}
@@ -0,0 +1,38 @@
+package co.eci.snake.core.metrics;
+
+/**
+ * LockStats - Tiempo de espera y de retencion de un lock del motor
+ *
+ * - Las esperas largas (>= SLOW_WAIT_NANOS) ademas se emiten como evento JFR
+ */
+public final class LockStats {
+  /** Waits at or above this are reported as a JFR LockWait event. */
+  public static final long SLOW_WAIT_NANOS = 50_000;
+
+  private final String name;
+  private final LatencyHistogram wait = new LatencyHistogram();
+  private final LatencyHistogram hold = new LatencyHistogram();
+
+  public LockStats(String name) {
+    this.name = name;
+  }
+
+  public String name() { return name; }
+
+  public void recordWait(long nanos) {
+    wait.record(nanos);
+    if (nanos >= SLOW_WAIT_NANOS) EngineEvents.lockWait(name, nanos);
+  }
+
+  public void recordHold(long nanos) {
+    hold.record(nanos);
+  }
+
+  public LatencyHistogram waitTimes() { return wait; }
+  public LatencyHistogram holdTimes() { return hold; }
+
+  public void reset() {
+    wait.reset();
+    hold.reset();
+  }
+}
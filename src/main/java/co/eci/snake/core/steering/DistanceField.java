@@ -0,0 +1,297 @@
+package co.eci.snake.core.steering;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.CellBitSet;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DistanceField - Distancia en pasos desde cada celda hasta el raton mas cercano
+ *
+ * - BFS multi-fuente sobre el grafo de movimientos de Board.step(): respeta el wrap del tablero,
+ *   los teleports (entrar a una celda teleport deja la cabeza en su pareja) y los obstaculos
+ * - Compartido por todas las serpientes de un tablero; se actualiza incrementalmente con los
+ *   avisos de Board.CellListener en lugar de recalcularse por serpiente o por tick:
+ *   - raton nuevo: propagacion decreciente desde esa celda
+ *   - raton comido u obstaculo nuevo: se invalidan solo las celdas cuyo camino mas corto dependia
+ *     de esa celda y se reparan desde el borde valido (Dijkstra con pesos unitarios)
+ * - Los avisos marcan la celda en un CellBitSet de celdas sucias (un CAS, sin asignar nada en el
+ *   step que comio o hizo aparecer el item); sync() las aplica en el hilo que logre el candado y
+ *   los demas siguen leyendo el campo anterior (una lectura vieja solo empeora una decision, nunca
+ *   rompe el juego). Cada celda se aplica con su estado actual en el tablero, asi que varios avisos
+ *   de la misma celda cuentan como uno y el orden no cambia el resultado
+ * - El grafo ignora que una serpiente no puede invertir su direccion
+ */
+public final class DistanceField implements Board.CellListener, AutoCloseable {
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private static final byte FREE = 0, MOUSE = 1, OBSTACLE = 2;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final Board board;
+  private final int width;
+  private final int height;
+  // Solo se escriben con updateLock; las lecturas de steering no se sincronizan
+  private final int[] dist;
+  private final byte[] kind;
+  private final int[] teleport;
+
+  private final CellBitSet dirty;
+  private final ReentrantLock updateLock = new ReentrantLock();
+  // Memoria de trabajo de las actualizaciones (protegida por updateLock)
+  private final int[] invalidStamp;
+  private int stamp;
+  private int[] queue = new int[64];
+  private int[] invalid = new int[64];
+  private final LongHeap heap = new LongHeap();
+  private final int[] preds = new int[DIRECTIONS.length];
+
+  public DistanceField(Board board) {
+    this.board = board;
+    this.width = board.width();
+    this.height = board.height();
+    int cells = width * height;
+    this.dist = new int[cells];
+    this.kind = new byte[cells];
+    this.teleport = new int[cells];
+    this.invalidStamp = new int[cells];
+    this.dirty = new CellBitSet(width, height);
+    // Se escucha antes de leer el tablero: un cambio concurrente queda encolado para sync()
+    board.addCellListener(this);
+    updateLock.lock();
+    try {
+      Arrays.fill(dist, UNREACHABLE);
+      int tail = 0;
+      for (int c = 0; c < cells; c++) {
+        teleport[c] = board.teleportTarget(c);
+        kind[c] = kindOnBoard(c);
+        if (kind[c] == MOUSE) {
+          dist[c] = 0;
+          queue = push(queue, tail++, c);
+        }
+      }
+      propagate(0, tail);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  @Override
+  public void cellChanged(int cell) {
+    dirty.add(cell);
+  }
+
+  /**
+   * Applies the queued board changes, unless another thread is already doing it.
+   */
+  public void sync() {
+    if (dirty.size() == 0 || !updateLock.tryLock()) return;
+    try {
+      // Se desmarca antes de aplicar: un aviso que llega despues vuelve a marcarla para el proximo sync()
+      for (int c = dirty.nextSetBit(0); c >= 0; c = dirty.size() == 0 ? -1 : dirty.nextSetBit(c + 1)) {
+        if (dirty.remove(c)) apply(c);
+      }
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Steps from cell to the nearest mouse, or UNREACHABLE.
+   */
+  public int distance(int cell) { return dist[cell]; }
+
+  /**
+   * Distance to the nearest mouse after moving the head (packed position) one step in dir;
+   * UNREACHABLE when that step hits an obstacle or no mouse can be reached.
+   */
+  public int distanceAfter(int packedHead, Direction dir) {
+    int x = Position.wrapCoord(Position.unpackX(packedHead) + dir.dx, width);
+    int y = Position.wrapCoord(Position.unpackY(packedHead) + dir.dy, height);
+    int entry = y * width + x;
+    if (kind[entry] == OBSTACLE) return UNREACHABLE;
+    int t = teleport[entry];
+    return dist[t >= 0 ? t : entry];
+  }
+
+  private byte kindOnBoard(int c) {
+    if (board.hasObstacle(c)) return OBSTACLE;
+    return board.hasMouse(c) ? MOUSE : FREE;
+  }
+
+  private void apply(int c) {
+    byte now = kindOnBoard(c);
+    if (now == kind[c]) return;
+    kind[c] = now;
+    if (now == MOUSE) {
+      dist[c] = 0;
+      queue = push(queue, 0, c);
+      propagate(0, 1);
+    } else {
+      raise(c);
+    }
+  }
+
+  /**
+   * BFS over predecessors from queue[head, tail), lowering distances only.
+   */
+  private void propagate(int head, int tail) {
+    while (head < tail) {
+      int u = queue[head++];
+      int next = dist[u] + 1;
+      int n = predecessors(u);
+      for (int i = 0; i < n; i++) {
+        int p = preds[i];
+        if (dist[p] > next) {
+          dist[p] = next;
+          queue = push(queue, tail++, p);
+        }
+      }
+    }
+  }
+
+  /**
+   * Cell c stopped being a mouse or became an obstacle: invalidates every cell whose shortest
+   * path relied on it and repairs them from the still valid cells around.
+   */
+  private void raise(int c) {
+    if (++stamp == 0) {
+      Arrays.fill(invalidStamp, 0);
+      stamp = 1;
+    }
+    int count = 0;
+    invalidStamp[c] = stamp;
+    dist[c] = UNREACHABLE;
+    invalid = push(invalid, count++, c);
+    for (int head = 0; head < count; head++) {
+      int u = invalid[head];
+      int n = predecessors(u);
+      for (int i = 0; i < n; i++) {
+        int p = preds[i];
+        if (invalidStamp[p] == stamp || kind[p] == MOUSE || dist[p] == UNREACHABLE) continue;
+        if (!supported(p)) {
+          invalidStamp[p] = stamp;
+          dist[p] = UNREACHABLE;
+          invalid = push(invalid, count++, p);
+        }
+      }
+    }
+
+    // Reparacion: cada celda invalidada parte de su mejor sucesor valido
+    heap.clear();
+    for (int i = 0; i < count; i++) {
+      int v = invalid[i];
+      if (kind[v] == OBSTACLE) continue;
+      int best = bestSuccessor(v);
+      if (best != UNREACHABLE) heap.add((long) (best + 1) << 32 | v);
+    }
+    while (!heap.isEmpty()) {
+      long e = heap.poll();
+      int d = (int) (e >>> 32), v = (int) e;
+      if (d >= dist[v]) continue;
+      dist[v] = d;
+      int n = predecessors(v);
+      for (int i = 0; i < n; i++) {
+        int p = preds[i];
+        if (dist[p] > d + 1) heap.add((long) (d + 1) << 32 | p);
+      }
+    }
+  }
+
+  // p conserva su distancia si algun sucesor no invalidado esta exactamente un paso mas cerca
+  private boolean supported(int p) {
+    int want = dist[p] - 1;
+    int px = p % width, py = p / width;
+    for (Direction d : DIRECTIONS) {
+      int s = successor(px, py, d);
+      if (s >= 0 && invalidStamp[s] != stamp && dist[s] == want) return true;
+    }
+    return false;
+  }
+
+  private int bestSuccessor(int v) {
+    int best = UNREACHABLE;
+    int vx = v % width, vy = v / width;
+    for (Direction d : DIRECTIONS) {
+      int s = successor(vx, vy, d);
+      if (s >= 0 && dist[s] < best) best = dist[s];
+    }
+    return best;
+  }
+
+  // Celda donde queda la cabeza al moverse desde (x, y) en d, o -1 si choca con un obstaculo
+  private int successor(int x, int y, Direction d) {
+    int entry = Position.wrapCoord(y + d.dy, height) * width + Position.wrapCoord(x + d.dx, width);
+    if (kind[entry] == OBSTACLE) return -1;
+    int t = teleport[entry];
+    return t >= 0 ? t : entry;
+  }
+
+  /**
+   * Fills preds with the cells from which one step lands on u; returns how many.
+   */
+  private int predecessors(int u) {
+    // A una celda teleport se llega entrando a su pareja
+    int anchor = teleport[u] >= 0 ? teleport[u] : u;
+    int ax = anchor % width, ay = anchor / width;
+    int n = 0;
+    for (Direction d : DIRECTIONS) {
+      int p = Position.wrapCoord(ay - d.dy, height) * width + Position.wrapCoord(ax - d.dx, width);
+      if (kind[p] != OBSTACLE) preds[n++] = p;
+    }
+    return n;
+  }
+
+  private static int[] push(int[] a, int i, int v) {
+    if (i == a.length) a = Arrays.copyOf(a, a.length * 2);
+    a[i] = v;
+    return a;
+  }
+
+  @Override
+  public void close() {
+    board.removeCellListener(this);
+  }
+
+  /**
+   * Min-heap of longs (distance << 32 | cell) without boxing.
+   */
+  private static final class LongHeap {
+    private long[] a = new long[64];
+    private int size;
+
+    void clear() { size = 0; }
+    boolean isEmpty() { return size == 0; }
+
+    void add(long v) {
+      if (size == a.length) a = Arrays.copyOf(a, size * 2);
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (a[parent] <= v) break;
+        a[i] = a[parent];
+        i = parent;
+      }
+      a[i] = v;
+    }
+
+    long poll() {
+      long top = a[0];
+      long last = a[--size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) break;
+        if (child + 1 < size && a[child + 1] < a[child]) child++;
+        if (a[child] >= last) break;
+        a[i] = a[child];
+        i = child;
+      }
+      if (size > 0) a[i] = last;
+      return top;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package co.eci.snake.core.steering;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Va hacia el raton mas cercano siguiendo un DistanceField compartido.
+ *
+ * - Elige la direccion cuyo paso deja la cabeza mas cerca de un raton (nunca la opuesta, que
+ *   Snake.turn ignoraria); en empate conserva la direccion actual
+ * - Sin ningun raton alcanzable se comporta como RandomSteering
+ */
+public final class GoalSeekingSteering implements SteeringStrategy {
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final DistanceField field;
+
+  public GoalSeekingSteering(DistanceField field) {
+    this.field = field;
+  }
+
+  public DistanceField field() { return field; }
+
+  @Override
+  public Direction steer(Snake snake, RandomGenerator rng, boolean turbo) {
+    field.sync();
+    int head = snake.headPacked();
+    Direction current = snake.direction();
+    Direction best = null;
+    int bestDist = DistanceField.UNREACHABLE;
+    for (Direction d : DIRECTIONS) {
+      if (d.dx == -current.dx && d.dy == -current.dy) continue;
+      int dist = field.distanceAfter(head, d);
+      if (dist < bestDist || (dist == bestDist && dist != DistanceField.UNREACHABLE && d == current)) {
+        best = d;
+        bestDist = dist;
+      }
+    }
+    if (best == null) return RandomSteering.INSTANCE.steer(snake, rng, turbo);
+    return best == current ? null : best;
+  }
+
+  @Override
+  public Direction onBlocked(Snake snake, RandomGenerator rng) {
+    Direction d = steer(snake, rng, false);
+    return d != null ? d : RandomSteering.randomDirection(rng);
+  }
+}
@@ -0,0 +1,28 @@
+package co.eci.snake.core.steering;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Direccion original del laboratorio: gira al azar con probabilidad 10% por paso (5% con turbo).
+ * Consume el generador en el mismo orden que antes, asi las partidas con semilla no cambian.
+ */
+public final class RandomSteering implements SteeringStrategy {
+  public static final RandomSteering INSTANCE = new RandomSteering();
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private RandomSteering() {}
+
+  @Override
+  public Direction steer(Snake snake, RandomGenerator rng, boolean turbo) {
+    double p = turbo ? 0.05 : 0.10;
+    return rng.nextDouble() < p ? randomDirection(rng) : null;
+  }
+
+  static Direction randomDirection(RandomGenerator rng) {
+    return DIRECTIONS[rng.nextInt(DIRECTIONS.length)];
+  }
+}
@@ -0,0 +1,28 @@
+package co.eci.snake.core.steering;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decide hacia donde gira una serpiente; SnakeRunner la consulta antes de cada paso.
+ * Una misma instancia puede ser compartida por varios runners en hilos distintos.
+ */
+@FunctionalInterface
+public interface SteeringStrategy {
+  /** Never turns on its own (snakes driven by a player); obstacles still bounce it randomly. */
+  SteeringStrategy MANUAL = (snake, rng, turbo) -> null;
+
+  /**
+   * Direction for the next move of snake, or null to keep the current one.
+   */
+  Direction steer(Snake snake, RandomGenerator rng, boolean turbo);
+
+  /**
+   * Direction after snake bumped into an obstacle, or null to keep it; random by default.
+   */
+  default Direction onBlocked(Snake snake, RandomGenerator rng) {
+    return RandomSteering.randomDirection(rng);
+  }
+}
@@ -0,0 +1,301 @@
+package co.eci.snake.net;
+
+import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.engine.FrameSnapshot;
+import co.eci.snake.core.engine.GameClock;
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.steering.SteeringStrategy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ArenaServer - Servidor multijugador NIO de una GameSession (ver Protocol)
+ *
+ * - Un solo hilo con un Selector atiende todas las conexiones: aceptar, leer comandos y escribir
+ * - Tras cada tick del GameClock (listener) el hilo del selector toma el ultimo FrameSnapshot,
+ *   codifica un DELTA una sola vez y encola el mismo buffer (de solo lectura) a cada cliente
+ * - Cada cliente tiene a lo sumo MAX_QUEUED_BYTES pendientes: si un delta no cabe se descartan
+ *   los mensajes aun no empezados y, cuando la cola se vacia, recibe un KEYFRAME para resincronizar
+ * - Los clientes empiezan como espectadores; JOIN les asigna una serpiente libre, que deja de
+ *   girar sola (solo obedece TURN) hasta que el jugador se desconecta
+ */
+public final class ArenaServer implements AutoCloseable, GameClock.GameClockListener {
+  public static final int MAX_QUEUED_BYTES = 256 * 1024;
+
+  private final GameSession session;
+  private final Selector selector;
+  private final ServerSocketChannel server;
+  private final List<Client> clients = new ArrayList<>();
+  private final Client[] players;
+  private final SteeringStrategy[] ownSteering;
+  private final DeltaEncoder encoder;
+  private final Thread thread;
+  private volatile boolean tickPending;
+  private volatile boolean closed;
+  private long lastSequence = -1;
+  private volatile long bytesSent;
+  private volatile long resyncs;
+
+  public ArenaServer(GameSession session, int port) throws IOException {
+    this.session = session;
+    this.players = new Client[session.snakes().size()];
+    this.ownSteering = new SteeringStrategy[players.length];
+    this.encoder = new DeltaEncoder(session.board().width(), session.board().itemWords());
+    this.selector = Selector.open();
+    this.server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(port));
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+    session.clock().addListener(this);
+    this.thread = new Thread(this::loop, "arena-server");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Port actually bound (useful when created with port 0).
+   */
+  public int port() {
+    return server.socket().getLocalPort();
+  }
+
+  public int clientCount() {
+    synchronized (clients) {
+      return clients.size();
+    }
+  }
+
+  public long bytesSent() { return bytesSent; }
+
+  /**
+   * Times a slow client dropped its queued deltas and had to be resynchronized with a keyframe.
+   */
+  public long resyncs() { return resyncs; }
+
+  @Override
+  public void onTick() {
+    tickPending = true;
+    selector.wakeup();
+  }
+
+  private void loop() {
+    try {
+      while (!closed) {
+        selector.select();
+        if (tickPending) {
+          tickPending = false;
+          broadcast();
+        }
+        var it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+          var key = it.next();
+          it.remove();
+          if (!key.isValid()) continue;
+          if (key.isAcceptable()) accept();
+          else {
+            var c = (Client) key.attachment();
+            try {
+              if (key.isReadable()) read(c);
+              if (key.isValid() && key.isWritable()) flush(c);
+            } catch (IOException | RuntimeException e) {
+              drop(c);
+            }
+          }
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      if (!closed) System.err.println("arena server stopped: " + e.getMessage());
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel ch;
+    while ((ch = server.accept()) != null) {
+      ch.configureBlocking(false);
+      ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      var c = new Client(ch);
+      c.key = ch.register(selector, SelectionKey.OP_READ, c);
+      synchronized (clients) {
+        clients.add(c);
+      }
+      try {
+        enqueue(c, welcome(-1));
+      } catch (IOException e) {
+        drop(c);
+      }
+    }
+  }
+
+  private void read(Client c) throws IOException {
+    int n = c.channel.read(c.in);
+    if (n < 0) {
+      drop(c);
+      return;
+    }
+    c.in.flip();
+    while (c.in.remaining() >= Protocol.CLIENT_MESSAGE_BYTES) {
+      byte type = c.in.get();
+      byte arg = c.in.get();
+      switch (type) {
+        case Protocol.JOIN -> join(c);
+        case Protocol.TURN -> {
+          if (c.snake >= 0 && arg >= 0 && arg < Direction.count()) {
+            session.turn(c.snake, Direction.of(arg));
+          }
+        }
+        default -> throw new IOException("unknown message " + type);
+      }
+    }
+    c.in.compact();
+  }
+
+  private void join(Client c) throws IOException {
+    if (c.snake < 0) {
+      for (int i = 0; i < players.length; i++) {
+        if (players[i] == null) {
+          players[i] = c;
+          c.snake = i;
+          SnakeRunner runner = session.runners().get(i);
+          ownSteering[i] = runner.steering();
+          runner.steering(SteeringStrategy.MANUAL);
+          break;
+        }
+      }
+    }
+    enqueue(c, welcome(c.snake));
+  }
+
+  private ByteBuffer welcome(int snake) {
+    var b = ByteBuffer.allocate(Integer.BYTES + 1 + 4 * Integer.BYTES);
+    b.putInt(1 + 4 * Integer.BYTES).put(Protocol.WELCOME).putInt(snake)
+        .putInt(session.board().width()).putInt(session.board().height()).putInt(players.length);
+    return b.flip();
+  }
+
+  private void broadcast() {
+    FrameSnapshot f = session.frames().acquire();
+    if (f == null) return;
+    try {
+      if (f.sequence() == lastSequence) return;
+      lastSequence = f.sequence();
+      ByteBuffer delta = encoder.delta(f);
+      ByteBuffer keyframe = null;
+      List<Client> snapshot;
+      synchronized (clients) {
+        snapshot = List.copyOf(clients);
+      }
+      for (Client c : snapshot) {
+        try {
+          if (c.needsKeyframe) {
+            // El keyframe solo se envia con la cola vacia: asi nunca supera el limite por acumulacion
+            if (!c.out.isEmpty()) continue;
+            if (keyframe == null) keyframe = encoder.keyframe(f);
+            c.needsKeyframe = false;
+            enqueue(c, keyframe.duplicate());
+          } else if (c.queued + delta.remaining() > MAX_QUEUED_BYTES) {
+            dropQueued(c);
+          } else {
+            enqueue(c, delta.duplicate());
+          }
+        } catch (IOException e) {
+          drop(c);
+        }
+      }
+    } finally {
+      session.frames().release(f);
+    }
+  }
+
+  // Conserva solo el mensaje a medio escribir para no romper el framing del flujo
+  private void dropQueued(Client c) {
+    ByteBuffer partial = c.out.peekFirst();
+    boolean keepHead = partial != null && partial.position() > 0;
+    c.out.clear();
+    c.queued = 0;
+    if (keepHead) {
+      c.out.add(partial);
+      c.queued = partial.remaining();
+    }
+    c.needsKeyframe = true;
+    resyncs++;
+  }
+
+  private void enqueue(Client c, ByteBuffer msg) throws IOException {
+    c.out.add(msg);
+    c.queued += msg.remaining();
+    flush(c);
+  }
+
+  private void flush(Client c) throws IOException {
+    ByteBuffer head;
+    while ((head = c.out.peekFirst()) != null) {
+      int n = c.channel.write(head);
+      c.queued -= n;
+      bytesSent += n;
+      if (head.hasRemaining()) break;
+      c.out.pollFirst();
+    }
+    int ops = c.out.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+    if (c.key.isValid() && c.key.interestOps() != ops) c.key.interestOps(ops);
+  }
+
+  private void drop(Client c) {
+    synchronized (clients) {
+      clients.remove(c);
+    }
+    if (c.snake >= 0) {
+      players[c.snake] = null;
+      session.runners().get(c.snake).steering(ownSteering[c.snake]);
+      ownSteering[c.snake] = null;
+      c.snake = -1;
+    }
+    c.key.cancel();
+    try {
+      c.channel.close();
+    } catch (IOException ignored) {
+      // ya se esta descartando el cliente
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    session.clock().removeListener(this);
+    try {
+      selector.close();
+      server.close();
+      synchronized (clients) {
+        for (Client c : clients) c.channel.close();
+        clients.clear();
+      }
+    } catch (IOException e) {
+      System.err.println("arena server close failed: " + e.getMessage());
+    }
+  }
+
+  private static final class Client {
+    final SocketChannel channel;
+    final ByteBuffer in = ByteBuffer.allocate(64);
+    final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+    SelectionKey key;
+    int queued;
+    int snake = -1;
+    boolean needsKeyframe = true;
+
+    Client(SocketChannel channel) {
+      this.channel = channel;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package co.eci.snake.net;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * DeltaDecoder - Estado del lado del cliente reconstruido a partir de KEYFRAME y DELTA
+ *
+ * - Capas de items como bitmaps y cuerpos como arreglos de celdas (la cabeza primero)
+ * - Un DELTA solo se acepta despues de un KEYFRAME; uno que no cuadra con el estado actual
+ *   lanza IllegalStateException (el cliente deberia reconectarse)
+ */
+public final class DeltaDecoder {
+  private static final int LAYERS = 3;
+
+  private final int width;
+  private final int height;
+  private final long[][] layers;
+  private int[][] bodies = new int[0][];
+  private int[] lengths = new int[0];
+  private byte[] directions = new byte[0];
+  private int snakeCount;
+  private int[] teleports = new int[0];
+  private long tick = -1;
+  private boolean synced;
+
+  public DeltaDecoder(int width, int height) {
+    this.width = width;
+    this.height = height;
+    int words = (width * height + 63) >>> 6;
+    this.layers = new long[LAYERS][words];
+  }
+
+  public int width() { return width; }
+  public int height() { return height; }
+
+  /**
+   * Tick of the last applied frame, or -1 before the first keyframe.
+   */
+  public long tick() { return tick; }
+
+  public boolean synced() { return synced; }
+
+  /**
+   * Applies the body of a KEYFRAME (without length and type).
+   */
+  public void applyKeyframe(ByteBuffer in) {
+    tick = Protocol.readVarLong(in);
+    for (long[] layer : layers) {
+      Arrays.fill(layer, 0);
+      int n = Protocol.readVarInt(in);
+      int c = 0;
+      for (int i = 0; i < n; i++) {
+        c += Protocol.readVarInt(in);
+        set(layer, c, true);
+      }
+    }
+    int pairs = Protocol.readVarInt(in);
+    teleports = new int[pairs * 2];
+    for (int i = 0; i < teleports.length; i++) teleports[i] = cell(Protocol.readVarInt(in));
+    ensureSnakes(Protocol.readVarInt(in));
+    for (int s = 0; s < snakeCount; s++) {
+      directions[s] = in.get();
+      int len = Protocol.readVarInt(in);
+      int[] body = body(s, len);
+      for (int i = 0; i < len; i++) body[i] = cell(Protocol.readVarInt(in));
+      lengths[s] = len;
+    }
+    synced = true;
+  }
+
+  /**
+   * Applies the body of a DELTA (without length and type).
+   */
+  public void applyDelta(ByteBuffer in) {
+    if (!synced) throw new IllegalStateException("delta before keyframe");
+    tick = Protocol.readVarLong(in);
+    for (long[] layer : layers) {
+      // Primero las celdas agregadas, luego las quitadas
+      for (int pass = 0; pass < 2; pass++) {
+        boolean add = pass == 0;
+        int n = Protocol.readVarInt(in);
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+          c += Protocol.readVarInt(in);
+          if (get(layer, cell(c)) == add) throw new IllegalStateException("item delta does not match at cell " + c);
+          set(layer, c, add);
+        }
+      }
+    }
+    int n = Protocol.readVarInt(in);
+    int before = snakeCount;
+    ensureSnakes(n);
+    for (int s = 0; s < n; s++) {
+      directions[s] = in.get();
+      int heads = Protocol.readVarInt(in);
+      int[] added = new int[heads];
+      for (int i = 0; i < heads; i++) added[i] = cell(Protocol.readVarInt(in));
+      int tails = Protocol.readVarInt(in);
+      int kept = (s < before ? lengths[s] : 0) - tails;
+      if (kept < 0) throw new IllegalStateException("snake " + s + " loses more cells than it has");
+      int len = heads + kept;
+      int[] old = s < before ? bodies[s] : new int[0];
+      int[] body = new int[Math.max(8, len)];
+      System.arraycopy(added, 0, body, 0, heads);
+      System.arraycopy(old, 0, body, heads, kept);
+      bodies[s] = body;
+      lengths[s] = len;
+    }
+  }
+
+  public boolean contains(int layer, int cell) { return get(layers[layer], cell); }
+
+  public int snakeCount() { return snakeCount; }
+  public int snakeLength(int snake) { return lengths[snake]; }
+  public int direction(int snake) { return directions[snake]; }
+
+  /**
+   * Cell (y*width + x) of the given segment, 0 being the head.
+   */
+  public int segment(int snake, int index) { return bodies[snake][index]; }
+
+  public int teleportCount() { return teleports.length / 2; }
+
+  private void ensureSnakes(int n) {
+    if (bodies.length < n) {
+      bodies = Arrays.copyOf(bodies, n);
+      lengths = Arrays.copyOf(lengths, n);
+      directions = Arrays.copyOf(directions, n);
+    }
+    snakeCount = n;
+  }
+
+  private int[] body(int s, int len) {
+    if (bodies[s] == null || bodies[s].length < len) bodies[s] = new int[Math.max(8, len)];
+    return bodies[s];
+  }
+
+  private int cell(int c) {
+    if (c < 0 || c >= width * height) throw new IllegalStateException("cell out of board: " + c);
+    return c;
+  }
+
+  private static boolean get(long[] words, int c) {
+    return (words[c >>> 6] & (1L << c)) != 0;
+  }
+
+  private void set(long[] words, int c, boolean on) {
+    cell(c);
+    if (on) words[c >>> 6] |= 1L << c;
+    else words[c >>> 6] &= ~(1L << c);
+  }
+}
@@ -0,0 +1,182 @@
+package co.eci.snake.net;
+
+import co.eci.snake.core.Position;
+import co.eci.snake.core.engine.FrameSnapshot;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * DeltaEncoder - Codifica frames como KEYFRAME o como DELTA respecto del ultimo frame codificado
+ *
+ * - Guarda una copia de los bitmaps de items y de los cuerpos del ultimo delta: la diferencia de
+ *   items es un XOR por palabra y la de cada serpiente se deduce buscando su cabeza anterior
+ * - Si una serpiente no se puede alinear con su cuerpo anterior se envia el cuerpo completo
+ *   (cabezas = largo, colas = largo anterior), que el cliente aplica igual que un delta normal
+ * - Un solo hilo (el del selector); el buffer de salida se reutiliza y cada mensaje se entrega
+ *   como una copia de solo lectura compartida por todos los clientes
+ */
+final class DeltaEncoder {
+  private static final FrameSnapshot.Layer[] LAYERS = FrameSnapshot.Layer.values();
+
+  private final int width;
+  private final long[][] prev;
+  private final long[] cur;
+  private int[][] prevBodies = new int[0][];
+  private int[] prevLengths = new int[0];
+  private byte[] buf = new byte[4096];
+  private int pos;
+
+  DeltaEncoder(int width, int words) {
+    this.width = width;
+    this.prev = new long[LAYERS.length][words];
+    this.cur = new long[words];
+  }
+
+  /**
+   * Full state of f. Does not change the base of the next delta.
+   */
+  ByteBuffer keyframe(FrameSnapshot f) {
+    begin(Protocol.KEYFRAME);
+    putVarLong(f.tick());
+    for (var layer : LAYERS) {
+      f.copyWords(layer, cur);
+      putVarInt(bits(cur));
+      putCells(cur, null);
+    }
+    putVarInt(f.teleportCount());
+    for (int i = 0; i < f.teleportCount(); i++) {
+      putVarInt(f.teleportFrom(i));
+      putVarInt(f.teleportTo(i));
+    }
+    putVarInt(f.snakeCount());
+    for (int s = 0; s < f.snakeCount(); s++) {
+      put((byte) f.snakeDirection(s).ordinal());
+      int len = f.snakeLength(s);
+      putVarInt(len);
+      for (int i = 0; i < len; i++) putVarInt(cell(f.segment(s, i)));
+    }
+    return end();
+  }
+
+  /**
+   * Changes from the previously encoded delta to f (from an empty board the first time).
+   */
+  ByteBuffer delta(FrameSnapshot f) {
+    begin(Protocol.DELTA);
+    putVarLong(f.tick());
+    for (int l = 0; l < LAYERS.length; l++) {
+      long[] before = prev[l];
+      f.copyWords(LAYERS[l], cur);
+      int added = 0, removed = 0;
+      for (int i = 0; i < cur.length; i++) {
+        added += Long.bitCount(cur[i] & ~before[i]);
+        removed += Long.bitCount(before[i] & ~cur[i]);
+      }
+      putVarInt(added);
+      putCells(cur, before);
+      putVarInt(removed);
+      putCells(before, cur);
+      System.arraycopy(cur, 0, before, 0, cur.length);
+    }
+
+    int n = f.snakeCount();
+    if (prevBodies.length < n) {
+      prevBodies = Arrays.copyOf(prevBodies, n);
+      prevLengths = Arrays.copyOf(prevLengths, n);
+    }
+    putVarInt(n);
+    for (int s = 0; s < n; s++) {
+      put((byte) f.snakeDirection(s).ordinal());
+      int len = f.snakeLength(s);
+      int pl = prevLengths[s];
+      int heads = alignment(f, s, len, pl);
+      int tails = pl - (len - heads);
+      if (heads < 0 || tails < 0) {
+        heads = len;
+        tails = pl;
+      }
+      putVarInt(heads);
+      for (int i = 0; i < heads; i++) putVarInt(cell(f.segment(s, i)));
+      putVarInt(tails);
+
+      int[] body = prevBodies[s];
+      if (body == null || body.length < len) body = prevBodies[s] = new int[Math.max(8, Integer.highestOneBit(len) << 1)];
+      for (int i = 0; i < len; i++) body[i] = f.segment(s, i);
+      prevLengths[s] = len;
+    }
+    return end();
+  }
+
+  /**
+   * Number of new head cells of snake s, i.e. the index of its previous head in the current
+   * body such that the rest of the body matches; -1 when no such index exists.
+   */
+  private int alignment(FrameSnapshot f, int s, int len, int pl) {
+    if (pl == 0) return len;
+    int[] body = prevBodies[s];
+    for (int k = 0; k < len; k++) {
+      if (f.segment(s, k) != body[0]) continue;
+      int overlap = Math.min(len - k, pl);
+      int j = 1;
+      while (j < overlap && f.segment(s, k + j) == body[j]) j++;
+      if (j == overlap) return k;
+    }
+    return -1;
+  }
+
+  private int cell(int packed) {
+    return Position.unpackY(packed) * width + Position.unpackX(packed);
+  }
+
+  private static int bits(long[] words) {
+    int n = 0;
+    for (long w : words) n += Long.bitCount(w);
+    return n;
+  }
+
+  // Celdas de a & ~mask (mask null = todas) en orden ascendente, como diferencias con la anterior
+  private void putCells(long[] a, long[] mask) {
+    int last = 0;
+    for (int i = 0; i < a.length; i++) {
+      long w = mask == null ? a[i] : a[i] & ~mask[i];
+      while (w != 0) {
+        int c = (i << 6) + Long.numberOfTrailingZeros(w);
+        putVarInt(c - last);
+        last = c;
+        w &= w - 1;
+      }
+    }
+  }
+
+  private void begin(byte type) {
+    pos = Integer.BYTES;
+    put(type);
+  }
+
+  private ByteBuffer end() {
+    int len = pos - Integer.BYTES;
+    buf[0] = (byte) (len >>> 24);
+    buf[1] = (byte) (len >>> 16);
+    buf[2] = (byte) (len >>> 8);
+    buf[3] = (byte) len;
+    return ByteBuffer.wrap(Arrays.copyOf(buf, pos)).asReadOnlyBuffer();
+  }
+
+  private void put(byte b) {
+    if (pos == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+    buf[pos++] = b;
+  }
+
+  private void putVarInt(int v) {
+    putVarLong(v & 0xFFFFFFFFL);
+  }
+
+  private void putVarLong(long v) {
+    while ((v & ~0x7FL) != 0) {
+      put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    put((byte) v);
+  }
+}
@@ -0,0 +1,184 @@
+package co.eci.snake.net;
+
+import co.eci.snake.core.Direction;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadClient - Generador de carga para ArenaServer por loopback
+ *
+ * - Abre clients conexiones bloqueantes, cada una leida por su propio hilo virtual; las primeras
+ *   players hacen JOIN y envian un TURN al azar cada turnMillis desde otro hilo virtual
+ * - Cada conexion decodifica su flujo con un DeltaDecoder: un delta que no cuadra cuenta como error
+ * - Al terminar reporta frames/s, bytes/s, tamano medio de los deltas, keyframes y el atraso
+ *   (en ticks) del cliente mas lento respecto del mas adelantado
+ */
+public final class LoadClient {
+  private final InetSocketAddress address;
+  private final int clients;
+  private final int players;
+  private final long turnMillis;
+
+  private final LongAdder frames = new LongAdder();
+  private final LongAdder keyframes = new LongAdder();
+  private final LongAdder deltaBytes = new LongAdder();
+  private final LongAdder deltas = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final AtomicLong joined = new AtomicLong();
+
+  public LoadClient(InetSocketAddress address, int clients, int players, long turnMillis) {
+    if (clients <= 0) throw new IllegalArgumentException("clients must be > 0");
+    this.address = address;
+    this.clients = clients;
+    this.players = Math.min(players, clients);
+    this.turnMillis = Math.max(1, turnMillis);
+  }
+
+  public record Report(int clients, long joined, long elapsedNanos, long frames, long keyframes, long deltas,
+                       long deltaBytes, long bytes, long errors, long maxLagTicks) {
+
+    public String format() {
+      double secs = elapsedNanos / 1e9;
+      return String.format(
+          "clients=%d players=%d elapsed=%.3f s%n" +
+          "frames/sec=%.1f bytes/sec=%.1f KiB avg delta=%.1f bytes keyframes=%d%n" +
+          "decode errors=%d max lag=%d ticks",
+          clients, joined, secs, frames / secs, bytes / secs / 1024,
+          deltas == 0 ? 0 : (double) deltaBytes / deltas, keyframes, errors, maxLagTicks);
+    }
+  }
+
+  /**
+   * Connects every client, keeps them running for the given time and reports the totals.
+   */
+  public Report run(long millis) throws InterruptedException {
+    var connections = new ArrayList<Connection>(clients);
+    var threads = new ArrayList<Thread>();
+    long begin = System.nanoTime();
+    for (int i = 0; i < clients; i++) {
+      var c = new Connection(i < players);
+      connections.add(c);
+      threads.add(Thread.ofVirtual().name("load-" + i).start(c::readLoop));
+    }
+    Thread.sleep(millis);
+    for (var c : connections) c.close();
+    for (var t : threads) t.join();
+    long elapsed = System.nanoTime() - begin;
+
+    long maxTick = -1, minTick = Long.MAX_VALUE;
+    for (var c : connections) {
+      long t = c.decoder == null ? -1 : c.decoder.tick();
+      if (t < 0) continue;
+      maxTick = Math.max(maxTick, t);
+      minTick = Math.min(minTick, t);
+    }
+    return new Report(clients, joined.get(), elapsed, frames.sum(), keyframes.sum(), deltas.sum(),
+        deltaBytes.sum(), bytes.sum(), errors.sum(), maxTick < 0 ? 0 : maxTick - minTick);
+  }
+
+  private final class Connection {
+    private final boolean player;
+    private volatile SocketChannel channel;
+    private volatile boolean closed;
+    private DeltaDecoder decoder;
+
+    Connection(boolean player) {
+      this.player = player;
+    }
+
+    void readLoop() {
+      try (var ch = SocketChannel.open(address)) {
+        channel = ch;
+        if (closed) return;
+        if (player) send(ch, Protocol.JOIN, (byte) 0);
+        var header = ByteBuffer.allocate(Integer.BYTES);
+        var body = ByteBuffer.allocate(4096);
+        while (!closed) {
+          header.clear();
+          readFully(ch, header);
+          int len = header.flip().getInt();
+          if (len <= 0 || len > Protocol.MAX_FRAME_BYTES) throw new IOException("bad frame length " + len);
+          if (body.capacity() < len) body = ByteBuffer.allocate(Integer.highestOneBit(len) << 1);
+          body.clear().limit(len);
+          readFully(ch, body);
+          body.flip();
+          bytes.add(Integer.BYTES + len);
+          frames.increment();
+          handle(ch, body.get(), body, len);
+        }
+      } catch (IOException e) {
+        if (!closed) errors.increment();
+      } catch (RuntimeException e) {
+        errors.increment();
+      }
+    }
+
+    private void handle(SocketChannel ch, byte type, ByteBuffer body, int len) throws IOException {
+      switch (type) {
+        case Protocol.WELCOME -> {
+          int snake = body.getInt(), width = body.getInt(), height = body.getInt();
+          if (decoder == null) decoder = new DeltaDecoder(width, height);
+          if (snake >= 0) {
+            joined.incrementAndGet();
+            Thread.ofVirtual().start(() -> turnLoop(ch));
+          }
+        }
+        case Protocol.KEYFRAME -> {
+          keyframes.increment();
+          decoder.applyKeyframe(body);
+        }
+        case Protocol.DELTA -> {
+          deltas.increment();
+          deltaBytes.add(Integer.BYTES + len);
+          decoder.applyDelta(body);
+        }
+        default -> throw new IOException("unknown frame " + type);
+      }
+    }
+
+    private void turnLoop(SocketChannel ch) {
+      var dirs = Direction.values();
+      try {
+        while (!closed) {
+          Thread.sleep(turnMillis);
+          send(ch, Protocol.TURN, (byte) dirs[ThreadLocalRandom.current().nextInt(dirs.length)].ordinal());
+        }
+      } catch (IOException | InterruptedException e) {
+        // la conexion se cerro
+      }
+    }
+
+    void close() {
+      closed = true;
+      var ch = channel;
+      if (ch == null) return;
+      try {
+        ch.close();
+      } catch (IOException ignored) {
+        // ya cerrada
+      }
+    }
+  }
+
+  private static void send(SocketChannel ch, byte type, byte arg) throws IOException {
+    var msg = ByteBuffer.wrap(new byte[] { type, arg });
+    synchronized (ch) {
+      while (msg.hasRemaining()) ch.write(msg);
+    }
+  }
+
+  private static void readFully(SocketChannel ch, ByteBuffer buf) throws IOException {
+    while (buf.hasRemaining()) {
+      if (ch.read(buf) < 0) throw new EOFException();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package co.eci.snake.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocol - Formato binario entre ArenaServer y sus clientes (big-endian)
+ *
+ * Cliente -> servidor: mensajes de 2 bytes (tipo, argumento)
+ * - JOIN: pide controlar una serpiente libre (por defecto el cliente es espectador)
+ * - TURN: gira la serpiente propia; argumento = Direction.ordinal()
+ *
+ * Servidor -> cliente: int longitud (sin contarse), byte tipo y el cuerpo
+ * - WELCOME: serpiente asignada (int, -1 = espectador), width, height, snakes (int)
+ * - KEYFRAME: varlong tick; por capa (MICE, OBSTACLES, TURBO) varint n y n celdas; varint n
+ *   teleports y n pares (desde, hasta); varint serpientes y por cada una direccion (byte),
+ *   varint largo y sus celdas desde la cabeza
+ * - DELTA: varlong tick; por capa varint n agregadas + celdas y varint n quitadas + celdas;
+ *   varint serpientes y por cada una direccion (byte), varint n cabezas nuevas + celdas
+ *   (la mas nueva primero) y varint colas quitadas. Aplicar: quitar las colas y anteponer las cabezas
+ *
+ * Las celdas son indices y*width + x en varint; en las capas cada celda se codifica como la
+ * diferencia con la anterior (orden ascendente).
+ */
+public final class Protocol {
+  public static final byte JOIN = 1;
+  public static final byte TURN = 2;
+
+  public static final byte WELCOME = 1;
+  public static final byte KEYFRAME = 2;
+  public static final byte DELTA = 3;
+
+  public static final int CLIENT_MESSAGE_BYTES = 2;
+  /** Largest frame a client accepts; larger lengths mean a corrupt stream. */
+  public static final int MAX_FRAME_BYTES = 64 << 20;
+
+  private Protocol() {}
+
+  public static int readVarInt(ByteBuffer in) {
+    return (int) readVarLong(in);
+  }
+
+  public static long readVarLong(ByteBuffer in) {
+    long v = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.get();
+      v |= (long) (b & 0x7F) << shift;
+      if (b >= 0) return v;
+    }
+    throw new IllegalArgumentException("varint too long");
+  }
+}
@@ -0,0 +1,125 @@
+package co.eci.snake.ui.legacy;
+
+import co.eci.snake.core.metrics.LatencyHistogram;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * RenderScheduler - Ticks del motor -> repintados del EDT con contrapresion
+ *
+ * - requestFrame() se llama desde el hilo del reloj en cada tick y nunca bloquea
+ * - A lo sumo un frame en vuelo (encolado o pintandose en el EDT): los ticks que llegan mientras
+ *   tanto solo marcan que hay algo nuevo; si un tick queda tapado por otro antes de pintarse se
+ *   cuenta como descartado. El frame pinta siempre el ultimo FrameSnapshot, asi que no se pierde
+ *   estado: solo se saltan frames que nadie alcanzaria a ver
+ * - maxFps desacopla la tasa de render de la de simulacion: si el frame anterior empezo hace menos
+ *   de 1/maxFps, el siguiente se programa para cuando se cumpla ese intervalo (0 = sin tope)
+ * - El tiempo de cada frame (render completo en el EDT) queda en un LatencyHistogram
+ */
+public final class RenderScheduler implements AutoCloseable {
+  private final Runnable render;
+  private final long minIntervalNanos;
+  private final ScheduledExecutorService timer;
+  // Un frame encolado o pintandose
+  private final AtomicBoolean inFlight = new AtomicBoolean();
+  // Hay un tick que ningun frame pinto todavia
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private volatile long lastStart;
+
+  private final LatencyHistogram frameTime = new LatencyHistogram();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicLong frames = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  /**
+   * @param render runs on the EDT and must paint the latest frame synchronously
+   * @param maxFps upper bound on frames per second (0 or less means one frame per tick at most)
+   */
+  public RenderScheduler(Runnable render, int maxFps) {
+    this.render = Objects.requireNonNull(render, "render");
+    this.minIntervalNanos = maxFps > 0 ? TimeUnit.SECONDS.toNanos(1) / maxFps : 0;
+    this.timer = minIntervalNanos == 0 ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+      var t = new Thread(r, "render-timer");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Asks for a frame showing the latest tick. Safe from any thread.
+   */
+  public void requestFrame() {
+    requested.incrementAndGet();
+    if (dirty.getAndSet(true)) dropped.incrementAndGet();
+    if (inFlight.compareAndSet(false, true)) dispatch();
+  }
+
+  private void dispatch() {
+    long wait = timer == null ? 0 : lastStart + minIntervalNanos - System.nanoTime();
+    if (wait <= 0) {
+      SwingUtilities.invokeLater(this::runFrame);
+      return;
+    }
+    try {
+      timer.schedule(() -> SwingUtilities.invokeLater(this::runFrame), wait, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException closed) {
+      // close() ya apago el temporizador
+    }
+  }
+
+  private void runFrame() {
+    dirty.set(false);
+    long t0 = System.nanoTime();
+    lastStart = t0;
+    try {
+      render.run();
+    } finally {
+      frameTime.record(System.nanoTime() - t0);
+      frames.incrementAndGet();
+      inFlight.set(false);
+    }
+    // Ticks que llegaron mientras se pintaba: un solo frame mas con el ultimo
+    if (dirty.get() && inFlight.compareAndSet(false, true)) dispatch();
+  }
+
+  /**
+   * Ticks that asked for a frame.
+   */
+  public long requested() { return requested.get(); }
+
+  /**
+   * Frames actually rendered.
+   */
+  public long frames() { return frames.get(); }
+
+  /**
+   * Ticks superseded by a later one before any frame showed them.
+   */
+  public long dropped() { return dropped.get(); }
+
+  /**
+   * Time spent rendering each frame on the EDT.
+   */
+  public LatencyHistogram frameTime() { return frameTime; }
+
+  /**
+   * One-line summary: frames, dropped ticks and frame time.
+   */
+  public String format() {
+    return String.format("frames=%d dropped=%d frame avg=%.2f ms p99=%.2f ms max=%.2f ms",
+        frames(), dropped(), frameTime.mean() / 1e6, frameTime.percentile(0.99) / 1e6, frameTime.max() / 1e6);
+  }
+
+  @Override
+  public void close() {
+    if (timer != null) timer.shutdownNow();
+  }
+}
@@ -5,13 +5,12 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.awt.event.ActionEvent;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.AbstractAction;
@@ -22,43 +21,73 @@ import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.KeyStroke;
+import javax.swing.RepaintManager;
 import javax.swing.SwingUtilities;
 
-import co.eci.snake.concurrency.SnakeRunner;
 import co.eci.snake.core.Board;
 import co.eci.snake.core.Direction;
+import co.eci.snake.core.Leaderboard;
 import co.eci.snake.core.Position;
+import co.eci.snake.core.RespawnPolicy;
 import co.eci.snake.core.Snake;
-import co.eci.snake.core.engine.GameClock;
+import co.eci.snake.core.engine.FramePublisher;
+import co.eci.snake.core.engine.FrameSnapshot;
+import co.eci.snake.core.engine.FrameSnapshot.Layer;
+import co.eci.snake.core.engine.GameSession;
+import co.eci.snake.core.engine.Level;
+import co.eci.snake.core.engine.SessionConfig;
+import co.eci.snake.core.events.EventProcessor;
+import co.eci.snake.core.events.ScoreBoard;
+import co.eci.snake.core.events.WaitStrategy;
 public final class SnakeApp extends JFrame {
 
+  private final GameSession session;
   private final Board board;
   private final GamePanel gamePanel;
+  // Un frame en vuelo como mucho: los ticks que llegan mientras el EDT pinta se coalescen
+  private final RenderScheduler render;
   private final JButton actionButton;
   private final JButton exitButton;
-  private final GameClock clock;
   private long startTime = 0;
   private long pausedTime = 0;
   private long totalPaused = 0;
-  private final java.util.List<Snake> snakes = new CopyOnWriteArrayList<>();
-  private final java.util.List<SnakeRunner> snakeRunners = new CopyOnWriteArrayList<>();
+  private final java.util.List<Snake> snakes;
+  // Ratones, turbos y choques por serpiente, contados desde el EventRing fuera del motor
+  private final ScoreBoard scores;
   private final AtomicBoolean paused = new AtomicBoolean(false);
   private volatile String pauseStats = "";
   private boolean started = false;
 
   public SnakeApp() {
     super("The Snake Race");
-    this.board = new Board(35, 28);
-
     int N = Integer.getInteger("snakes", 2);
-    for (int i = 0; i < N; i++) {
-      int x = 2 + (i * 3) % board.width();
-      int y = 2 + (i * 2) % board.height();
-      var dir = Direction.values()[i % Direction.values().length];
-      snakes.add(Snake.of(x, y, dir));
+    var seed = Long.getLong("seed");
+    var config = SessionConfig.defaults(N).withTileSize(Integer.getInteger("tile", 0)).withSeed(seed)
+        .withScheduler(SessionConfig.Scheduler.parse(System.getProperty("scheduler")))
+        .withSteering(SessionConfig.Steering.parse(System.getProperty("steering")));
+    this.render = new RenderScheduler(this::repaintBoard, Integer.getInteger("fps", 60));
+    this.session = openSession(config, System.getProperty("level"));
+    String record = System.getProperty("record");
+    String respawn = System.getProperty("respawn");
+    if (record != null && respawn != null) throw new IllegalArgumentException("-Drecord replays the default respawn policy only");
+    if (respawn != null) session.board().respawnPolicy(RespawnPolicy.parse(respawn));
+    if (record != null && session.journal() != null) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> saveJournal(Path.of(record))));
+    }
+    String checkpoint = System.getProperty("checkpoint");
+    if (checkpoint != null) {
+      session.checkpointEvery(Path.of(checkpoint), Long.getLong("checkpointMillis", 5000));
     }
-    this.gamePanel = new GamePanel(board,
-      () -> snakes,
+    this.board = session.board();
+    this.snakes = session.snakes();
+    this.scores = new ScoreBoard(snakes.size());
+    var events = new Thread(new EventProcessor(session.enableEvents(1 << 12, WaitStrategy.sleeping()), scores), "events");
+    events.setDaemon(true);
+    events.start();
+
+    this.gamePanel = new GamePanel(session.frames(), board.width(), board.height(),
+      !"full".equals(System.getProperty("render", "cached")), session.leaderboard(),
+      i -> playerName(i, snakes.get(i).id()),
       () -> paused.get(),
       () -> pauseStats,
       () -> {
@@ -92,16 +121,6 @@ public final class SnakeApp extends JFrame {
     pack();
     setLocationRelativeTo(null);
 
-    this.clock = new GameClock(60, () -> SwingUtilities.invokeLater(gamePanel::repaint));
-
-    var exec = Executors.newVirtualThreadPerTaskExecutor();
-    for (Snake snake : snakes) {
-      SnakeRunner runner = new SnakeRunner(snake, board);
-      snakeRunners.add(runner);
-      clock.addListener(runner);
-      exec.submit(runner);
-    }
-
     actionButton.addActionListener((ActionEvent e) -> togglePause());
 
     gamePanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("SPACE"), "pause");
@@ -112,7 +131,6 @@ public final class SnakeApp extends JFrame {
       }
     });
 
-    var player = snakes.get(0);
     InputMap im = gamePanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
     ActionMap am = gamePanel.getActionMap();
     im.put(KeyStroke.getKeyStroke("LEFT"), "left");
@@ -122,30 +140,29 @@ public final class SnakeApp extends JFrame {
     am.put("left", new AbstractAction() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        player.turn(Direction.LEFT);
+        session.turn(0, Direction.LEFT);
       }
     });
     am.put("right", new AbstractAction() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        player.turn(Direction.RIGHT);
+        session.turn(0, Direction.RIGHT);
       }
     });
     am.put("up", new AbstractAction() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        player.turn(Direction.UP);
+        session.turn(0, Direction.UP);
       }
     });
     am.put("down", new AbstractAction() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        player.turn(Direction.DOWN);
+        session.turn(0, Direction.DOWN);
       }
     });
 
     if (snakes.size() > 1) {
-      var p2 = snakes.get(1);
       im.put(KeyStroke.getKeyStroke("pressed A"), "p2-left");
       im.put(KeyStroke.getKeyStroke("pressed D"), "p2-right");
       im.put(KeyStroke.getKeyStroke("pressed W"), "p2-up");
@@ -153,25 +170,25 @@ public final class SnakeApp extends JFrame {
       am.put("p2-left", new AbstractAction() {
         @Override
         public void actionPerformed(ActionEvent e) {
-          p2.turn(Direction.LEFT);
+          session.turn(1, Direction.LEFT);
         }
       });
       am.put("p2-right", new AbstractAction() {
         @Override
         public void actionPerformed(ActionEvent e) {
-          p2.turn(Direction.RIGHT);
+          session.turn(1, Direction.RIGHT);
         }
       });
       am.put("p2-up", new AbstractAction() {
         @Override
         public void actionPerformed(ActionEvent e) {
-          p2.turn(Direction.UP);
+          session.turn(1, Direction.UP);
         }
       });
       am.put("p2-down", new AbstractAction() {
         @Override
         public void actionPerformed(ActionEvent e) {
-          p2.turn(Direction.DOWN);
+          session.turn(1, Direction.DOWN);
         }
       });
     }
@@ -183,9 +200,39 @@ public final class SnakeApp extends JFrame {
     });
   }
 
+  private GameSession openSession(SessionConfig config, String level) {
+    Runnable onTick = render::requestFrame;
+    if (level == null) return new GameSession(config, onTick);
+    try {
+      return Level.load(Path.of(level), config, onTick);
+    } catch (IOException e) {
+      throw new java.io.UncheckedIOException(e);
+    }
+  }
+
+  private void saveJournal(Path file) {
+    session.stop();
+    session.journal().finish(session.tickCount());
+    try {
+      session.journal().writeTo(file);
+    } catch (IOException e) {
+      System.err.println("No se pudo guardar el journal: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Renders the latest frame on the EDT. Dirty regions are painted right away so the frame the
+   * RenderScheduler times (and keeps in flight) includes the actual painting.
+   */
+  private void repaintBoard() {
+    if (gamePanel == null) return;
+    gamePanel.refresh();
+    RepaintManager.currentManager(gamePanel).paintDirtyRegions();
+  }
+
   private void togglePause() {
   if (!started) {
-    clock.start();
+    session.start();
     startTime = System.currentTimeMillis();
     actionButton.setText("Pausar");
     started = true;
@@ -193,22 +240,24 @@ public final class SnakeApp extends JFrame {
     pauseStats = "";
   } else if (!paused.get()) {
     actionButton.setText("Reanudar");
-    clock.pause();
+    session.pause();
     pausedTime = System.currentTimeMillis();
     paused.set(true);
-    // Calcular estadística en pausa
-    Snake longest = snakes.stream()
-        .max(Comparator.comparingInt(Snake::length))
-        .orElse(null);
-    if (longest != null) {
-      pauseStats = "Serpiente más larga: #" + longest.id() +
-             " con " + longest.length() + " segmentos";
+    // Calcular estadística en pausa (el Leaderboard ya esta ordenado)
+    int longest = session.leaderboard().leader();
+    if (longest >= 0) {
+      pauseStats = "Serpiente más larga: " + playerName(longest, snakes.get(longest).id()) +
+             " con " + session.leaderboard().length(longest) + " segmentos";
+      int leader = scores.leader();
+      if (leader >= 0 && scores.mice(leader) > 0) {
+        pauseStats += " | Más ratones: " + playerName(leader, snakes.get(leader).id()) + " (" + scores.mice(leader) + ")";
+      }
     } else {
       pauseStats = "No hay serpientes";
     }
   } else {
     actionButton.setText("Pausar");
-    clock.resume();
+    session.resume();
     if (pausedTime > 0) totalPaused += System.currentTimeMillis() - pausedTime;
     paused.set(false);
     pauseStats = "";
@@ -218,132 +267,381 @@ public final class SnakeApp extends JFrame {
 }
 
 
+  /**
+   * Stable display name of the snake at index idx of the session, followed by its snake id.
+   */
+  static String playerName(int idx, int id) {
+    String name = switch (idx) {
+      case 0 -> "Jugador Verde";
+      case 1 -> "Jugador Azul";
+      default -> "Serpiente " + (idx + 1);
+    };
+    return name + " #" + id;
+  }
+
+  /**
+   * GamePanel - Pinta los frames publicados por el motor
+   *
+   * - Modo "cached" (por defecto, -Drender=cached): la grilla, los obstaculos y los teleports se
+   *   pintan una sola vez en una imagen de fondo que solo se regenera cuando cambia
+   *   obstacleVersion; refresh() compara el frame nuevo con el anterior y repinta solo las
+   *   celdas que cambiaron
+   * - Modo "full" (-Drender=full): repinta todo el panel en cada tick, como antes
+   * - Los tonos de los segmentos vienen de una paleta precalculada (sin new Color por segmento)
+   * - Con un Leaderboard, la pausa muestra el podio y la ultima serpiente leyendo solo esas
+   *   entradas (O(k)) en lugar de recorrer todas las serpientes del frame
+   */
   public static final class GamePanel extends JPanel {
-  private final Board board;
-  private final Supplier snakesSupplier;
+  private static final Color GRID = new Color(220, 220, 220);
+  private static final Color OBSTACLE = new Color(255, 102, 0);
+  private static final Color OVERLAY = new Color(0, 0, 0, 150);
+  private static final Color[] BASES = { new Color(0, 170, 0), new Color(0, 160, 180) };
+  // Tonos por segmento: el brillo extra baja de 40 a 0 en pasos de 4
+  private static final int SHADES = 11;
+  private static final Color[][] PALETTE = new Color[BASES.length][SHADES];
+  static {
+    for (int b = 0; b < BASES.length; b++) {
+      for (int i = 0; i < SHADES; i++) {
+        int shade = Math.max(0, 40 - i * 4);
+        PALETTE[b][i] = new Color(
+            Math.min(255, BASES[b].getRed() + shade),
+            Math.min(255, BASES[b].getGreen() + shade),
+            Math.min(255, BASES[b].getBlue() + shade));
+      }
+    }
+  }
+  // Codigos de contenido dinamico por celda para calcular las regiones sucias
+  private static final int EMPTY = 0, MOUSE = 1, TURBO = 2, SEGMENT = 3;
+
+  private final FramePublisher frames;
+  private final int boardWidth;
+  private final int boardHeight;
+  private final boolean cached;
   private final java.util.function.Supplier<Boolean> pausedSupplier;
   private final java.util.function.Supplier<String> statsSupplier;
   private final java.util.function.Supplier<String> clockSupplier;
+  // Opcionales: sin ranking se recorre el frame, sin nombres se usa nombre(idx)
+  private final Leaderboard ranking;
+  private final java.util.function.IntFunction<String> names;
   private final int cell = 20;
+  private static final int PODIUM = 3;
+  private final int[] podium = new int[PODIUM];
+  private final int[] podiumLengths = new int[PODIUM];
+  private final int[] last = new int[1];
+  private final int[] lastLength = new int[1];
+
+  // Estado del modo cached, solo accedido desde el EDT
+  private FrameSnapshot shown;
+  private BufferedImage background;
+  private long backgroundVersion = -1;
+  private int[] cellCodes;
+  private int[] cellMarks;
+  private int mark;
+  private int[] dynamicCells = new int[64];
+  private int dynamicCount;
+  private int[] nextCells = new int[64];
+  private int nextCount;
+  private String lastClock = "";
 
-  @FunctionalInterface
-  public interface Supplier {
-    List<Snake> get();
+    /**
+     * Panel that paints only the frames published by the engine, never the live board.
+     * The mode is taken from the "render" system property.
+     */
+    public GamePanel(FramePublisher frames, int boardWidth, int boardHeight,
+                   java.util.function.Supplier<Boolean> pausedSupplier,
+                   java.util.function.Supplier<String> statsSupplier,
+                   java.util.function.Supplier<String> clockSupplier) {
+    this(frames, boardWidth, boardHeight, !"full".equals(System.getProperty("render", "cached")),
+        pausedSupplier, statsSupplier, clockSupplier);
+  }
+
+    public GamePanel(FramePublisher frames, int boardWidth, int boardHeight, boolean cached,
+                   java.util.function.Supplier<Boolean> pausedSupplier,
+                   java.util.function.Supplier<String> statsSupplier,
+                   java.util.function.Supplier<String> clockSupplier) {
+    this(frames, boardWidth, boardHeight, cached, null, null, pausedSupplier, statsSupplier, clockSupplier);
   }
 
-    public GamePanel(Board board, Supplier snakesSupplier,
+    /**
+     * Panel whose pause overlay reads the podium from ranking and labels snakes with names
+     * (indices follow the session's snake list). Either may be null.
+     */
+    public GamePanel(FramePublisher frames, int boardWidth, int boardHeight, boolean cached,
+                   Leaderboard ranking, java.util.function.IntFunction<String> names,
                    java.util.function.Supplier<Boolean> pausedSupplier,
                    java.util.function.Supplier<String> statsSupplier,
                    java.util.function.Supplier<String> clockSupplier) {
-    this.board = board;
-    this.snakesSupplier = snakesSupplier;
+    this.frames = frames;
+    this.ranking = ranking;
+    this.names = names;
+    this.boardWidth = boardWidth;
+    this.boardHeight = boardHeight;
+    this.cached = cached;
     this.pausedSupplier = pausedSupplier;
     this.statsSupplier = statsSupplier;
     this.clockSupplier = clockSupplier;
-    setPreferredSize(new Dimension(board.width() * cell + 1, board.height() * cell + 40));
+    if (cached) {
+      cellCodes = new int[boardWidth * boardHeight];
+      cellMarks = new int[boardWidth * boardHeight];
+    }
+    setPreferredSize(new Dimension(boardWidth * cell + 1, boardHeight * cell + 40));
     setBackground(Color.WHITE);
     setFocusable(true);
   }
 
+    /**
+     * Schedules the repaint of a newly published frame. In cached mode only the cells whose
+     * content changed (and the clock) are repainted. Must run on the EDT.
+     */
+    public void refresh() {
+      if (!cached) {
+        repaint();
+        return;
+      }
+      FrameSnapshot prev = shown;
+      if (!syncFrame()) return;
+      if (prev == null || shown.obstacleVersion() != backgroundVersion) {
+        repaint();
+        return;
+      }
+      String clock = clockSupplier.get();
+      if (!clock.equals(lastClock)) {
+        lastClock = clock;
+        repaint(getWidth() - 112, 12, 112, 24);
+      }
+    }
+
+    /**
+     * Pins the latest frame and repaints the cells that differ from the previous one.
+     * Returns false if there is no new frame.
+     */
+    private boolean syncFrame() {
+      FrameSnapshot f = frames.acquire();
+      if (f == null) return false;
+      if (shown != null && f.sequence() == shown.sequence()) {
+        frames.release(f);
+        return false;
+      }
+      if (shown != null) frames.release(shown);
+      shown = f;
+      diffCells(f);
+      return true;
+    }
+
+    private void diffCells(FrameSnapshot f) {
+      int m = ++mark;
+      nextCount = 0;
+      int w = f.width();
+      f.forEachCell(Layer.MICE, c -> visit(c, MOUSE, m));
+      f.forEachCell(Layer.TURBO, c -> visit(c, TURBO, m));
+      for (int s = 0; s < f.snakeCount(); s++) {
+        int code = SEGMENT + (s == 0 ? 0 : SHADES);
+        for (int i = 0, n = f.snakeLength(s); i < n; i++) {
+          int p = f.segment(s, i);
+          visit(Position.unpackY(p) * w + Position.unpackX(p), code + Math.min(i, SHADES - 1), m);
+        }
+      }
+      // Celdas que tenian contenido y ya no lo tienen
+      for (int i = 0; i < dynamicCount; i++) {
+        int c = dynamicCells[i];
+        if (cellMarks[c] != m && cellCodes[c] != EMPTY) {
+          cellCodes[c] = EMPTY;
+          repaintCell(c);
+        }
+      }
+      int[] t = dynamicCells;
+      dynamicCells = nextCells;
+      dynamicCount = nextCount;
+      nextCells = t;
+    }
+
+    private void visit(int c, int code, int m) {
+      if (cellCodes[c] != code) {
+        cellCodes[c] = code;
+        repaintCell(c);
+      }
+      if (cellMarks[c] != m) {
+        cellMarks[c] = m;
+        if (nextCount == nextCells.length) nextCells = java.util.Arrays.copyOf(nextCells, nextCount * 2);
+        nextCells[nextCount++] = c;
+      }
+    }
+
+    private void repaintCell(int c) {
+      repaint((c % boardWidth) * cell, (c / boardWidth) * cell, cell + 1, cell + 1);
+    }
+
   @Override
   protected void paintComponent(Graphics g) {
+    if (cached) {
+      paintCached(g);
+      return;
+    }
     super.paintComponent(g);
     var g2 = (Graphics2D) g.create();
     g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-      g2.setColor(new Color(220, 220, 220));
-      for (int x = 0; x <= board.width(); x++)
-        g2.drawLine(x * cell, 0, x * cell, board.height() * cell);
-      for (int y = 0; y <= board.height(); y++)
-        g2.drawLine(0, y * cell, board.width() * cell, y * cell);
+      paintGrid(g2);
+      // Un solo frame consistente por repintado; el publicador no espera a este hilo
+      FrameSnapshot frame = frames.acquire();
+      if (frame != null) {
+        try {
+          paintObstacles(g2, frame);
+          paintFrame(g2, frame, null);
+        } finally {
+          frames.release(frame);
+        }
+      }
+
+      g2.dispose();
+    }
+
+    private void paintCached(Graphics g) {
+      if (shown == null) syncFrame();
+      FrameSnapshot frame = shown;
+      if (frame == null) {
+        super.paintComponent(g);
+        return;
+      }
+      if (background == null || background.getWidth() != getWidth() || background.getHeight() != getHeight()
+          || frame.obstacleVersion() != backgroundVersion) {
+        background = paintBackground(frame);
+        backgroundVersion = frame.obstacleVersion();
+      }
+      var g2 = (Graphics2D) g.create();
+      Rectangle clip = g2.getClipBounds();
+      g2.drawImage(background, 0, 0, null);
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      paintFrame(g2, frame, clip);
+      g2.dispose();
+    }
+
+    private BufferedImage paintBackground(FrameSnapshot frame) {
+      var img = new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()), BufferedImage.TYPE_INT_RGB);
+      var g2 = img.createGraphics();
+      g2.setColor(getBackground());
+      g2.fillRect(0, 0, img.getWidth(), img.getHeight());
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      paintGrid(g2);
+      paintObstacles(g2, frame);
+      g2.dispose();
+      return img;
+    }
+
+    private void paintGrid(Graphics2D g2) {
+      g2.setColor(GRID);
+      for (int x = 0; x <= boardWidth; x++)
+        g2.drawLine(x * cell, 0, x * cell, boardHeight * cell);
+      for (int y = 0; y <= boardHeight; y++)
+        g2.drawLine(0, y * cell, boardWidth * cell, y * cell);
+    }
 
-      g2.setColor(new Color(255, 102, 0));
-      for (var p : board.obstacles()) {
-        int x = p.x() * cell, y = p.y() * cell;
+    /**
+     * Static layer: obstacles and teleports.
+     */
+    private void paintObstacles(Graphics2D g2, FrameSnapshot frame) {
+      int w = frame.width();
+      g2.setColor(OBSTACLE);
+      frame.forEachCell(Layer.OBSTACLES, c -> {
+        int x = (c % w) * cell, y = (c / w) * cell;
         g2.fillRect(x + 2, y + 2, cell - 4, cell - 4);
         g2.setColor(Color.RED);
         g2.drawLine(x + 4, y + 4, x + cell - 6, y + 4);
         g2.drawLine(x + 4, y + 8, x + cell - 6, y + 8);
         g2.drawLine(x + 4, y + 12, x + cell - 6, y + 12);
-        g2.setColor(new Color(255, 102, 0));
+        g2.setColor(OBSTACLE);
+      });
+
+      g2.setColor(Color.RED);
+      for (int i = 0; i < frame.teleportCount(); i++) {
+        int from = frame.teleportFrom(i);
+        int x = (from % w) * cell, y = (from / w) * cell;
+        int[] xs = { x + 4, x + cell - 4, x + cell - 10, x + cell - 10, x + 4 };
+        int[] ys = { y + cell / 2, y + cell / 2, y + 4, y + cell - 4, y + cell / 2 };
+        g2.fillPolygon(xs, ys, xs.length);
       }
+    }
 
+    /**
+     * Dynamic layer: mice, turbo, snakes, clock and pause overlay. Cells outside clip are skipped.
+     */
+    private void paintFrame(Graphics2D g2, FrameSnapshot frame, Rectangle clip) {
+      int w = frame.width();
       g2.setColor(Color.BLACK);
-      for (var p : board.mice()) {
-        int x = p.x() * cell, y = p.y() * cell;
+      frame.forEachCell(Layer.MICE, c -> {
+        int x = (c % w) * cell, y = (c / w) * cell;
+        if (!visible(clip, x, y)) return;
         g2.fillOval(x + 4, y + 4, cell - 8, cell - 8);
         g2.setColor(Color.WHITE);
         g2.fillOval(x + 8, y + 8, cell - 16, cell - 16);
         g2.setColor(Color.BLACK);
-      }
-
-      Map<Position, Position> tp = board.teleports();
-      g2.setColor(Color.RED);
-      for (var entry : tp.entrySet()) {
-        Position from = entry.getKey();
-        int x = from.x() * cell, y = from.y() * cell;
-        int[] xs = { x + 4, x + cell - 4, x + cell - 10, x + cell - 10, x + 4 };
-        int[] ys = { y + cell / 2, y + cell / 2, y + 4, y + cell - 4, y + cell / 2 };
-        g2.fillPolygon(xs, ys, xs.length);
-      }
+      });
 
       g2.setColor(Color.BLACK);
-      for (var p : board.turbo()) {
-        int x = p.x() * cell, y = p.y() * cell;
+      frame.forEachCell(Layer.TURBO, c -> {
+        int x = (c % w) * cell, y = (c / w) * cell;
+        if (!visible(clip, x, y)) return;
         int[] xs = { x + 8, x + 12, x + 10, x + 14, x + 6, x + 10 };
         int[] ys = { y + 2, y + 2, y + 8, y + 8, y + 16, y + 10 };
         g2.fillPolygon(xs, ys, xs.length);
-      }
-      var snakes = snakesSupplier.get();
-      int idx = 0;
-      for (Snake s : snakes) {
-        var body = s.snapshot().toArray(new Position[0]);
-        for (int i = 0; i < body.length; i++) {
-          var p = body[i];
-          Color base = (idx == 0) ? new Color(0, 170, 0) : new Color(0, 160, 180);
-          int shade = Math.max(0, 40 - i * 4);
-          g2.setColor(new Color(
-              Math.min(255, base.getRed() + shade),
-              Math.min(255, base.getGreen() + shade),
-              Math.min(255, base.getBlue() + shade)));
-          g2.fillRect(p.x() * cell + 2, p.y() * cell + 2, cell - 4, cell - 4);
-        }
-        idx++;
+      });
+
+      for (int idx = 0; idx < frame.snakeCount(); idx++) {
+        Color[] shades = PALETTE[idx == 0 ? 0 : 1];
+        frame.forEachSegment(idx, (i, px, py) -> {
+          int x = px * cell, y = py * cell;
+          if (!visible(clip, x, y)) return;
+          g2.setColor(shades[Math.min(i, SHADES - 1)]);
+          g2.fillRect(x + 2, y + 2, cell - 4, cell - 4);
+        });
       }
   // Reloj en la esquina superior derecha
   g2.setColor(Color.BLACK);
   g2.drawString(clockSupplier.get(), getWidth() - 110, 30);
 
-      if (pausedSupplier.get()) {
-        var snakesList = snakesSupplier.get();
-        var ranking = snakesList.stream()
-            .sorted(Comparator.comparingInt(Snake::length).reversed())
-            .toList();
-        g2.setColor(new Color(0, 0, 0, 150));
+      if (pausedSupplier.get() && frame.snakeCount() > 0) {
+        g2.setColor(OVERLAY);
         g2.fillRoundRect(getWidth()/2 - 150, getHeight()/2 - 80, 300, 150, 20, 20);
         g2.setColor(Color.WHITE);
         g2.drawString("PAUSA", getWidth()/2 - 20, getHeight()/2 - 40);
         int y = getHeight()/2;
-        if (ranking.size() == 1) {
-            var s = ranking.get(0);
-            int idxSnake = snakesList.indexOf(s);
-            String nombre = (idxSnake == 0) ? "Jugador Verde" : "Jugador Azul";
-            g2.drawString(nombre + " - Longitud: " + s.length(), getWidth()/2 - 60, y);
+        if (ranking != null) {
+          // Podio y ultima serpiente: solo se leen esas entradas del ranking
+          int n = ranking.top(podium, podiumLengths);
+          for (int i = 0; i < n; i++, y += 20) {
+            g2.drawString((i + 1) + ". " + label(podium[i]) + " (" + podiumLengths[i] + ")", getWidth()/2 - 110, y);
+          }
+          if (ranking.size() > PODIUM && ranking.bottom(last, lastLength) == 1) {
+            g2.drawString("Peor: " + label(last[0]) + " (" + lastLength[0] + ")", getWidth()/2 - 110, y);
+          }
+          return;
+        }
+        // Mejor y peor serpiente del frame (a igual longitud gana el menor indice)
+        int mejor = 0, peor = 0;
+        for (int i = 1; i < frame.snakeCount(); i++) {
+          if (frame.snakeLength(i) > frame.snakeLength(mejor)) mejor = i;
+          if (frame.snakeLength(i) <= frame.snakeLength(peor)) peor = i;
+        }
+        if (frame.snakeCount() == 1) {
+            g2.drawString(label(0) + " - Longitud: " + frame.snakeLength(0), getWidth()/2 - 60, y);
         } else {
-            var mejor = ranking.get(0);
-            int idxMejor = snakesList.indexOf(mejor);
-            String nombreMejor = (idxMejor == 0) ? "Jugador Verde" : "Jugador Azul";
-            g2.drawString("Mejor: " + nombreMejor + " (" + mejor.length() + ")", getWidth()/2 - 80, y);
+            g2.drawString("Mejor: " + label(mejor) + " (" + frame.snakeLength(mejor) + ")", getWidth()/2 - 80, y);
             y += 20;
-            var peor = ranking.get(ranking.size()-1);
-            int idxPeor = snakesList.indexOf(peor);
-            String nombrePeor = (idxPeor == 0) ? "Jugador Verde" : "Jugador Azul";
-            g2.drawString("Peor: " + nombrePeor + " (" + peor.length() + ")", getWidth()/2 - 80, y);
+            g2.drawString("Peor: " + label(peor) + " (" + frame.snakeLength(peor) + ")", getWidth()/2 - 80, y);
         }
       }
+    }
 
+    private String label(int idx) {
+      return names != null ? names.apply(idx) : nombre(idx);
+    }
 
-      g2.dispose();
+    private boolean visible(Rectangle clip, int x, int y) {
+      return clip == null || clip.intersects(x, y, cell, cell);
+    }
+
+    private static String nombre(int idx) {
+      return (idx == 0) ? "Jugador Verde" : "Jugador Azul";
     }
   }
 
@@ -0,0 +1,89 @@
+package co.eci.snake.concurrency;
+
+import co.eci.snake.core.Arena;
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnakeRunnerTest - Intervalo propio de cada serpiente: frenado por choque, turbo y la rueda de tiempo
+ */
+class SnakeRunnerTest {
+
+  /**
+   * Arena that does not move anything: every step returns the same result.
+   */
+  private record FixedArena(Board.MoveResult result) implements Arena {
+    @Override public int width() { return 32; }
+    @Override public int height() { return 32; }
+    @Override public Board.MoveResult step(Snake snake) { return result; }
+    @Override public void place(Snake snake) { }
+    @Override public int tileOf(int packed) { return 0; }
+  }
+
+  private static SnakeRunner runner(Board.MoveResult result, long baseMillis) {
+    var runner = new SnakeRunner(Snake.of(1, 1, Direction.RIGHT), new FixedArena(result), new SplittableRandom(1));
+    runner.baseIntervalMillis(baseMillis);
+    return runner;
+  }
+
+  @Test
+  void hittingAnObstacleSlowsDownAndFadesBackToTheBaseInterval() {
+    long base = TimeUnit.MILLISECONDS.toNanos(40);
+    var runner = runner(Board.MoveResult.HIT_OBSTACLE, 40);
+    assertEquals(base, runner.moveIntervalNanos());
+    runner.stepOnce();
+    assertEquals(SnakeRunner.SLOW_MOVES, runner.slowTicks());
+    assertEquals(base * 3 / 2, runner.moveIntervalNanos());
+
+    // Despues del choque se mueve libre: el frenado baja en cada movimiento hasta el base
+    var free = runner(Board.MoveResult.MOVED, 40);
+    free.restoreSlow(runner.slowTicks());
+    long last = free.moveIntervalNanos();
+    for (int i = 0; i < SnakeRunner.SLOW_MOVES; i++) {
+      free.stepOnce();
+      long interval = free.moveIntervalNanos();
+      assertTrue(interval < last, "interval did not decrease at move " + i);
+      last = interval;
+    }
+    assertEquals(0, free.slowTicks());
+    assertEquals(base, free.moveIntervalNanos());
+
+    free.restoreSlow(1_000);
+    assertEquals(SnakeRunner.SLOW_MOVES, free.slowTicks());
+  }
+
+  @Test
+  void turboAndSlowDownCombine() {
+    long base = TimeUnit.MILLISECONDS.toNanos(40);
+    var runner = runner(Board.MoveResult.MOVED, 40);
+    runner.restoreTurbo(SnakeRunner.TURBO_MOVES);
+    assertEquals(base / 2, runner.moveIntervalNanos());
+    runner.restoreSlow(SnakeRunner.SLOW_MOVES);
+    assertEquals(base, runner.moveIntervalNanos());
+  }
+
+  @Test
+  void aSlowedSnakeFiresLessOftenOnTheWheel() {
+    // Misma velocidad base; una choca en cada movimiento y queda siempre frenada (1.5x)
+    var free = runner(Board.MoveResult.MOVED, 10);
+    var slowed = runner(Board.MoveResult.HIT_OBSTACLE, 10);
+    var wheel = new WheelTickScheduler(List.of(free, slowed));
+    wheel.advance(TimeUnit.SECONDS.toNanos(3));
+
+    long freeMoves = free.resultCount(Board.MoveResult.MOVED);
+    long slowedMoves = slowed.resultCount(Board.MoveResult.HIT_OBSTACLE);
+    assertEquals(freeMoves + slowedMoves, wheel.moves());
+    assertEquals(300, freeMoves, 1);
+    // El primer movimiento sale a intervalo base, los siguientes cada 15 ms
+    assertEquals(200, slowedMoves, 2);
+  }
+}
@@ -0,0 +1,122 @@
+package co.eci.snake.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimingWheelTest - Vencimientos en cada nivel, bajadas (cascade) entre niveles y cancelaciones
+ */
+class TimingWheelTest {
+
+  @Test
+  void itemsExpireExactlyAtTheirDeadlineOnEveryLevel() {
+    // Bordes de cada nivel (64, 4096, 262144) y mas alla del ultimo (2^24)
+    long[] delays = {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262_143, 262_144, 262_145,
+        1 << 20, (1 << 24) - 1, 1 << 24, (1 << 24) + 5, 40_000_000};
+    var wheel = new TimingWheel(delays.length);
+    for (int i = 0; i < delays.length; i++) wheel.schedule(i, delays[i]);
+    assertEquals(delays.length, wheel.size());
+
+    long[] firedAt = new long[delays.length];
+    Arrays.fill(firedAt, -1);
+    int fired = wheel.advance(delays[delays.length - 1] + 10, item -> {
+      assertEquals(-1, firedAt[item], "item fired twice");
+      firedAt[item] = wheel.now();
+    });
+    assertEquals(delays.length, fired);
+    assertArrayEquals(delays, firedAt);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void randomScheduleRescheduleAndCancelMatchAReference() {
+    int capacity = 500;
+    var rnd = new SplittableRandom(3);
+    var wheel = new TimingWheel(capacity);
+    long[] expected = new long[capacity];
+    Arrays.fill(expected, -1);
+    List<String> errors = new ArrayList<>();
+    TimingWheel.Expiry check = item -> {
+      if (expected[item] != wheel.now()) errors.add(item + " fired at " + wheel.now() + " expected " + expected[item]);
+      expected[item] = -1;
+    };
+
+    for (int round = 0; round < 2_000; round++) {
+      for (int k = 0; k < 20; k++) {
+        int item = rnd.nextInt(capacity);
+        switch (rnd.nextInt(4)) {
+          case 0 -> {
+            boolean scheduled = expected[item] >= 0;
+            assertEquals(scheduled, wheel.cancel(item));
+            expected[item] = -1;
+          }
+          default -> {
+            // Distancias de todos los niveles, con mas peso en las cortas
+            long delay = switch (rnd.nextInt(4)) {
+              case 0 -> rnd.nextLong(1, 64);
+              case 1 -> rnd.nextLong(1, 4096);
+              case 2 -> rnd.nextLong(1, 300_000);
+              default -> rnd.nextLong(1, 20_000_000);
+            };
+            wheel.schedule(item, delay);
+            expected[item] = wheel.now() + delay;
+          }
+        }
+        assertEquals(expected[item] >= 0, wheel.isScheduled(item));
+        if (expected[item] >= 0) assertEquals(expected[item], wheel.deadline(item));
+      }
+      wheel.advance(rnd.nextLong(1, 5_000), check);
+      assertTrue(errors.isEmpty(), errors.toString());
+      assertEquals(Arrays.stream(expected).filter(d -> d >= 0).count(), wheel.size());
+    }
+    // Todo lo pendiente vence a su tiempo
+    long last = Arrays.stream(expected).max().orElse(0);
+    wheel.advance(Math.max(0, last - wheel.now()), check);
+    assertTrue(errors.isEmpty(), errors.toString());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancelledItemsNeverFire() {
+    var wheel = new TimingWheel(4);
+    wheel.schedule(0, 10);
+    wheel.schedule(1, 10);
+    wheel.schedule(2, 5_000);
+    wheel.schedule(3, 300_000);
+    assertTrue(wheel.cancel(1));
+    assertFalse(wheel.cancel(1));
+    wheel.advance(4_100, item -> {});
+    // El 3 ya bajo de nivel al menos una vez; cancelarlo igual lo saca
+    assertTrue(wheel.cancel(3));
+    List<Integer> fired = new ArrayList<>();
+    wheel.advance(400_000, fired::add);
+    assertEquals(List.of(2), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void expiryMayCancelOrRescheduleItemsOfTheSameSlot() {
+    var wheel = new TimingWheel(3);
+    for (int i = 0; i < 3; i++) wheel.schedule(i, 100);
+    List<Integer> fired = new ArrayList<>();
+    wheel.advance(100, item -> {
+      fired.add(item);
+      // El primero que vence cancela a uno y posterga al otro
+      if (fired.size() == 1) {
+        wheel.cancel((item + 1) % 3);
+        wheel.schedule((item + 2) % 3, 50);
+      }
+    });
+    assertEquals(1, fired.size());
+    assertEquals(1, wheel.size());
+    wheel.advance(50, fired::add);
+    assertEquals(2, fired.size());
+    assertEquals((fired.get(0) + 2) % 3, fired.get(1));
+  }
+}
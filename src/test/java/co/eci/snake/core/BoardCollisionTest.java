@@ -0,0 +1,104 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoardCollisionTest - Choques entre serpientes por CAS sobre occupant
+ */
+class BoardCollisionTest {
+
+  /**
+   * A cell with no obstacle nor teleport whose two horizontal neighbours have no teleport either,
+   * so two heads coming from the sides both target it.
+   */
+  private static int contestedCell(Board board) {
+    int w = board.width();
+    for (int y = 0; y < board.height(); y++) {
+      for (int x = 1; x < w - 1; x++) {
+        int c = y * w + x;
+        if (board.hasObstacle(c) || board.teleportTarget(c) >= 0) continue;
+        if (board.teleportTarget(c - 1) >= 0 || board.teleportTarget(c + 1) >= 0) continue;
+        return c;
+      }
+    }
+    throw new AssertionError("no free cell");
+  }
+
+  @Test
+  void twoHeadsRacingForTheSameCellLetExactlyOneIn() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      for (int round = 0; round < 2_000; round++) {
+        var board = new Board(16, 16, round % 2 == 0 ? 0 : 4);
+        int c = contestedCell(board);
+        int x = c % board.width(), y = c / board.width();
+        var left = Snake.of(x - 1, y, Direction.RIGHT);
+        var right = Snake.of(x + 1, y, Direction.LEFT);
+        board.place(left);
+        board.place(right);
+
+        var barrier = new CyclicBarrier(2);
+        Future<Board.MoveResult> a = pool.submit(() -> {
+          barrier.await();
+          return board.step(left);
+        });
+        Future<Board.MoveResult> b = pool.submit(() -> {
+          barrier.await();
+          return board.step(right);
+        });
+        var ra = a.get();
+        var rb = b.get();
+
+        assertTrue(ra.moved() ^ rb.moved(), "round " + round + ": " + ra + " / " + rb);
+        var winner = ra.moved() ? left : right;
+        var loser = ra.moved() ? right : left;
+        assertEquals(Board.MoveResult.BLOCKED, ra.moved() ? rb : ra);
+        assertEquals(winner.id(), board.occupant(c));
+        assertEquals(Position.pack(x, y), winner.headPacked());
+        // El perdedor no se movio y sigue duenio de su celda
+        int loserCell = loser == left ? c - 1 : c + 1;
+        assertEquals(Position.pack(loserCell % board.width(), y), loser.headPacked());
+        assertEquals(loser.id(), board.occupant(loserCell));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void aHeadCannotEnterAnotherBody() {
+    var board = new Board(16, 16);
+    int c = contestedCell(board);
+    int x = c % board.width(), y = c / board.width();
+    var other = Snake.of(x, y, Direction.UP);
+    var snake = Snake.of(x - 1, y, Direction.RIGHT);
+    board.place(other);
+    board.place(snake);
+
+    assertEquals(Board.MoveResult.BLOCKED, board.step(snake));
+    assertEquals(Position.pack(x - 1, y), snake.headPacked());
+    assertEquals(other.id(), board.occupant(c));
+    assertEquals(snake.id(), board.occupant(c - 1));
+  }
+
+  @Test
+  void movingReleasesTheTailCell() {
+    var board = new Board(16, 16);
+    int c = contestedCell(board);
+    int x = c % board.width(), y = c / board.width();
+    // Largo maximo 1: al avanzar suelta la celda de partida
+    var snake = Snake.restore(Direction.RIGHT, 1, new int[] {Position.pack(x - 1, y)}, 1);
+    board.place(snake);
+
+    assertTrue(board.step(snake).moved());
+    assertEquals(snake.id(), board.occupant(c));
+    assertEquals(0, board.occupant(c - 1));
+  }
+}
@@ -0,0 +1,92 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CellBitSetTest - add/remove, recorrido y copia contra un TreeSet de referencia
+ */
+class CellBitSetTest {
+
+  @Test
+  void addAndRemoveReportWhetherTheBitChanged() {
+    var set = new CellBitSet(10, 7);
+    assertEquals(70, set.cells());
+    assertEquals(2, set.wordCount());
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    assertTrue(set.add(63));
+    assertTrue(set.add(64));
+    assertTrue(set.add(69));
+    assertEquals(4, set.size());
+    assertTrue(set.contains(63) && set.contains(64));
+    assertFalse(set.contains(1));
+
+    assertTrue(set.remove(63));
+    assertFalse(set.remove(63));
+    assertFalse(set.remove(5));
+    assertEquals(3, set.size());
+    assertEquals(1L, set.word(0));
+  }
+
+  @Test
+  void iterationMatchesASortedReference() {
+    var rnd = new SplittableRandom(5);
+    var set = new CellBitSet(37, 29);
+    var reference = new TreeSet<Integer>();
+    for (int op = 0; op < 20_000; op++) {
+      int c = rnd.nextInt(set.cells());
+      if (rnd.nextBoolean()) assertEquals(reference.add(c), set.add(c));
+      else assertEquals(reference.remove(c), set.remove(c));
+    }
+    assertEquals(reference.size(), set.size());
+
+    List<Integer> cells = new ArrayList<>();
+    for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1)) cells.add(c);
+    assertEquals(new ArrayList<>(reference), cells);
+    assertEquals(-1, set.nextSetBit(set.cells()));
+
+    // La vista de posiciones recorre las mismas celdas en el mismo orden
+    List<Integer> viewed = new ArrayList<>();
+    for (Position p : set.asSet()) viewed.add(p.y() * 37 + p.x());
+    assertEquals(cells, viewed);
+    assertEquals(reference.size(), set.asSet().size());
+    int first = reference.first();
+    assertTrue(set.asSet().contains(new Position(first % 37, first / 37)));
+    assertFalse(set.asSet().contains(new Position(37, 0)));
+  }
+
+  @Test
+  void nextSetBitIgnoresTheTailOfTheLastWord() {
+    var set = new CellBitSet(5, 5);
+    assertEquals(-1, set.nextSetBit(0));
+    set.add(24);
+    assertEquals(24, set.nextSetBit(0));
+    assertEquals(24, set.nextSetBit(24));
+    assertEquals(-1, set.nextSetBit(25));
+  }
+
+  @Test
+  void storeAndLoadRoundTrip() {
+    var set = new CellBitSet(20, 20);
+    for (int c = 0; c < set.cells(); c += 7) set.add(c);
+    var buf = ByteBuffer.allocate(set.wordCount() * Long.BYTES);
+    set.store(buf);
+    buf.flip();
+
+    var copy = new CellBitSet(20, 20);
+    copy.load(buf);
+    assertEquals(set.size(), copy.size());
+    long[] a = new long[set.wordCount()], b = new long[copy.wordCount()];
+    set.copyWords(a);
+    copy.copyWords(b);
+    assertArrayEquals(a, b);
+  }
+}
@@ -0,0 +1,135 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChunkedBoardTest - Desalojo de chunks vacios, teleports entre chunks y celdas de serpientes
+ */
+class ChunkedBoardTest {
+  private static final int WORLD = 100_000;
+
+  private static ChunkedBoard board(int teleportPairs) {
+    return new ChunkedBoard(WORLD, WORLD, 16, teleportPairs, new SplittableRandom(21));
+  }
+
+  @Test
+  void snakeCellsDecodeToWorldCoordinates() {
+    var board = board(0);
+    var snake = board.spawnSnake(99_990, 70_001, Direction.RIGHT);
+    assertEquals(new Position(99_990, 70_001), snake.head());
+    assertEquals(99_990, board.x(snake.headPacked()));
+    assertEquals(70_001, board.y(snake.headPacked()));
+    assertEquals(snake.headPacked(), board.cell(99_990, 70_001));
+    assertTrue(snake.occupies(99_990, 70_001));
+    assertEquals(snake.id(), board.occupant(99_990, 70_001));
+
+    // Sin chunk en memoria no hay celda (ni serpiente)
+    assertEquals(-1, board.cell(10, 10));
+    assertFalse(snake.occupies(10, 10));
+    assertEquals(-1, board.cell(WORLD, 0));
+  }
+
+  @Test
+  void chunksLeftBehindAreEvicted() {
+    var board = board(0);
+    var snake = board.spawnSnake(100, 100, Direction.RIGHT);
+    board.step(snake);
+    // Chunk de la serpiente (y quiza el del primer raton)
+    assertTrue(board.chunkCount() <= 2);
+
+    // Lejos de los ratones: la serpiente cruza chunks de 16 celdas sin comer
+    for (int i = 0; i < 2_000; i++) {
+      var result = board.step(snake);
+      assertTrue(result == Board.MoveResult.MOVED || result == Board.MoveResult.ATE_MOUSE, result.toString());
+    }
+    var head = snake.head();
+    assertEquals(new Position(2_101, 100), head);
+    List<Position> body = List.copyOf(snake.snapshot());
+    assertEquals(snake.length(), body.size());
+    for (int i = 0; i < body.size(); i++) assertEquals(new Position(2_101 - i, 100), body.get(i));
+    assertFalse(snake.occupies(100, 100));
+    assertEquals(0, board.occupant(100, 100));
+
+    // Solo quedan los chunks del cuerpo y de los items que dejo atras; el resto se desalojo
+    long items = board.miceCount() + board.obstacleCount() + board.turboCount();
+    assertTrue(board.chunkCount() <= 2 + items, "chunks " + board.chunkCount() + ", items " + items);
+    assertTrue(board.allocatedChunks() >= 2_000 / 16);
+    assertEquals(board.allocatedChunks() - board.evictedChunks(), board.chunkCount());
+  }
+
+  @Test
+  void failedMovesDoNotAllocateChunks() {
+    var board = board(0);
+    var a = board.spawnSnake(31, 5, Direction.RIGHT);
+    var b = board.spawnSnake(32, 5, Direction.LEFT);
+    long allocated = board.allocatedChunks();
+    assertEquals(Board.MoveResult.BLOCKED, board.step(a));
+    assertEquals(Board.MoveResult.BLOCKED, board.step(b));
+    assertEquals(allocated, board.allocatedChunks());
+    assertEquals(new Position(31, 5), a.head());
+    assertEquals(new Position(32, 5), b.head());
+  }
+
+  @Test
+  void teleportsCarrySnakesAcrossDistantChunks() {
+    var board = board(0);
+    assertTrue(board.addTeleportPair(500, 500, 80_000, 12_345));
+    assertFalse(board.addTeleportPair(500, 500, 7, 7));
+    assertEquals(board.cell(80_000, 12_345), board.teleportTarget(500, 500));
+    assertTrue(board.isTeleport(80_000, 12_345));
+
+    var snake = board.spawnSnake(498, 500, Direction.RIGHT);
+    assertEquals(Board.MoveResult.MOVED, board.step(snake));
+    assertEquals(Board.MoveResult.TELEPORTED, board.step(snake));
+    assertEquals(new Position(80_000, 12_345), snake.head());
+    assertEquals(snake.id(), board.occupant(80_000, 12_345));
+    assertTrue(snake.occupies(499, 500));
+
+    // Sigue hacia la derecha desde el destino
+    board.step(snake);
+    assertEquals(new Position(80_001, 12_345), snake.head());
+    // Los chunks con teleport quedan fijos aunque se vacien
+    for (int i = 0; i < 100; i++) board.step(snake);
+    assertEquals(0, board.occupant(499, 500));
+    assertTrue(board.cell(500, 500) >= 0);
+    assertTrue(board.cell(80_000, 12_345) >= 0);
+  }
+
+  @Test
+  void overlappingStartsMoveToTheNextFreeCell() {
+    var board = board(0);
+    var a = board.spawnSnake(WORLD - 1, 40, Direction.UP);
+    var b = board.spawnSnake(WORLD - 1, 40, Direction.UP);
+    assertEquals(new Position(WORLD - 1, 40), a.head());
+    // La fila da la vuelta
+    assertEquals(new Position(0, 41), b.head());
+    assertEquals(b.id(), board.occupant(0, 41));
+
+    // Al irse ambas los chunks de inicio se desalojan (ninguno queda fijado)
+    for (int i = 0; i < 200; i++) {
+      board.step(a);
+      board.step(b);
+    }
+    assertEquals(0, board.occupant(WORLD - 1, 40));
+    assertEquals(0, board.occupant(0, 41));
+    long items = board.miceCount() + board.obstacleCount() + board.turboCount();
+    assertTrue(board.chunkCount() <= 2 + items, "chunks " + board.chunkCount() + ", items " + items);
+  }
+
+  @Test
+  void placeRejectsBodiesOnAnotherSnakeAndReleasesWhatItClaimed() {
+    var board = board(0);
+    var a = board.spawnSnake(10, 10, Direction.RIGHT);
+    // Un cuerpo que termina sobre la cabeza de a (mismo chunk, asi que sus celdas existen)
+    var copy = Snake.restore(Direction.RIGHT, 5, new int[] {board.cell(12, 10), board.cell(11, 10), a.headPacked()}, 3);
+    assertThrows(IllegalArgumentException.class, () -> board.place(copy));
+    assertEquals(a.id(), board.occupant(10, 10));
+    assertEquals(0, board.occupant(11, 10));
+    assertEquals(0, board.occupant(12, 10));
+  }
+}
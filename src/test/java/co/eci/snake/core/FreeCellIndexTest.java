@@ -0,0 +1,111 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FreeCellIndexTest - swap-remove, conteo de ocupantes y muestreo contra un conjunto de referencia
+ */
+class FreeCellIndexTest {
+
+  @Test
+  void startsWithEveryCellFree() {
+    var index = new FreeCellIndex(10);
+    assertEquals(10, index.freeCount());
+    for (int c = 0; c < 10; c++) assertTrue(index.isFree(c));
+  }
+
+  @Test
+  void aCellIsFreeAgainOnlyWhenItsLastOccupantLeaves() {
+    var index = new FreeCellIndex(4);
+    assertTrue(index.acquire(2));
+    // Un segmento de serpiente sobre un item: dos ocupantes
+    assertFalse(index.acquire(2));
+    assertEquals(3, index.freeCount());
+    assertFalse(index.release(2));
+    assertFalse(index.isFree(2));
+    assertTrue(index.release(2));
+    assertTrue(index.isFree(2));
+    assertEquals(4, index.freeCount());
+    // Soltar una celda libre no cambia nada
+    assertFalse(index.release(2));
+    assertEquals(4, index.freeCount());
+
+    assertTrue(index.claim(1));
+    assertFalse(index.claim(1));
+    assertFalse(index.isFree(1));
+  }
+
+  @Test
+  void randomOperationsMatchAReferenceSet() {
+    int cells = 300;
+    var rnd = new SplittableRandom(9);
+    var index = new FreeCellIndex(cells);
+    int[] refs = new int[cells];
+    for (int op = 0; op < 50_000; op++) {
+      int c = rnd.nextInt(cells);
+      switch (rnd.nextInt(4)) {
+        case 0 -> assertEquals(refs[c]++ == 0, index.acquire(c));
+        case 1 -> {
+          boolean freed = refs[c] == 1;
+          if (refs[c] > 0) refs[c]--;
+          assertEquals(freed, index.release(c));
+        }
+        case 2 -> {
+          int claimed = index.claimRandom(rnd);
+          if (claimed >= 0) {
+            assertEquals(0, refs[claimed], "claimed a busy cell");
+            refs[claimed] = 1;
+          }
+        }
+        default -> {
+          int sampled = index.sample(rnd);
+          if (sampled >= 0) assertEquals(0, refs[sampled], "sampled a busy cell");
+        }
+      }
+      if (op % 500 == 0) assertMatches(index, refs);
+    }
+    assertMatches(index, refs);
+  }
+
+  @Test
+  void samplingStaysInsideTheFreeSetWhenAlmostFull() {
+    int cells = 1_000;
+    var rnd = new SplittableRandom(13);
+    var index = new FreeCellIndex(cells);
+    Set<Integer> free = new HashSet<>();
+    // Se llena hasta dejar 3 celdas libres
+    for (int c = 0; c < cells; c++) {
+      if (c % 333 == 7) free.add(c);
+      else index.acquire(c);
+    }
+    assertEquals(free.size(), index.freeCount());
+    Set<Integer> seen = new HashSet<>();
+    for (int i = 0; i < 2_000; i++) {
+      int c = index.sample(rnd);
+      assertTrue(free.contains(c), "sampled busy cell " + c);
+      seen.add(c);
+    }
+    // Uniforme: en 2000 muestras aparecen las tres
+    assertEquals(free, seen);
+
+    for (int i = 0; i < free.size(); i++) assertTrue(free.contains(index.claimRandom(rnd)));
+    assertEquals(0, index.freeCount());
+    assertEquals(-1, index.claimRandom(rnd));
+    assertEquals(-1, index.sample(rnd));
+  }
+
+  private static void assertMatches(FreeCellIndex index, int[] refs) {
+    int free = 0;
+    for (int c = 0; c < refs.length; c++) {
+      assertEquals(refs[c] == 0, index.isFree(c), "cell " + c);
+      if (refs[c] == 0) free++;
+    }
+    assertEquals(free, index.freeCount());
+  }
+}
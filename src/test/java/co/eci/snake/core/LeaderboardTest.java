@@ -0,0 +1,126 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeaderboardTest - El ranking incremental contra un ordenamiento de referencia
+ */
+class LeaderboardTest {
+
+  /**
+   * Checks every query of board against lengths sorted from scratch. Snakes of equal length may
+   * come in any order, so ranks are checked against the block of their length.
+   */
+  private static void assertMatchesSorted(Leaderboard board, int[] lengths) {
+    int n = lengths.length;
+    int[] sorted = lengths.clone();
+    Arrays.sort(sorted);
+
+    int[] top = new int[n], topLengths = new int[n];
+    assertEquals(n, board.top(top, topLengths));
+    int[] bottom = new int[n], bottomLengths = new int[n];
+    assertEquals(n, board.bottom(bottom, bottomLengths));
+    boolean[] seen = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      assertEquals(sorted[n - 1 - i], topLengths[i], "top length " + i);
+      assertEquals(lengths[top[i]], topLengths[i]);
+      assertEquals(sorted[i], bottomLengths[i], "bottom length " + i);
+      assertEquals(top[n - 1 - i], bottom[i]);
+      assertEquals(i, board.rank(top[i]));
+      assertFalse(seen[top[i]], "snake listed twice");
+      seen[top[i]] = true;
+    }
+    for (int s = 0; s < n; s++) {
+      int own = lengths[s];
+      assertEquals(own, board.length(s));
+      long longer = Arrays.stream(lengths).filter(l -> l > own).count();
+      long notShorter = Arrays.stream(lengths).filter(l -> l >= own).count();
+      int rank = board.rank(s);
+      assertTrue(rank >= longer && rank < notShorter, "rank of " + s + " = " + rank);
+    }
+    if (n > 0) assertEquals(sorted[n - 1], lengths[board.leader()]);
+  }
+
+  @Test
+  void randomGrowAndShrinkMatchesASortedReference() {
+    var rnd = new SplittableRandom(7);
+    for (int n : new int[] {1, 2, 5, 40}) {
+      var board = new Leaderboard(n);
+      int[] lengths = new int[n];
+      for (int op = 0; op < 5_000; op++) {
+        int s = rnd.nextInt(n);
+        // Sobre todo pasos de a un segmento (como el motor) y a veces saltos grandes
+        int l = rnd.nextInt(10) == 0 ? rnd.nextInt(70) : Math.max(0, lengths[s] + rnd.nextInt(-1, 3));
+        board.update(s, l);
+        lengths[s] = l;
+        if (op % 50 == 0) assertMatchesSorted(board, lengths);
+      }
+      assertMatchesSorted(board, lengths);
+    }
+  }
+
+  @Test
+  void equalLengthsKeepTheOrderInWhichTheyWereReached() {
+    var board = new Leaderboard(3);
+    board.update(2, 4);
+    board.update(0, 4);
+    board.update(1, 4);
+    int[] top = new int[3];
+    board.top(top);
+    assertArrayEquals(new int[] {2, 0, 1}, top);
+  }
+
+  @Test
+  void partialTopAndBottom() {
+    var board = new Leaderboard(4);
+    board.update(0, 1);
+    board.update(1, 7);
+    board.update(2, 3);
+    board.update(3, 5);
+    int[] two = new int[2], lengths = new int[2];
+    assertEquals(2, board.top(two, lengths));
+    assertArrayEquals(new int[] {1, 3}, two);
+    assertArrayEquals(new int[] {7, 5}, lengths);
+    assertEquals(2, board.bottom(two, lengths));
+    assertArrayEquals(new int[] {0, 2}, two);
+    assertArrayEquals(new int[] {1, 3}, lengths);
+    assertEquals(4, board.top(new int[10]));
+    assertThrows(IllegalArgumentException.class, () -> board.update(0, -1));
+  }
+
+  @Test
+  void readersNeverSeeAHalfUpdatedRanking() throws InterruptedException {
+    int n = 16;
+    var board = new Leaderboard(n);
+    var stop = new AtomicBoolean();
+    String[] error = new String[1];
+    var reader = Thread.ofPlatform().start(() -> {
+      int[] top = new int[n], lengths = new int[n];
+      while (!stop.get() && error[0] == null) {
+        board.top(top, lengths);
+        boolean[] seen = new boolean[n];
+        for (int i = 0; i < n; i++) {
+          if (seen[top[i]] || (i > 0 && lengths[i] > lengths[i - 1])) error[0] = Arrays.toString(top) + Arrays.toString(lengths);
+          seen[top[i]] = true;
+        }
+      }
+    });
+    var rnd = new SplittableRandom(11);
+    int[] lengths = new int[n];
+    for (int op = 0; op < 200_000; op++) {
+      int s = rnd.nextInt(n);
+      lengths[s] = Math.max(0, lengths[s] + rnd.nextInt(-1, 2));
+      board.update(s, lengths[s]);
+    }
+    stop.set(true);
+    reader.join();
+    assertNull(error[0]);
+    assertMatchesSorted(board, lengths);
+  }
+}
@@ -0,0 +1,105 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RespawnPipelineTest - Demora de la reposicion, tope de items y pedidos que desbordan la cola
+ */
+class RespawnPipelineTest {
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) fail("timed out");
+      Thread.sleep(1);
+    }
+  }
+
+  private static int items(Board board) {
+    return board.mice().size() + board.obstacles().size() + board.turbo().size();
+  }
+
+  @Test
+  void aRequestIsServedOnlyAfterThePolicyDelay() throws InterruptedException {
+    var board = new Board(20, 20);
+    board.respawnPolicy(new RespawnPolicy(300, Integer.MAX_VALUE, 0, 0));
+    int mice = board.mice().size();
+    var pipeline = board.startRespawnPipeline();
+    try {
+      long t0 = System.nanoTime();
+      pipeline.request();
+      assertEquals(1, pipeline.requested());
+      assertEquals(0, pipeline.served());
+
+      long[] pending = pipeline.hold();
+      pipeline.release();
+      assertEquals(1, pending.length);
+      assertTrue(pending[0] > 0 && pending[0] <= TimeUnit.MILLISECONDS.toNanos(300), "delay " + pending[0]);
+
+      await(() -> pipeline.served() == 1);
+      assertTrue(System.nanoTime() - t0 >= TimeUnit.MILLISECONDS.toNanos(300));
+      assertEquals(mice + 1, board.mice().size());
+      assertEquals(0, pipeline.overflowed());
+    } finally {
+      board.stopRespawnPipeline();
+    }
+  }
+
+  @Test
+  void maxItemsCapsTheBoardAndKeepsRoomForQueuedMice() throws InterruptedException {
+    var board = new Board(20, 20);
+    int mice = board.mice().size(), obstacles = board.obstacles().size(), turbo = board.turbo().size();
+    int cap = items(board) + 3;
+    // Cada raton pediria un obstaculo y un turbo, pero solo entran tres items mas
+    board.respawnPolicy(new RespawnPolicy(0, cap, 1.0, 1.0));
+    var pipeline = board.startRespawnPipeline();
+    try {
+      // Retenida: los diez pedidos se encolan antes de que la etapa atienda el primero
+      pipeline.hold();
+      for (int i = 0; i < 10; i++) pipeline.request();
+      pipeline.release();
+      await(() -> pipeline.served() == 10);
+
+      assertEquals(cap, items(board));
+      // Los lugares que quedaban fueron para ratones, no para obstaculos ni turbo
+      assertEquals(mice + 3, board.mice().size());
+      assertEquals(obstacles, board.obstacles().size());
+      assertEquals(turbo, board.turbo().size());
+    } finally {
+      board.stopRespawnPipeline();
+    }
+  }
+
+  @Test
+  void requestsThatOverflowTheQueueAreServedWithoutDelay() throws InterruptedException {
+    var board = new Board(20, 20);
+    board.respawnPolicy(new RespawnPolicy(60_000, Integer.MAX_VALUE, 0, 0));
+    int mice = board.mice().size();
+    try (var pipeline = new RespawnPipeline(board, 4)) {
+      pipeline.hold();
+      for (int i = 0; i < 6; i++) pipeline.request();
+      assertEquals(6, pipeline.requested());
+      assertEquals(2, pipeline.overflowed());
+
+      // Cuatro esperan su demora de un minuto; los dos desbordados quedan en 0
+      long[] pending = pipeline.hold();
+      pipeline.release();
+      pipeline.release();
+      assertEquals(6, pending.length);
+      for (int i = 0; i < 4; i++) assertTrue(pending[i] > TimeUnit.SECONDS.toNanos(50), "delay " + pending[i]);
+      assertEquals(0, pending[4]);
+      assertEquals(0, pending[5]);
+
+      await(() -> pipeline.served() == 2);
+      assertEquals(mice + 2, board.mice().size());
+      // Los encolados siguen esperando
+      Thread.sleep(20);
+      assertEquals(2, pipeline.served());
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package co.eci.snake.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnakeTest - Ring buffer del cuerpo: vueltas, crecimiento hasta maxLength y ocupacion con solapes
+ */
+class SnakeTest {
+
+  private static List<Position> body(Snake snake) {
+    return List.copyOf(snake.snapshot());
+  }
+
+  @Test
+  void bodyKeepsTheLastMaxLengthCellsWhileTheRingWrapsAround() {
+    var snake = Snake.of(0, 0, Direction.RIGHT);
+    Deque<Position> expected = new ArrayDeque<>(List.of(new Position(0, 0)));
+    // Mas movimientos que la capacidad inicial: headIdx da varias vueltas al ring
+    for (int x = 1; x <= 40; x++) {
+      var tail = snake.tailPacked();
+      var dropped = snake.advance(new Position(x, 0), false);
+      expected.addFirst(new Position(x, 0));
+      if (expected.size() > snake.maxLength()) {
+        assertEquals(expected.removeLast(), dropped);
+        assertEquals(Position.unpack(tail), dropped);
+      } else {
+        assertNull(dropped);
+      }
+      assertEquals(List.copyOf(expected), body(snake));
+    }
+    assertEquals(5, snake.length());
+    assertEquals(new Position(40, 0), snake.head());
+    assertEquals(Position.pack(36, 0), snake.tailPacked());
+  }
+
+  @Test
+  void growingRaisesMaxLengthAndKeepsTheOrder() {
+    var snake = Snake.of(0, 0, Direction.DOWN);
+    for (int y = 1; y <= 20; y++) assertFalse(snake.advance(Position.pack(0, y), true));
+    assertEquals(21, snake.length());
+    assertEquals(25, snake.maxLength());
+    int[] segments = new int[40];
+    assertEquals(21, snake.copySegments(segments));
+    for (int i = 0; i < 21; i++) assertEquals(Position.pack(0, 20 - i), segments[i]);
+
+    // Sin crecer vuelve a descartar la cola al llegar a maxLength
+    for (int y = 21; y <= 24; y++) assertFalse(snake.advance(Position.pack(0, y), false));
+    assertTrue(snake.advance(Position.pack(0, 25), false));
+    assertEquals(25, snake.length());
+    assertEquals(new Position(0, 25), snake.head());
+    assertEquals(Position.pack(0, 1), snake.tailPacked());
+  }
+
+  @Test
+  void occupiesCountsOverlappingSegments() {
+    var snake = Snake.of(1, 1, Direction.RIGHT);
+    // Un cuerpo que pasa dos veces por (1, 1)
+    snake.advance(new Position(2, 1), false);
+    snake.advance(new Position(2, 2), false);
+    snake.advance(new Position(1, 2), false);
+    snake.advance(new Position(1, 1), false);
+    assertEquals(5, snake.length());
+    assertTrue(snake.occupies(1, 1));
+
+    // La cola deja (1, 1) pero la cabeza sigue ahi
+    assertEquals(new Position(1, 1), snake.advance(new Position(0, 1), false));
+    assertTrue(snake.occupies(1, 1));
+    assertTrue(snake.occupies(2, 1));
+    assertFalse(snake.occupies(3, 3));
+
+    // Cuatro pasos mas sacan a (1, 1) del cuerpo
+    for (int y = 2; y <= 5; y++) snake.advance(new Position(0, y), false);
+    assertFalse(snake.occupies(1, 1));
+    assertFalse(snake.occupies(2, 1));
+    assertTrue(snake.occupies(0, 5));
+  }
+
+  @Test
+  void restoreRebuildsTheBody() {
+    int[] body = {Position.pack(3, 3), Position.pack(3, 4), Position.pack(3, 5)};
+    var snake = Snake.restore(Direction.UP, 7, body, 3);
+    assertEquals(3, snake.length());
+    assertEquals(7, snake.maxLength());
+    assertEquals(List.of(new Position(3, 3), new Position(3, 4), new Position(3, 5)), body(snake));
+    assertTrue(snake.occupies(3, 5));
+    assertThrows(IllegalArgumentException.class, () -> Snake.restore(Direction.UP, 5, body, 0));
+  }
+
+  @Test
+  void copySegmentsStopsAtTheDestinationLength() {
+    var snake = Snake.of(0, 0, Direction.RIGHT);
+    for (int x = 1; x < 5; x++) snake.advance(Position.pack(x, 0), false);
+    int[] two = new int[2];
+    assertEquals(2, snake.copySegments(two));
+    assertArrayEquals(new int[] {Position.pack(4, 0), Position.pack(3, 0)}, two);
+    assertEquals(4, snake.version() / 2);
+  }
+}
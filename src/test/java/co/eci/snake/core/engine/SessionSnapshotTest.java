@@ -0,0 +1,98 @@
+package co.eci.snake.core.engine;
+
+import co.eci.snake.core.RespawnPolicy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SessionSnapshotTest - write() seguido de restore() reconstruye la misma partida
+ */
+class SessionSnapshotTest {
+  @TempDir
+  Path dir;
+
+  private static SessionConfig seeded() {
+    return new SessionConfig(48, 40, 6, 10, 8, 42L);
+  }
+
+  @Test
+  void restoredSessionHasTheSameStateHash() throws IOException {
+    Path file = dir.resolve("game.snk");
+    try (var session = new GameSession(seeded(), () -> {})) {
+      session.runHeadless(700, 0);
+      long bytes = SessionSnapshot.write(session, file);
+      assertEquals(Files.size(file), bytes);
+
+      try (var restored = SessionSnapshot.restore(file, () -> {})) {
+        assertEquals(session.stateHash(), restored.stateHash());
+        assertEquals(session.tickCount(), restored.tickCount());
+        assertEquals(session.config().width(), restored.config().width());
+        assertEquals(session.config().height(), restored.config().height());
+        assertEquals(session.config().seed(), restored.config().seed());
+        for (int i = 0; i < session.snakes().size(); i++) {
+          var a = session.snakes().get(i);
+          var b = restored.snakes().get(i);
+          assertEquals(a.direction(), b.direction());
+          assertEquals(a.maxLength(), b.maxLength());
+          assertEquals(session.runners().get(i).turboTicks(), restored.runners().get(i).turboTicks());
+          assertEquals(session.runners().get(i).slowTicks(), restored.runners().get(i).slowTicks());
+        }
+      }
+    }
+  }
+
+  @Test
+  void restoredSeededSessionsKeepPlayingTheSameGame() throws IOException {
+    Path file = dir.resolve("game.snk");
+    try (var session = new GameSession(seeded(), () -> {})) {
+      session.runHeadless(300, 0);
+      SessionSnapshot.write(session, file);
+    }
+    try (var a = SessionSnapshot.restore(file, () -> {}); var b = SessionSnapshot.restore(file, () -> {})) {
+      a.runHeadless(500, 0);
+      b.runHeadless(500, 0);
+      assertEquals(a.stateHash(), b.stateHash());
+      assertEquals(800, a.tickCount());
+    }
+  }
+
+  @Test
+  void respawnPolicySurvivesTheRoundTrip() throws IOException {
+    Path file = dir.resolve("policy.snk");
+    var policy = new RespawnPolicy(250, 40, 0.25, 0.5);
+    try (var session = new GameSession(seeded(), () -> {})) {
+      session.board().respawnPolicy(policy);
+      SessionSnapshot.write(session, file);
+    }
+    try (var restored = SessionSnapshot.restore(file, () -> {})) {
+      assertEquals(policy, restored.board().respawnPolicy());
+    }
+  }
+
+  @Test
+  void unseededSessionRoundTrips() throws IOException {
+    Path file = dir.resolve("free.snk");
+    var config = new SessionConfig(30, 30, 4, 10, 0, null);
+    try (var session = new GameSession(config, () -> {})) {
+      SessionSnapshot.write(session, file);
+      try (var restored = SessionSnapshot.restore(file, () -> {})) {
+        assertEquals(session.stateHash(), restored.stateHash());
+        assertFalse(restored.config().deterministic());
+      }
+    }
+  }
+
+  @Test
+  void rejectsFilesThatAreNotSnapshots() throws IOException {
+    Path file = dir.resolve("junk.snk");
+    Files.write(file, new byte[64]);
+    assertThrows(IOException.class, () -> SessionSnapshot.restore(file, () -> {}));
+  }
+}
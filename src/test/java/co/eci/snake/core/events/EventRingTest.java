@@ -0,0 +1,126 @@
+package co.eci.snake.core.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventRingTest - Vueltas del ring, lectores atrasados y varios productores a la vez
+ */
+class EventRingTest {
+
+  @Test
+  void rejectsCapacityThatIsNotAPowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new EventRing(0, WaitStrategy.busySpin()));
+    assertThrows(IllegalArgumentException.class, () -> new EventRing(12, WaitStrategy.busySpin()));
+  }
+
+  @Test
+  void readReportsUnpublishedAndOverwrittenSlots() {
+    var ring = new EventRing(4, WaitStrategy.busySpin());
+    EventHandler none = (seq, type, snake, cell, end) -> fail("no event expected");
+    assertTrue(ring.read(0, none, true) < 0);
+    assertFalse(ring.isPublished(0));
+
+    for (int i = 0; i < 6; i++) assertEquals(i, ring.publish(EventType.MOVED, 1, i));
+    assertTrue(ring.isPublished(0));
+    // La secuencia 0 fue pisada por la 4 y la 1 por la 5
+    assertEquals(4, ring.read(0, none, false));
+    assertEquals(5, ring.read(1, none, false));
+
+    long[] got = new long[2];
+    assertEquals(0, ring.read(2, (seq, type, snake, cell, end) -> {
+      got[0] = seq;
+      got[1] = cell;
+    }, false));
+    assertArrayEquals(new long[] {2, 2}, got);
+  }
+
+  @Test
+  void processorSkipsToTheLastLapAfterAnOverrun() throws InterruptedException {
+    int capacity = 16;
+    var ring = new EventRing(capacity, WaitStrategy.sleeping());
+    List<Integer> cells = new ArrayList<>();
+    long[] overruns = new long[1];
+    var done = new CountDownLatch(1);
+    var processor = new EventProcessor(ring, new EventHandler() {
+      @Override
+      public void onEvent(long sequence, EventType type, int snake, int cell, boolean endOfBatch) {
+        cells.add(cell);
+        if (cell == 3 * capacity - 1) done.countDown();
+      }
+
+      @Override
+      public void onOverrun(long lost) { overruns[0] += lost; }
+    });
+    // Tres vueltas antes de que el procesador lea nada: solo la ultima sigue intacta
+    for (int i = 0; i < 3 * capacity; i++) ring.publish(EventType.MOVED, 0, i);
+
+    var thread = Thread.ofPlatform().start(processor);
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join(5000);
+
+    assertEquals(2L * capacity, processor.lost());
+    assertEquals(2L * capacity, overruns[0]);
+    assertEquals(capacity, cells.size());
+    for (int i = 0; i < capacity; i++) assertEquals(2 * capacity + i, cells.get(i));
+    assertEquals(3L * capacity, processor.sequence());
+    assertEquals(0, processor.backlog());
+  }
+
+  @Test
+  void severalProducersWrapTheRingWithoutTornOrReorderedEvents() throws InterruptedException {
+    int producers = 4, perProducer = 50_000;
+    var ring = new EventRing(64, WaitStrategy.yielding());
+    int[] lastCell = new int[producers];
+    Arrays.fill(lastCell, -1);
+    long[] handled = new long[1];
+    String[] error = new String[1];
+    var processor = new EventProcessor(ring, (seq, type, snake, cell, end) -> {
+      handled[0]++;
+      // Los campos de un evento vienen del mismo publish: snake y tipo identifican al productor
+      if (type != EventType.values()[snake % EventType.values().length] || cell <= lastCell[snake]) {
+        if (error[0] == null) error[0] = "seq " + seq + ": snake " + snake + " type " + type + " cell " + cell;
+      }
+      lastCell[snake] = cell;
+    });
+    var consumer = Thread.ofPlatform().start(processor);
+
+    var start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int id = p;
+      var type = EventType.values()[id % EventType.values().length];
+      threads.add(Thread.ofPlatform().start(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) ring.publish(type, id, i);
+      }));
+    }
+    start.countDown();
+    for (var t : threads) t.join();
+
+    long total = (long) producers * perProducer;
+    assertEquals(total, ring.claimed());
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (processor.sequence() < total && System.nanoTime() < deadline) Thread.sleep(1);
+    processor.halt();
+    consumer.join(5000);
+
+    assertNull(error[0]);
+    assertEquals(total, processor.sequence());
+    // Cada evento se entrego o se conto como perdido, nunca las dos cosas
+    assertEquals(total, handled[0] + processor.lost());
+    for (long s = total - ring.capacity(); s < total; s++) assertTrue(ring.isPublished(s));
+  }
+}